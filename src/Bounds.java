@@ -0,0 +1,117 @@
+/**
+ * Helper methods for the axis-aligned bounds of a Geometry.
+ *
+ * ZWECK:
+ * - Einheitlicher Zugriff auf min/max je Achse für ALLE Geometrie-Typen
+ * - Rückweg: aus min/max-Arrays wieder ein Rectangle bzw. Volume erzeugen
+ *
+ * ZWEI "FAMILIEN" von Geometrien (siehe encapsulate):
+ * - planar:       Point2D, Rectangle  → Bounds werden als Rectangle erzeugt
+ * - n-dimensional: Point, Volume      → Bounds werden als Volume erzeugt
+ *
+ * BEISPIEL:
+ * Bounds.lower(new Rectangle(new Point2D(1, 2), new Point2D(4, 3)), 1) → 2.0
+ */
+public final class Bounds {
+
+    /**
+     * Keine Instanzen - nur statische Hilfsmethoden.
+     */
+    private Bounds() {
+    }
+
+    /**
+     * Gibt die untere Grenze der Geometrie in einer Achse zurück.
+     *
+     * @param g    die Geometrie
+     * @param axis Index der Achse (0-basiert)
+     * @return minimale Koordinate in dieser Achse
+     * @throws RuntimeException if the type of <code>g</code> is unknown
+     */
+    public static double lower(Geometry g, int axis) {
+        if (g instanceof Point2D) {
+            Point2D p = (Point2D) g;
+            return axis == 0 ? p.getX() : p.getY();
+        } else if (g instanceof Rectangle) {
+            Point2D p = ((Rectangle) g).getLowerLeft();
+            return axis == 0 ? p.getX() : p.getY();
+        } else if (g instanceof Point) {
+            return ((Point) g).getCoordinate(axis);
+        } else if (g instanceof Volume) {
+            return ((Volume) g).getLowerCorner().getCoordinate(axis);
+        } else {
+            throw new RuntimeException("Unknown Geometry type");
+        }
+    }
+
+    /**
+     * Gibt die obere Grenze der Geometrie in einer Achse zurück.
+     *
+     * @param g    die Geometrie
+     * @param axis Index der Achse (0-basiert)
+     * @return maximale Koordinate in dieser Achse
+     * @throws RuntimeException if the type of <code>g</code> is unknown
+     */
+    public static double upper(Geometry g, int axis) {
+        if (g instanceof Point2D) {
+            Point2D p = (Point2D) g;
+            return axis == 0 ? p.getX() : p.getY();
+        } else if (g instanceof Rectangle) {
+            Point2D p = ((Rectangle) g).getUpperRight();
+            return axis == 0 ? p.getX() : p.getY();
+        } else if (g instanceof Point) {
+            return ((Point) g).getCoordinate(axis);
+        } else if (g instanceof Volume) {
+            return ((Volume) g).getUpperCorner().getCoordinate(axis);
+        } else {
+            throw new RuntimeException("Unknown Geometry type");
+        }
+    }
+
+    /**
+     * Prüft, ob die Geometrie zur planaren Familie (Point2D, Rectangle) gehört.
+     *
+     * @param g die Geometrie
+     * @return true für Point2D und Rectangle
+     */
+    public static boolean isPlanar(Geometry g) {
+        return g instanceof Point2D || g instanceof Rectangle;
+    }
+
+    /**
+     * Erzeugt aus min/max-Koordinaten ein Rectangle oder Volume.
+     *
+     * @param min    untere Ecke (wird nicht verändert)
+     * @param max    obere Ecke (wird nicht verändert)
+     * @param planar true → Rectangle (nur für 2 Dimensionen), sonst Volume
+     * @return Rectangle oder Volume mit diesen Ecken
+     * @throws RuntimeException if <code>planar</code> is set for more than 2 dimensions
+     */
+    public static Geometry box(double[] min, double[] max, boolean planar) {
+        if (planar) {
+            if (min.length != 2) {
+                throw new RuntimeException("Rectangle requires 2 dimensions");
+            }
+            return new Rectangle(new Point2D(min[0], min[1]), new Point2D(max[0], max[1]));
+        }
+        return new Volume(new Point(min), new Point(max));
+    }
+
+    /**
+     * Prüft, ob sich die Geometrie und der Quader [min, max] schneiden.
+     * Berührende Ränder zählen als Schnitt.
+     *
+     * @param g   die Geometrie
+     * @param min untere Ecke des Quaders
+     * @param max obere Ecke des Quaders
+     * @return true, wenn sich beide in jeder Achse überlappen
+     */
+    public static boolean intersects(Geometry g, double[] min, double[] max) {
+        for (int axis = 0; axis < min.length; axis++) {
+            if (lower(g, axis) > max[axis] || upper(g, axis) < min[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
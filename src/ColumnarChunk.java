@@ -0,0 +1,106 @@
+/**
+ * A batch of Geometries stored column by column.
+ *
+ * SPEICHER-LAYOUT:
+ * lower[axis][i], upper[axis][i] = Bounds der i-ten Geometrie
+ * (bei Punkten gilt lower == upper)
+ *
+ * VORTEIL: Nachfolgende Verarbeitung (Histogramme, Bounds, ...) läuft
+ * über primitive Arrays statt über einzelne Objekte.
+ */
+public class ColumnarChunk {
+
+    private final int dims;
+    private final boolean planar;
+    private final double[][] lower;
+    private final double[][] upper;
+    private int count;
+
+    /**
+     * Creates an empty chunk.
+     *
+     * @param dims     Anzahl der Dimensionen
+     * @param planar   true für Point2D/Rectangle, false für Point/Volume
+     * @param capacity maximale Anzahl Geometrien
+     */
+    public ColumnarChunk(int dims, boolean planar, int capacity) {
+        this.dims = dims;
+        this.planar = planar;
+        this.lower = new double[dims][capacity];
+        this.upper = new double[dims][capacity];
+    }
+
+    /**
+     * Hängt die Bounds einer Geometrie an.
+     *
+     * @param g die Geometrie
+     * @throws RuntimeException if the chunk is full or the dimensions or the
+     *                          kind (planar or not) do not match
+     */
+    public void add(Geometry g) {
+        if (g.dimensions() != dims) {
+            throw new RuntimeException("Geometry has different dimensions");
+        }
+        if (Bounds.isPlanar(g) != planar) {
+            throw new RuntimeException(planar ? "Expected Point2D or Rectangle" : "Expected Point or Volume");
+        }
+        if (count == capacity()) {
+            throw new RuntimeException("Chunk is full");
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            lower[axis][count] = Bounds.lower(g, axis);
+            upper[axis][count] = Bounds.upper(g, axis);
+        }
+        count++;
+    }
+
+    /**
+     * @return Anzahl der Dimensionen
+     */
+    public int dimensions() {
+        return dims;
+    }
+
+    /**
+     * @return true für Point2D/Rectangle, false für Point/Volume
+     */
+    public boolean isPlanar() {
+        return planar;
+    }
+
+    /**
+     * @return Anzahl der enthaltenen Geometrien
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return maximale Anzahl Geometrien
+     */
+    public int capacity() {
+        return lower[0].length;
+    }
+
+    /**
+     * Gibt die Spalte der unteren Grenzen einer Achse zurück (keine Kopie).
+     * Gültig sind nur die ersten {@link #size()} Einträge.
+     *
+     * @param axis Achse
+     * @return Spalte
+     */
+    public double[] lower(int axis) {
+        return lower[axis];
+    }
+
+    /**
+     * Gibt die Spalte der oberen Grenzen einer Achse zurück (keine Kopie).
+     * Gültig sind nur die ersten {@link #size()} Einträge.
+     *
+     * @param axis Achse
+     * @return Spalte
+     */
+    public double[] upper(int axis) {
+        return upper[axis];
+    }
+}
@@ -0,0 +1,272 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the convex hull of a set of 2D points.
+ *
+ * UNTERSCHIED zu encapsulate:
+ * - Point2D.encapsulate liefert ein achsenparalleles Rectangle
+ * - Die konvexe Hülle ist das kleinste konvexe Polygon um alle Punkte
+ *
+ * ALGORITHMUS:
+ * 1. Akl-Toussaint-Vorfilter: Die Punkte mit minimalem/maximalem x und y
+ *    (sie berühren die Bounding Box) bilden ein Viereck. Punkte STRIKT
+ *    innerhalb dieses Vierecks können nicht auf der Hülle liegen.
+ * 2. Andrew's Monotone Chain: Punkte nach (x, y) sortieren, dann untere
+ *    und obere Hülle in einem Durchlauf aufbauen → O(n log n)
+ * 3. Parallel (Fork-Join): Punkte in Blöcke teilen, Hülle je Block,
+ *    zwei Teilhüllen werden durch die Hülle ihrer Vereinigung verschmolzen
+ *
+ * ERGEBNIS:
+ * - Eckpunkte gegen den Uhrzeigersinn, beginnend beim kleinsten (x, y)
+ * - Kollineare Punkte auf Kanten und doppelte Punkte werden weggelassen
+ *
+ * BEISPIEL:
+ * List<Point2D> hull = ConvexHull.hull(points);
+ * int[] idx = ConvexHull.parallelHullIndices(xs, ys);
+ */
+public final class ConvexHull {
+
+    /**
+     * Unterhalb dieser Blockgröße wird nicht weiter parallel geteilt.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Keine Instanzen - nur statische Hilfsmethoden.
+     */
+    private ConvexHull() {
+    }
+
+    /**
+     * Berechnet die konvexe Hülle einer Punktliste.
+     *
+     * @param points die Punkte
+     * @return Eckpunkte der Hülle gegen den Uhrzeigersinn
+     */
+    public static List<Point2D> hull(List<Point2D> points) {
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = points.get(i).getX();
+            ys[i] = points.get(i).getY();
+        }
+        return toPoints(points, hullIndices(xs, ys));
+    }
+
+    /**
+     * Berechnet die konvexe Hülle einer Punktliste parallel.
+     *
+     * @param points die Punkte
+     * @return Eckpunkte der Hülle gegen den Uhrzeigersinn
+     */
+    public static List<Point2D> parallelHull(List<Point2D> points) {
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        Arrays.parallelSetAll(xs, i -> points.get(i).getX());
+        Arrays.parallelSetAll(ys, i -> points.get(i).getY());
+        return toPoints(points, parallelHullIndices(xs, ys));
+    }
+
+    /**
+     * Berechnet die konvexe Hülle von Punkten in Spaltenform.
+     *
+     * @param xs x-Koordinaten
+     * @param ys y-Koordinaten (gleiche Länge wie xs)
+     * @return Indizes der Hüllpunkte gegen den Uhrzeigersinn
+     * @throws RuntimeException if xs and ys have different lengths
+     */
+    public static int[] hullIndices(double[] xs, double[] ys) {
+        checkLengths(xs, ys);
+        int[] ids = new int[xs.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        return hull(xs, ys, ids, ids.length);
+    }
+
+    /**
+     * Berechnet die konvexe Hülle von Punkten in Spaltenform mit Fork-Join.
+     *
+     * @param xs x-Koordinaten
+     * @param ys y-Koordinaten (gleiche Länge wie xs)
+     * @return Indizes der Hüllpunkte gegen den Uhrzeigersinn
+     * @throws RuntimeException if xs and ys have different lengths
+     */
+    public static int[] parallelHullIndices(double[] xs, double[] ys) {
+        checkLengths(xs, ys);
+        return ForkJoinPool.commonPool().invoke(new HullTask(xs, ys, 0, xs.length));
+    }
+
+    /**
+     * Teilaufgabe: Hülle der Punkte from .. to-1.
+     */
+    private static final class HullTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final int from;
+        private final int to;
+
+        private HullTask(double[] xs, double[] ys, int from, int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                int[] ids = new int[to - from];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = from + i;
+                }
+                return hull(xs, ys, ids, ids.length);
+            }
+            int mid = (from + to) >>> 1;
+            HullTask left = new HullTask(xs, ys, from, mid);
+            left.fork();
+            int[] right = new HullTask(xs, ys, mid, to).compute();
+            int[] leftHull = left.join();
+
+            // MERGE: Hülle der Vereinigung beider Teilhüllen (wenige Punkte)
+            int[] merged = Arrays.copyOf(leftHull, leftHull.length + right.length);
+            System.arraycopy(right, 0, merged, leftHull.length, right.length);
+            return hull(xs, ys, merged, merged.length);
+        }
+    }
+
+    /**
+     * Hülle der Punkte ids[0, n): Vorfilter + Monotone Chain.
+     */
+    private static int[] hull(double[] xs, double[] ys, int[] ids, int n) {
+        if (n == 0) {
+            return new int[0];
+        }
+
+        // SCHRITT 1: Akl-Toussaint - Extrempunkte der Bounding Box
+        int left = ids[0];
+        int right = ids[0];
+        int bottom = ids[0];
+        int top = ids[0];
+        for (int k = 1; k < n; k++) {
+            int i = ids[k];
+            if (xs[i] < xs[left]) {
+                left = i;
+            }
+            if (xs[i] > xs[right]) {
+                right = i;
+            }
+            if (ys[i] < ys[bottom]) {
+                bottom = i;
+            }
+            if (ys[i] > ys[top]) {
+                top = i;
+            }
+        }
+
+        // Punkte strikt im Viereck left → bottom → right → top verwerfen,
+        // Überlebende verdichtet als (x, y)-Paare ablegen
+        int[] survivors = new int[n];
+        int m = 0;
+        for (int k = 0; k < n; k++) {
+            int i = ids[k];
+            boolean inside = cross(xs, ys, left, bottom, i) > 0
+                && cross(xs, ys, bottom, right, i) > 0
+                && cross(xs, ys, right, top, i) > 0
+                && cross(xs, ys, top, left, i) > 0;
+            if (!inside) {
+                survivors[m++] = i;
+            }
+        }
+        double[] xy = new double[2 * m];
+        int[] order = new int[m];
+        for (int k = 0; k < m; k++) {
+            xy[2 * k] = xs[survivors[k]];
+            xy[2 * k + 1] = ys[survivors[k]];
+            order[k] = k;
+        }
+
+        // SCHRITT 2: nach (x, y) sortieren, Duplikate entfernen
+        IndexSort.sort(order, 0, m, xy, 2, 0, 2);
+        int unique = 0;
+        for (int k = 0; k < m; k++) {
+            int p = order[k];
+            if (unique == 0 || xy[2 * p] != xy[2 * order[unique - 1]]
+                || xy[2 * p + 1] != xy[2 * order[unique - 1] + 1]) {
+                order[unique++] = p;
+            }
+        }
+        if (unique < 3) {
+            int[] result = new int[unique];
+            for (int k = 0; k < unique; k++) {
+                result[k] = survivors[order[k]];
+            }
+            return result;
+        }
+
+        // SCHRITT 3: Monotone Chain (untere Hülle, dann obere Hülle)
+        int[] chain = new int[2 * unique];
+        int size = 0;
+        for (int k = 0; k < unique; k++) {
+            while (size >= 2 && crossXY(xy, chain[size - 2], chain[size - 1], order[k]) <= 0) {
+                size--;
+            }
+            chain[size++] = order[k];
+        }
+        int lowerSize = size + 1;
+        for (int k = unique - 2; k >= 0; k--) {
+            while (size >= lowerSize && crossXY(xy, chain[size - 2], chain[size - 1], order[k]) <= 0) {
+                size--;
+            }
+            chain[size++] = order[k];
+        }
+
+        // Letzter Punkt = erster Punkt → weglassen
+        int[] result = new int[size - 1];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = survivors[chain[k]];
+        }
+        return result;
+    }
+
+    /**
+     * Kreuzprodukt (b - a) × (c - a): &gt; 0 wenn c links von a → b liegt.
+     */
+    private static double cross(double[] xs, double[] ys, int a, int b, int c) {
+        return (xs[b] - xs[a]) * (ys[c] - ys[a]) - (ys[b] - ys[a]) * (xs[c] - xs[a]);
+    }
+
+    /**
+     * Kreuzprodukt auf verdichteten (x, y)-Paaren.
+     */
+    private static double crossXY(double[] xy, int a, int b, int c) {
+        return (xy[2 * b] - xy[2 * a]) * (xy[2 * c + 1] - xy[2 * a + 1])
+            - (xy[2 * b + 1] - xy[2 * a + 1]) * (xy[2 * c] - xy[2 * a]);
+    }
+
+    /**
+     * Wandelt Indizes in die zugehörigen Point2D-Objekte um.
+     */
+    private static List<Point2D> toPoints(List<Point2D> points, int[] indices) {
+        List<Point2D> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(points.get(index));
+        }
+        return result;
+    }
+
+    /**
+     * Prüft, ob beide Koordinaten-Spalten gleich lang sind.
+     */
+    private static void checkLengths(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new RuntimeException("xs and ys have different lengths");
+        }
+    }
+}
@@ -0,0 +1,518 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Density-based clustering (DBSCAN) of Point2D and Point data.
+ *
+ * ZWECK:
+ * - Große Punktmengen clustern ohne externe Bibliothek und ohne Umwandlung
+ *   in fremde Objekte
+ * - Eingabe spaltenweise (columns[axis][row]) → Nachbarsuche liest nur
+ *   primitive Arrays
+ *
+ * BEGRIFFE:
+ * - Nachbarn von p: alle Punkte mit Abstand <= eps (p selbst zählt mit)
+ * - Kernpunkt:      mindestens minPoints Nachbarn
+ * - Randpunkt:      kein Kernpunkt, aber Nachbar eines Kernpunktes
+ *                   → Cluster des ersten gefundenen Kernpunktes
+ * - Rauschen:       alles andere (Label NOISE), ebenso NaN/Unendlich
+ *
+ * ALGORITHMUS:
+ * SCHRITT 1: Gitter mit Kantenlänge eps; Zelle = floor(c / eps) je Achse.
+ *            Punkte werden nach Zelle sortiert und in ein zusammenhängendes
+ *            Array kopiert → Nachbarn liegen nur in den 3^dims umliegenden
+ *            Zellen, die per Binärsuche gefunden werden
+ * SCHRITT 2: Kernpunkte bestimmen, parallel je Zelle (Abbruch bei minPoints)
+ * SCHRITT 3: Benachbarte Kernpunkte vereinigen, parallel je Zelle, mit
+ *            lock-freiem Union-Find (compareAndSet, Path Halving, die
+ *            größere Wurzel zeigt auf die kleinere)
+ * SCHRITT 4: Randpunkte zuordnen, parallel je Zelle
+ * SCHRITT 5: Cluster in Reihenfolge ihres ersten Kernpunktes nummerieren,
+ *            Bounds je Cluster über encapsulate der Ecken
+ *
+ * Das Ergebnis ist unabhängig von der Anzahl der Threads.
+ *
+ * BEISPIEL:
+ * Dbscan.Result r = new Dbscan(0.5, 5).cluster(new double[][] {xs, ys}, true);
+ * int cluster = r.label(17);          // NOISE oder 0 .. clusterCount - 1
+ * Geometry box = r.bounds(cluster);   // Rectangle
+ */
+public class Dbscan {
+
+    /**
+     * Label für Rauschen.
+     */
+    public static final int NOISE = -1;
+
+    /**
+     * Ergebnis einer Clusterung.
+     */
+    public static final class Result {
+        public final int clusterCount;
+        public final int noiseCount;
+
+        private final int[] labels;
+        private final boolean[] core;
+        private final int[] sizes;
+        private final Geometry[] bounds;
+
+        private Result(int[] labels, boolean[] core, int[] sizes, Geometry[] bounds, int noiseCount) {
+            this.clusterCount = sizes.length;
+            this.noiseCount = noiseCount;
+            this.labels = labels;
+            this.core = core;
+            this.sizes = sizes;
+            this.bounds = bounds;
+        }
+
+        /**
+         * @param row Zeile bzw. Index in der Eingabe
+         * @return Cluster 0 .. clusterCount - 1 oder NOISE
+         */
+        public int label(int row) {
+            return labels[row];
+        }
+
+        /**
+         * @return Kopie aller Labels, Index = Zeile
+         */
+        public int[] labels() {
+            return labels.clone();
+        }
+
+        /**
+         * @param row Zeile bzw. Index in der Eingabe
+         * @return true, wenn der Punkt ein Kernpunkt ist
+         */
+        public boolean isCore(int row) {
+            return core[row];
+        }
+
+        /**
+         * @param cluster Cluster
+         * @return Anzahl der Punkte (Kern- und Randpunkte)
+         */
+        public int size(int cluster) {
+            return sizes[cluster];
+        }
+
+        /**
+         * @param cluster Cluster
+         * @return Rectangle bzw. Volume um alle Punkte des Clusters
+         */
+        public Geometry bounds(int cluster) {
+            return bounds[cluster];
+        }
+
+        /**
+         * @param cluster Cluster
+         * @return Zeilen des Clusters, aufsteigend
+         */
+        public int[] members(int cluster) {
+            return IntStream.range(0, labels.length).filter(row -> labels[row] == cluster).toArray();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d clusters, %d noise", clusterCount, noiseCount);
+        }
+    }
+
+    private final double eps;
+    private final int minPoints;
+
+    /**
+     * Creates a clusterer.
+     *
+     * @param eps       Radius der Nachbarschaft (Rand zählt dazu)
+     * @param minPoints Mindestanzahl Nachbarn eines Kernpunktes (inklusive sich selbst)
+     * @throws RuntimeException if eps is not positive and finite or minPoints is lesser than 1
+     */
+    public Dbscan(double eps, int minPoints) {
+        if (!(eps > 0) || Double.isInfinite(eps)) {
+            throw new RuntimeException("eps must be positive and finite");
+        }
+        if (minPoints < 1) {
+            throw new RuntimeException("minPoints is < 1");
+        }
+        this.eps = eps;
+        this.minPoints = minPoints;
+    }
+
+    /**
+     * @return Radius der Nachbarschaft
+     */
+    public double getEps() {
+        return eps;
+    }
+
+    /**
+     * @return Mindestanzahl Nachbarn eines Kernpunktes
+     */
+    public int getMinPoints() {
+        return minPoints;
+    }
+
+    /**
+     * Clustert Punkte (alle Point2D oder alle Point gleicher Dimension).
+     *
+     * @param points die Punkte
+     * @return Ergebnis, Zeile = Index in der Liste
+     * @throws RuntimeException if the list mixes types or dimensions or contains other geometries
+     */
+    public Result cluster(List<? extends Geometry> points) {
+        if (points.isEmpty()) {
+            return cluster(new double[2][0], true);
+        }
+        Geometry first = points.get(0);
+        boolean planar = first instanceof Point2D;
+        int dims = first.dimensions();
+        double[][] columns = new double[dims][points.size()];
+        for (int row = 0; row < points.size(); row++) {
+            Geometry p = points.get(row);
+            boolean matches = planar ? p instanceof Point2D : p instanceof Point && p.dimensions() == dims;
+            if (!matches) {
+                throw new RuntimeException("All geometries must be points of the same type and dimension");
+            }
+            for (int axis = 0; axis < dims; axis++) {
+                columns[axis][row] = Bounds.lower(p, axis);
+            }
+        }
+        return cluster(columns, planar);
+    }
+
+    /**
+     * Clustert Punkte in Spaltenform.
+     *
+     * @param columns Koordinaten, columns[axis][row] (werden nicht verändert)
+     * @param planar  true → Bounds als Rectangle (nur mit 2 Spalten), sonst Volume
+     * @return Ergebnis
+     * @throws RuntimeException if there are fewer than 2 columns, the columns
+     *                          have different lengths or planar is set for more than 2
+     */
+    public Result cluster(double[][] columns, boolean planar) {
+        int dims = columns.length;
+        if (dims < 2 || (planar && dims != 2)) {
+            throw new RuntimeException("Invalid dimension " + dims);
+        }
+        int n = columns[0].length;
+        for (double[] column : columns) {
+            if (column.length != n) {
+                throw new RuntimeException("Columns have different lengths");
+            }
+        }
+
+        // SCHRITT 1: gültige Zeilen mit Zellkoordinaten, nach Zelle sortiert
+        double[] cellOf = new double[n * dims];
+        int valid = 0;
+        int[] order = new int[n];
+        for (int row = 0; row < n; row++) {
+            boolean finite = true;
+            for (int axis = 0; axis < dims; axis++) {
+                double c = columns[axis][row];
+                finite &= !Double.isNaN(c) && !Double.isInfinite(c);
+                // + 0.0 macht aus Zelle -0.0 eine 0.0: die Nachbarsuche bildet
+                // Schlüssel + 0 und fände Zelle -0.0 sonst nicht
+                cellOf[row * dims + axis] = Math.floor(c / eps) + 0.0;
+            }
+            if (finite) {
+                order[valid++] = row;
+            }
+        }
+        IndexSort.sort(order, 0, valid, cellOf, dims, 0, dims);
+
+        // Koordinaten in Zellreihenfolge: coords[pos * dims + axis]
+        double[] coords = new double[valid * dims];
+        int[] cellStart = new int[valid + 1];
+        double[] cellKey = new double[valid * dims];
+        int cells = 0;
+        for (int pos = 0; pos < valid; pos++) {
+            int row = order[pos];
+            if (pos == 0 || compareCell(cellOf, row * dims, cellKey, (cells - 1) * dims, dims) != 0) {
+                System.arraycopy(cellOf, row * dims, cellKey, cells * dims, dims);
+                cellStart[cells++] = pos;
+            }
+            for (int axis = 0; axis < dims; axis++) {
+                coords[pos * dims + axis] = columns[axis][row];
+            }
+        }
+        cellStart[cells] = valid;
+
+        Grid grid = new Grid(dims, coords, cellStart, cellKey, cells);
+        int[][] neighbours = new int[cells][];
+        IntStream.range(0, cells).parallel().forEach(cell -> neighbours[cell] = grid.neighbours(cell));
+
+        // SCHRITT 2: Kernpunkte
+        boolean[] core = new boolean[valid];
+        double eps2 = eps * eps;
+        IntStream.range(0, cells).parallel().forEach(cell -> {
+            for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                int found = 0;
+                search:
+                for (int other : neighbours[cell]) {
+                    for (int q = cellStart[other]; q < cellStart[other + 1]; q++) {
+                        if (grid.distance2(p, q) <= eps2 && ++found >= minPoints) {
+                            break search;
+                        }
+                    }
+                }
+                core[p] = found >= minPoints;
+            }
+        });
+
+        // SCHRITT 3: benachbarte Kernpunkte vereinigen; jedes Zellpaar nur
+        // einmal (other >= cell), in derselben Zelle nur q > p
+        AtomicIntegerArray parent = new AtomicIntegerArray(valid);
+        for (int pos = 0; pos < valid; pos++) {
+            parent.set(pos, pos);
+        }
+        IntStream.range(0, cells).parallel().forEach(cell -> {
+            for (int other : neighbours[cell]) {
+                if (other < cell) {
+                    continue;
+                }
+                for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                    if (!core[p]) {
+                        continue;
+                    }
+                    int from = other == cell ? p + 1 : cellStart[other];
+                    for (int q = from; q < cellStart[other + 1]; q++) {
+                        // find() vor dem Abstand: schon verbundene Paare kosten nichts
+                        if (core[q] && find(parent, p) != find(parent, q) && grid.distance2(p, q) <= eps2) {
+                            union(parent, p, q);
+                        }
+                    }
+                }
+            }
+        });
+
+        // SCHRITT 4: Randpunkte → erster Kernpunkt in Reichweite
+        int[] borderOf = new int[valid];
+        IntStream.range(0, cells).parallel().forEach(cell -> {
+            for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                borderOf[p] = -1;
+                if (core[p]) {
+                    continue;
+                }
+                search:
+                for (int other : neighbours[cell]) {
+                    for (int q = cellStart[other]; q < cellStart[other + 1]; q++) {
+                        if (core[q] && grid.distance2(p, q) <= eps2) {
+                            borderOf[p] = q;
+                            break search;
+                        }
+                    }
+                }
+            }
+        });
+
+        // SCHRITT 5: Nummerierung in Zeilenreihenfolge (unabhängig von Threads)
+        int[] position = new int[n];
+        Arrays.fill(position, -1);
+        for (int pos = 0; pos < valid; pos++) {
+            position[order[pos]] = pos;
+        }
+        int[] clusterOfRoot = new int[valid];
+        Arrays.fill(clusterOfRoot, -1);
+        int[] labels = new int[n];
+        boolean[] coreByRow = new boolean[n];
+        int clusters = 0;
+        for (int row = 0; row < n; row++) {
+            int pos = position[row];
+            labels[row] = NOISE;
+            if (pos >= 0 && core[pos]) {
+                int root = find(parent, pos);
+                if (clusterOfRoot[root] < 0) {
+                    clusterOfRoot[root] = clusters++;
+                }
+                labels[row] = clusterOfRoot[root];
+                coreByRow[row] = true;
+            }
+        }
+        int noise = 0;
+        for (int row = 0; row < n; row++) {
+            int pos = position[row];
+            if (pos >= 0 && !core[pos] && borderOf[pos] >= 0) {
+                labels[row] = clusterOfRoot[find(parent, borderOf[pos])];
+            }
+            if (labels[row] == NOISE) {
+                noise++;
+            }
+        }
+
+        // Bounds je Cluster: min/max-Ecken, dann encapsulate → Rectangle bzw. Volume
+        int[] sizes = new int[clusters];
+        double[][] min = new double[clusters][dims];
+        double[][] max = new double[clusters][dims];
+        for (double[] m : min) {
+            Arrays.fill(m, Double.POSITIVE_INFINITY);
+        }
+        for (double[] m : max) {
+            Arrays.fill(m, Double.NEGATIVE_INFINITY);
+        }
+        for (int row = 0; row < n; row++) {
+            int cluster = labels[row];
+            if (cluster == NOISE) {
+                continue;
+            }
+            sizes[cluster]++;
+            for (int axis = 0; axis < dims; axis++) {
+                double c = columns[axis][row];
+                min[cluster][axis] = Math.min(min[cluster][axis], c);
+                max[cluster][axis] = Math.max(max[cluster][axis], c);
+            }
+        }
+        Geometry[] bounds = new Geometry[clusters];
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            bounds[cluster] = corner(min[cluster], planar).encapsulate(corner(max[cluster], planar));
+        }
+        return new Result(labels, coreByRow, sizes, bounds, noise);
+    }
+
+    private static Geometry corner(double[] c, boolean planar) {
+        return planar ? new Point2D(c[0], c[1]) : new Point(c);
+    }
+
+    /**
+     * Sucht die Wurzel mit Path Halving (thread-sicher).
+     */
+    private static int find(AtomicIntegerArray parent, int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int grand = parent.get(p);
+            if (p != grand) {
+                // Abkürzung; schlägt fehl, wenn ein anderer Thread schneller war - egal
+                parent.compareAndSet(x, p, grand);
+            }
+            x = grand;
+        }
+    }
+
+    /**
+     * Vereinigt zwei Mengen: die größere Wurzel zeigt auf die kleinere.
+     * compareAndSet schlägt fehl, wenn die Wurzel inzwischen keine mehr ist
+     * → mit den neuen Wurzeln wiederholen.
+     */
+    private static void union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            a = find(parent, a);
+            b = find(parent, b);
+            if (a == b) {
+                return;
+            }
+            if (a < b) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            if (parent.compareAndSet(a, a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lexikographischer Vergleich zweier Zellkoordinaten.
+     */
+    private static int compareCell(double[] a, int aOffset, double[] b, int bOffset, int dims) {
+        for (int axis = 0; axis < dims; axis++) {
+            int c = Double.compare(a[aOffset + axis], b[bOffset + axis]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Nach Zellen sortierte Koordinaten mit Nachbarsuche.
+     */
+    private static final class Grid {
+        final int dims;
+        final double[] coords;
+        final int[] cellStart;
+        final double[] cellKey;
+        final int cells;
+
+        /**
+         * Alle 3^dims Verschiebungen (-1, 0, +1) je Achse.
+         */
+        final int[][] offsets;
+
+        Grid(int dims, double[] coords, int[] cellStart, double[] cellKey, int cells) {
+            this.dims = dims;
+            this.coords = coords;
+            this.cellStart = cellStart;
+            this.cellKey = cellKey;
+            this.cells = cells;
+            int count = 1;
+            for (int axis = 0; axis < dims; axis++) {
+                count *= 3;
+            }
+            offsets = new int[count][dims];
+            for (int i = 0; i < count; i++) {
+                int rest = i;
+                for (int axis = 0; axis < dims; axis++) {
+                    offsets[i][axis] = rest % 3 - 1;
+                    rest /= 3;
+                }
+            }
+        }
+
+        /**
+         * Gibt die belegten Nachbarzellen (inklusive der Zelle selbst) zurück.
+         */
+        int[] neighbours(int cell) {
+            int[] found = new int[offsets.length];
+            int count = 0;
+            double[] key = new double[dims];
+            for (int[] offset : offsets) {
+                for (int axis = 0; axis < dims; axis++) {
+                    key[axis] = cellKey[cell * dims + axis] + offset[axis];
+                }
+                int index = search(key);
+                if (index >= 0) {
+                    found[count++] = index;
+                }
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        /**
+         * Binärsuche nach einer Zelle, -1 wenn nicht belegt.
+         */
+        int search(double[] key) {
+            int lo = 0;
+            int hi = cells - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = compareCell(cellKey, mid * dims, key, 0, dims);
+                if (c < 0) {
+                    lo = mid + 1;
+                } else if (c > 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Quadrierter Abstand zweier Punkte (Positionen im sortierten Array).
+         */
+        double distance2(int p, int q) {
+            double sum = 0;
+            for (int axis = 0; axis < dims; axis++) {
+                double d = coords[p * dims + axis] - coords[q * dims + axis];
+                sum += d * d;
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,385 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Counts points per cell of a regular grid over a Rectangle or Volume.
+ *
+ * ZWECK:
+ * - Heatmaps/Dichten für zig Millionen Punkte
+ * - Eingabe spaltenweise (columns[axis][row]) → keine Allokation pro Punkt
+ *
+ * RASTER:
+ * - Jede Achse der Region wird in resolution[axis] gleich breite Zellen geteilt
+ * - Zelle = floor((c - min) / (max - min) * resolution), die obere Grenze der
+ *   Region gehört zur letzten Zelle
+ * - Punkte außerhalb der Region (oder NaN) werden nur in outside() gezählt
+ *
+ * SPEICHER-LAYOUT:
+ * counts[cell_0 + cell_1 * res_0 + cell_2 * res_0 * res_1 + ...]
+ * → im 2D-Fall zeilenweise: counts[y * resX + x]
+ *
+ * PARALLEL (parallelAdd):
+ * - Zeilen werden in einen Block pro Thread geteilt
+ * - Jeder Block zählt in ein eigenes Array (keine Synchronisation)
+ * - Zum Schluss werden die Arrays paarweise addiert und in dieses übernommen
+ *
+ * INKREMENTELL:
+ * - add()/parallelAdd() zählen zu den bisherigen Werten hinzu
+ * - merge() addiert ein Histogramm mit gleicher Region und Auflösung
+ *   → Histogramme können über mehrere Batches gepflegt werden
+ *
+ * NICHT thread-sicher (parallelAdd ist intern parallel).
+ *
+ * BEISPIEL:
+ * DensityHistogram heat = new DensityHistogram(region, 1024, 1024);
+ * heat.parallelAdd(new double[][] {xs, ys});
+ * long[] counts = heat.counts();
+ */
+public class DensityHistogram {
+
+    /**
+     * Mindestanzahl Zeilen pro Block in parallelAdd().
+     */
+    private static final int MIN_BLOCK = 1 << 16;
+
+    private final Geometry region;
+    private final int dims;
+    private final double[] min;
+    private final double[] max;
+
+    /**
+     * Zellen je Achse, Skalierung (Zellen pro Einheit) und Schrittweite im Array.
+     */
+    private final int[] resolution;
+    private final double[] scale;
+    private final int[] stride;
+
+    /**
+     * Zählerstände aller Zellen.
+     */
+    private final long[] counts;
+
+    /**
+     * Anzahl der Punkte innerhalb bzw. außerhalb der Region.
+     */
+    private long total;
+    private long outside;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param region     Rectangle oder Volume
+     * @param resolution Zellen je Achse; ein Wert gilt für alle Achsen
+     * @throws RuntimeException if the region is neither Rectangle nor Volume,
+     *                          is not finite, or the resolution is invalid
+     */
+    public DensityHistogram(Geometry region, int... resolution) {
+        if (!(region instanceof Rectangle) && !(region instanceof Volume)) {
+            throw new RuntimeException("Region must be a Rectangle or Volume");
+        }
+        this.region = region;
+        this.dims = region.dimensions();
+        if (resolution.length == 1) {
+            int cells = resolution[0];
+            resolution = new int[dims];
+            Arrays.fill(resolution, cells);
+        }
+        if (resolution.length != dims) {
+            throw new RuntimeException("Expected " + dims + " resolutions");
+        }
+        this.resolution = resolution.clone();
+        this.min = new double[dims];
+        this.max = new double[dims];
+        this.scale = new double[dims];
+        this.stride = new int[dims];
+
+        long cells = 1;
+        for (int axis = 0; axis < dims; axis++) {
+            if (this.resolution[axis] < 1) {
+                throw new RuntimeException("resolution is < 1");
+            }
+            min[axis] = Bounds.lower(region, axis);
+            max[axis] = Bounds.upper(region, axis);
+            double width = max[axis] - min[axis];
+            if (Double.isInfinite(width) || Double.isNaN(width)) {
+                throw new RuntimeException("Region must be finite");
+            }
+            // Kante der Länge 0: alle Punkte auf der Kante in Zelle 0
+            scale[axis] = width > 0 ? this.resolution[axis] / width : 0.0;
+            stride[axis] = (int) cells;
+            cells *= this.resolution[axis];
+            if (cells > Integer.MAX_VALUE - 8) {
+                throw new RuntimeException("Too many cells: " + cells);
+            }
+        }
+        this.counts = new long[(int) cells];
+    }
+
+    /**
+     * Zählt einen Punkt.
+     *
+     * @param point Point2D oder Point mit passender Dimension
+     * @throws RuntimeException if the dimensions do not match
+     */
+    public void add(Geometry point) {
+        if (point == null || point.dimensions() != dims) {
+            throw new RuntimeException("Geometry has different dimensions");
+        }
+        int cell = 0;
+        for (int axis = 0; axis < dims && cell >= 0; axis++) {
+            int bin = bin(Bounds.lower(point, axis), axis);
+            cell = bin < 0 ? -1 : cell + bin * stride[axis];
+        }
+        if (cell < 0) {
+            outside++;
+        } else {
+            counts[cell]++;
+            total++;
+        }
+    }
+
+    /**
+     * Zählt alle Zeilen der Spalten.
+     *
+     * @param columns Koordinaten-Spalten gleicher Länge, columns[axis][row]
+     * @throws RuntimeException if the number of columns does not match
+     */
+    public void add(double[][] columns) {
+        add(columns, 0, rows(columns));
+    }
+
+    /**
+     * Zählt die Zeilen [from, to) der Spalten.
+     *
+     * @param columns Koordinaten-Spalten, columns[axis][row]
+     * @param from    erste Zeile
+     * @param to      Zeile nach der letzten
+     * @throws RuntimeException if the number of columns does not match
+     */
+    public void add(double[][] columns, int from, int to) {
+        checkColumns(columns);
+        long inside = count(columns, from, to, counts);
+        total += inside;
+        outside += (to - from) - inside;
+    }
+
+    /**
+     * Zählt alle Zeilen der Spalten parallel, mit einem eigenen
+     * Zwischen-Histogramm pro Block.
+     *
+     * @param columns Koordinaten-Spalten gleicher Länge, columns[axis][row]
+     * @throws RuntimeException if the number of columns does not match
+     */
+    public void parallelAdd(double[][] columns) {
+        int rows = rows(columns);
+        parallelAdd(columns, (int) Math.min(Runtime.getRuntime().availableProcessors(),
+                                            Math.max(1, (long) rows / MIN_BLOCK)));
+    }
+
+    /**
+     * Zählt alle Zeilen der Spalten parallel in <code>blocks</code> Blöcken.
+     *
+     * @param columns Koordinaten-Spalten gleicher Länge, columns[axis][row]
+     * @param blocks  Anzahl der Blöcke (je ein Zwischen-Histogramm)
+     * @throws RuntimeException if the number of columns does not match
+     */
+    public void parallelAdd(double[][] columns, int blocks) {
+        int rows = rows(columns);
+        if (blocks <= 1 || rows < blocks) {
+            add(columns, 0, rows);
+            return;
+        }
+
+        // Jeder Block zählt in ein eigenes Array, danach paarweise addieren
+        long[] inside = new long[blocks];
+        long[] merged = IntStream.range(0, blocks).parallel()
+            .mapToObj(b -> {
+                long[] local = new long[counts.length];
+                int from = (int) ((long) rows * b / blocks);
+                int to = (int) ((long) rows * (b + 1) / blocks);
+                inside[b] = count(columns, from, to, local);
+                return local;
+            })
+            .reduce((a, b) -> {
+                for (int i = 0; i < a.length; i++) {
+                    a[i] += b[i];
+                }
+                return a;
+            })
+            .orElseThrow();
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += merged[i];
+        }
+        long sum = Arrays.stream(inside).sum();
+        total += sum;
+        outside += rows - sum;
+    }
+
+    /**
+     * Addiert die Zählerstände eines anderen Histogramms.
+     *
+     * @param other Histogramm mit gleicher Region und Auflösung
+     * @throws RuntimeException if region or resolution differ
+     */
+    public void merge(DensityHistogram other) {
+        if (!Arrays.equals(min, other.min) || !Arrays.equals(max, other.max)
+                || !Arrays.equals(resolution, other.resolution)) {
+            throw new RuntimeException("Histograms have different grids");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        outside += other.outside;
+    }
+
+    /**
+     * Setzt alle Zählerstände auf 0.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0L);
+        total = 0;
+        outside = 0;
+    }
+
+    /**
+     * Gibt die Zählerstände zurück (keine Kopie, Layout siehe Klassenkommentar).
+     *
+     * @return Zählerstände aller Zellen
+     */
+    public long[] counts() {
+        return counts;
+    }
+
+    /**
+     * Gibt den Zählerstand einer Zelle zurück.
+     *
+     * @param cell Zellkoordinaten, eine je Achse
+     * @return Anzahl Punkte in der Zelle
+     */
+    public long count(int... cell) {
+        return counts[index(cell)];
+    }
+
+    /**
+     * Berechnet den Index einer Zelle in {@link #counts()}.
+     *
+     * @param cell Zellkoordinaten, eine je Achse
+     * @return Index
+     * @throws RuntimeException if the cell lies outside of the grid
+     */
+    public int index(int... cell) {
+        if (cell.length != dims) {
+            throw new RuntimeException("Expected " + dims + " cell coordinates");
+        }
+        int index = 0;
+        for (int axis = 0; axis < dims; axis++) {
+            if (cell[axis] < 0 || cell[axis] >= resolution[axis]) {
+                throw new RuntimeException("Cell out of range on axis " + axis);
+            }
+            index += cell[axis] * stride[axis];
+        }
+        return index;
+    }
+
+    /**
+     * Gibt die Bounds einer Zelle zurück.
+     *
+     * @param index Index in {@link #counts()}
+     * @return Rectangle bzw. Volume der Zelle
+     */
+    public Geometry cellBounds(int index) {
+        if (index < 0 || index >= counts.length) {
+            throw new RuntimeException("Index out of range: " + index);
+        }
+        double[] lo = new double[dims];
+        double[] hi = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            int bin = index / stride[axis] % resolution[axis];
+            double width = (max[axis] - min[axis]) / resolution[axis];
+            lo[axis] = min[axis] + bin * width;
+            hi[axis] = bin == resolution[axis] - 1 ? max[axis] : min[axis] + (bin + 1) * width;
+        }
+        return Bounds.box(lo, hi, region instanceof Rectangle);
+    }
+
+    /**
+     * @return Anzahl Punkte innerhalb der Region
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * @return Anzahl Punkte außerhalb der Region (oder mit NaN)
+     */
+    public long outside() {
+        return outside;
+    }
+
+    /**
+     * @return Zellen je Achse (Kopie)
+     */
+    public int[] getResolution() {
+        return resolution.clone();
+    }
+
+    /**
+     * @return die Region
+     */
+    public Geometry getRegion() {
+        return region;
+    }
+
+    /**
+     * Zählt die Zeilen [from, to) in target.
+     *
+     * ABLAUF: Achse für Achse wird der Zellindex aufgebaut; ein Punkt
+     * außerhalb bekommt -1 und wird übersprungen.
+     *
+     * @return Anzahl der gezählten Punkte (innerhalb der Region)
+     */
+    private long count(double[][] columns, int from, int to, long[] target) {
+        long inside = 0;
+        for (int row = from; row < to; row++) {
+            int cell = 0;
+            for (int axis = 0; axis < dims; axis++) {
+                int bin = bin(columns[axis][row], axis);
+                if (bin < 0) {
+                    cell = -1;
+                    break;
+                }
+                cell += bin * stride[axis];
+            }
+            if (cell >= 0) {
+                target[cell]++;
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Zelle einer Koordinate auf einer Achse, -1 wenn außerhalb.
+     */
+    private int bin(double c, int axis) {
+        if (!(c >= min[axis] && c <= max[axis])) {
+            return -1;
+        }
+        int bin = (int) ((c - min[axis]) * scale[axis]);
+        // c == max (oder Rundung) → letzte Zelle
+        return Math.min(bin, resolution[axis] - 1);
+    }
+
+    private int rows(double[][] columns) {
+        checkColumns(columns);
+        return columns[0].length;
+    }
+
+    private void checkColumns(double[][] columns) {
+        if (columns.length != dims) {
+            throw new RuntimeException("Expected " + dims + " columns");
+        }
+    }
+}
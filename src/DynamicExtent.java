@@ -0,0 +1,226 @@
+import java.util.Arrays;
+
+/**
+ * Maintains the bounding box of a changing set of Geometries.
+ *
+ * PROBLEM:
+ * - Mit encapsulate kann die Ausdehnung beim Hinzufügen mitgeführt werden
+ * - Beim Entfernen kann sie aber nicht schrumpfen → Neuberechnung in O(n)
+ *
+ * LÖSUNG: Segmentbaum über Einfüge-Slots
+ * - Jede Geometrie belegt einen Slot (Blatt des Baums)
+ * - Jeder innere Knoten speichert min/max je Achse seiner beiden Kinder
+ * - Wurzel = aktuelle Ausdehnung
+ * - add/remove: ein Blatt ändern und den Pfad zur Wurzel neu berechnen
+ *   → O(d log n) pro Operation, bounds() in O(d)
+ *
+ * SPEICHER-LAYOUT (spaltenlos, flach):
+ * mins[node * d + axis], maxs[node * d + axis]
+ * Knoten 1 = Wurzel, Kinder von k = 2k und 2k+1, Blätter ab capacity
+ * Leere Slots: min = +Infinity, max = -Infinity (neutral für min/max)
+ *
+ * BEISPIEL:
+ * DynamicExtent extent = new DynamicExtent();
+ * int a = extent.add(new Point2D(0, 0));
+ * int b = extent.add(new Point2D(5, 5));
+ * extent.remove(b);
+ * extent.bounds() → Rectangle[Point2D(0.00, 0.00), Point2D(0.00, 0.00)]
+ */
+public class DynamicExtent {
+
+    /**
+     * Anfangsanzahl der Slots (wird bei Bedarf verdoppelt).
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Anzahl der Dimensionen, 0 solange noch nichts eingefügt wurde.
+     */
+    private int dims;
+
+    /**
+     * true → bounds() liefert ein Rectangle, sonst ein Volume.
+     */
+    private boolean planar;
+
+    /**
+     * Anzahl der Slots (Zweierpotenz).
+     */
+    private int capacity;
+
+    /**
+     * Minima und Maxima aller Knoten, Index node * dims + axis.
+     */
+    private double[] mins;
+    private double[] maxs;
+
+    /**
+     * Belegte Slots.
+     */
+    private boolean[] used;
+
+    /**
+     * Stapel freier Slots, die wiederverwendet werden können.
+     */
+    private int[] freeSlots;
+    private int freeCount;
+
+    /**
+     * Nächster noch nie benutzter Slot.
+     */
+    private int nextSlot;
+
+    /**
+     * Anzahl der enthaltenen Geometrien.
+     */
+    private int size;
+
+    /**
+     * Fügt eine Geometrie hinzu.
+     *
+     * @param g die Geometrie
+     * @return Handle für {@link #remove(int)}
+     * @throws RuntimeException if <code>g</code> does not match the dimensions
+     *                          or the family (Point2D/Rectangle vs. Point/Volume)
+     *                          of the geometries added before
+     */
+    public int add(Geometry g) {
+        if (g == null) {
+            throw new RuntimeException("Geometry is null");
+        }
+        if (dims == 0) {
+            init(g.dimensions(), Bounds.isPlanar(g));
+        } else if (g.dimensions() != dims || Bounds.isPlanar(g) != planar) {
+            throw new RuntimeException("Geometry does not match the extent");
+        }
+
+        // Slot wählen: zuerst freie Slots wiederverwenden
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (nextSlot == capacity) {
+                grow();
+            }
+            slot = nextSlot++;
+        }
+
+        // Blatt setzen und Pfad zur Wurzel aktualisieren
+        int leaf = capacity + slot;
+        for (int axis = 0; axis < dims; axis++) {
+            mins[leaf * dims + axis] = Bounds.lower(g, axis);
+            maxs[leaf * dims + axis] = Bounds.upper(g, axis);
+        }
+        used[slot] = true;
+        size++;
+        propagate(leaf);
+        return slot;
+    }
+
+    /**
+     * Entfernt die Geometrie mit dem gegebenen Handle.
+     *
+     * @param handle Rückgabewert von {@link #add(Geometry)}
+     * @throws RuntimeException if the handle is not in use
+     */
+    public void remove(int handle) {
+        if (handle < 0 || handle >= nextSlot || !used[handle]) {
+            throw new RuntimeException("Unknown handle " + handle);
+        }
+
+        // Blatt leeren (neutrale Werte)
+        int leaf = capacity + handle;
+        Arrays.fill(mins, leaf * dims, leaf * dims + dims, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, leaf * dims, leaf * dims + dims, Double.NEGATIVE_INFINITY);
+        used[handle] = false;
+        freeSlots[freeCount++] = handle;
+        size--;
+        propagate(leaf);
+    }
+
+    /**
+     * Gibt die aktuelle Ausdehnung aller enthaltenen Geometrien zurück.
+     *
+     * @return Rectangle bzw. Volume oder <code>null</code>, wenn leer
+     */
+    public Geometry bounds() {
+        if (size == 0) {
+            return null;
+        }
+        double[] min = Arrays.copyOfRange(mins, dims, 2 * dims);
+        double[] max = Arrays.copyOfRange(maxs, dims, 2 * dims);
+        return Bounds.box(min, max, planar);
+    }
+
+    /**
+     * Gibt die Anzahl der enthaltenen Geometrien zurück.
+     *
+     * @return Anzahl
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Legt die Arrays beim ersten add() an.
+     */
+    private void init(int dims, boolean planar) {
+        this.dims = dims;
+        this.planar = planar;
+        this.capacity = INITIAL_CAPACITY;
+        this.mins = new double[2 * capacity * dims];
+        this.maxs = new double[2 * capacity * dims];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        this.used = new boolean[capacity];
+        this.freeSlots = new int[capacity];
+    }
+
+    /**
+     * Verdoppelt die Anzahl der Slots und baut den Baum neu auf.
+     * Amortisiert O(d) pro add().
+     */
+    private void grow() {
+        int oldCapacity = capacity;
+        double[] oldMins = mins;
+        double[] oldMaxs = maxs;
+
+        capacity = oldCapacity * 2;
+        mins = new double[2 * capacity * dims];
+        maxs = new double[2 * capacity * dims];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+
+        // Alte Blätter an den Anfang der neuen Blattebene kopieren
+        System.arraycopy(oldMins, oldCapacity * dims, mins, capacity * dims, oldCapacity * dims);
+        System.arraycopy(oldMaxs, oldCapacity * dims, maxs, capacity * dims, oldCapacity * dims);
+        for (int node = capacity - 1; node >= 1; node--) {
+            combine(node);
+        }
+
+        used = Arrays.copyOf(used, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    /**
+     * Berechnet alle Knoten vom Blatt bis zur Wurzel neu.
+     */
+    private void propagate(int leaf) {
+        for (int node = leaf >>> 1; node >= 1; node >>>= 1) {
+            combine(node);
+        }
+    }
+
+    /**
+     * Knoten = min/max seiner beiden Kinder, je Achse.
+     */
+    private void combine(int node) {
+        int target = node * dims;
+        int l = 2 * node * dims;
+        int r = l + dims;
+        for (int axis = 0; axis < dims; axis++) {
+            mins[target + axis] = Math.min(mins[l + axis], mins[r + axis]);
+            maxs[target + axis] = Math.max(maxs[l + axis], maxs[r + axis]);
+        }
+    }
+}
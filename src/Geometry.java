@@ -1,3 +1,5 @@
+import java.util.Comparator;
+
 /**
  * Every Geometry represents a body in a data-space with {@link #dimensions()}.
  *
@@ -5,6 +7,15 @@
  */
 public abstract class Geometry implements Comparable<Geometry> {
 
+    /**
+     * Orders Geometries by {@link #logVolume()}. Unlike {@link #compareTo(Geometry)}
+     * this stays correct for high-dimensional Geometries whose volume over- or
+     * underflows a <code>double</code>. <code>null</code> is ordered first, as in
+     * {@link #compareTo(Geometry)}.
+     */
+    public static final Comparator<Geometry> LOG_VOLUME_ORDER =
+        Comparator.nullsFirst((a, b) -> Double.compare(a.logVolume(), b.logVolume()));
+
     /**
      * Holds the number of dimensions for this Geometry.
      */
@@ -42,6 +53,18 @@ public abstract class Geometry implements Comparable<Geometry> {
      */
     public abstract double volume();
 
+    /**
+     * Returns the natural logarithm of the volume of this Geometry. Subclasses
+     * should compute it as a sum of logarithms, so that it neither overflows
+     * nor underflows where {@link #volume()} does.
+     *
+     * @return <code>Math.log(volume())</code>, <code>-Infinity</code> for an
+     * empty volume
+     */
+    public double logVolume() {
+        return Math.log(volume());
+    }
+
     /**
      * Encapsulates this Geometry and the given Geometry by a new Geometry and
      * returns the new Geometry. Thus the new Geometry then contains at least
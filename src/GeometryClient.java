@@ -0,0 +1,274 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+
+/**
+ * Client for {@link GeometryServer}.
+ *
+ * ZWEI ARTEN DER NUTZUNG:
+ *
+ * 1. Einfach (eine Anfrage, warten auf Antwort):
+ *    double v = client.volume(rect);
+ *
+ * 2. Pipelining (viele Anfragen, dann alle Antworten):
+ *    for (...) client.sendVolume(rect);
+ *    client.flush();
+ *    for (...) client.receive();
+ *
+ * Ein Client ist NICHT thread-sicher: eine Verbindung pro Thread verwenden.
+ */
+public class GeometryClient implements Closeable {
+
+    /**
+     * Antwort des Servers.
+     *
+     * GENAU EINES der Felder ist gesetzt, abhängig von der Operation:
+     * - value    → OP_VOLUME
+     * - geometry → OP_ENCAPSULATE, OP_BOUNDS
+     * - error    → STATUS_ERROR
+     */
+    public static final class Response {
+        public final int requestId;
+        public final double value;
+        public final Geometry geometry;
+        public final String error;
+
+        private Response(int requestId, double value, Geometry geometry, String error) {
+            this.requestId = requestId;
+            this.value = value;
+            this.geometry = geometry;
+            this.error = error;
+        }
+    }
+
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    /**
+     * Operationen der gesendeten, noch nicht beantworteten Anfragen (FIFO).
+     */
+    private byte[] pending = new byte[64];
+    private int pendingHead;
+    private int pendingCount;
+
+    /**
+     * Nächste Anfrage-ID.
+     */
+    private int nextId;
+
+    private GeometryClient(SocketChannel channel) {
+        this.channel = channel;
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+    }
+
+    /**
+     * Verbindet sich mit einem Server.
+     *
+     * @param address InetSocketAddress (TCP) oder UnixDomainSocketAddress
+     * @return verbundener Client
+     * @throws IOException wenn keine Verbindung möglich ist
+     */
+    public static GeometryClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+            ? SocketChannel.open(StandardProtocolFamily.UNIX)
+            : SocketChannel.open();
+        if (!(address instanceof UnixDomainSocketAddress)) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+        channel.connect(address);
+        return new GeometryClient(channel);
+    }
+
+    /**
+     * Berechnet das Volumen auf dem Server.
+     *
+     * @param g die Geometrie (es zählen ihre Bounds)
+     * @return Volumen
+     * @throws IOException bei Verbindungsfehlern
+     */
+    public double volume(Geometry g) throws IOException {
+        sendVolume(g);
+        flush();
+        return check(receive()).value;
+    }
+
+    /**
+     * Umschließt zwei Geometrien auf dem Server.
+     *
+     * @param a erste Geometrie
+     * @param b zweite Geometrie
+     * @return umschließendes Volume
+     * @throws IOException bei Verbindungsfehlern
+     */
+    public Geometry encapsulate(Geometry a, Geometry b) throws IOException {
+        sendEncapsulate(a, b);
+        flush();
+        return check(receive()).geometry;
+    }
+
+    /**
+     * Berechnet die Bounds vieler Geometrien auf dem Server.
+     *
+     * @param geometries Geometrien mit gleicher Dimension (mindestens eine)
+     * @return umschließendes Volume
+     * @throws IOException bei Verbindungsfehlern
+     */
+    public Geometry bounds(List<? extends Geometry> geometries) throws IOException {
+        sendBounds(geometries);
+        flush();
+        return check(receive()).geometry;
+    }
+
+    /**
+     * Puffert eine Volumen-Anfrage (ohne zu senden).
+     *
+     * @param g die Geometrie
+     * @return Anfrage-ID
+     * @throws IOException bei Verbindungsfehlern
+     */
+    public int sendVolume(Geometry g) throws IOException {
+        int id = begin(GeometryProtocol.OP_VOLUME);
+        GeometryProtocol.writeBox(out, g);
+        return id;
+    }
+
+    /**
+     * Puffert eine Encapsulate-Anfrage (ohne zu senden).
+     *
+     * @param a erste Geometrie
+     * @param b zweite Geometrie
+     * @return Anfrage-ID
+     * @throws IOException bei Verbindungsfehlern
+     */
+    public int sendEncapsulate(Geometry a, Geometry b) throws IOException {
+        int id = begin(GeometryProtocol.OP_ENCAPSULATE);
+        GeometryProtocol.writeBox(out, a);
+        GeometryProtocol.writeBox(out, b);
+        return id;
+    }
+
+    /**
+     * Puffert eine Bounds-Anfrage (ohne zu senden).
+     *
+     * @param geometries Geometrien mit gleicher Dimension (mindestens eine)
+     * @return Anfrage-ID
+     * @throws IOException bei Verbindungsfehlern
+     * @throws RuntimeException if the list is empty or the dimensions differ
+     */
+    public int sendBounds(List<? extends Geometry> geometries) throws IOException {
+        if (geometries.isEmpty()) {
+            throw new RuntimeException("No geometries given");
+        }
+        int dims = geometries.get(0).dimensions();
+        for (Geometry g : geometries) {
+            if (g.dimensions() != dims) {
+                throw new RuntimeException("Geometries have different dimensions");
+            }
+        }
+        int id = begin(GeometryProtocol.OP_BOUNDS);
+        out.writeByte(dims);
+        out.writeInt(geometries.size());
+        for (Geometry g : geometries) {
+            for (int axis = 0; axis < dims; axis++) {
+                out.writeDouble(Bounds.lower(g, axis));
+            }
+            for (int axis = 0; axis < dims; axis++) {
+                out.writeDouble(Bounds.upper(g, axis));
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Sendet alle gepufferten Anfragen.
+     *
+     * @throws IOException bei Verbindungsfehlern
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Liest die nächste Antwort (in Reihenfolge der Anfragen).
+     *
+     * @return Antwort
+     * @throws IOException bei Verbindungsfehlern
+     * @throws RuntimeException if no request is pending
+     */
+    public Response receive() throws IOException {
+        if (pendingCount == 0) {
+            throw new RuntimeException("No pending request");
+        }
+        byte op = pending[pendingHead];
+        pendingHead = (pendingHead + 1) % pending.length;
+        pendingCount--;
+
+        int id = in.readInt();
+        byte status = in.readByte();
+        if (status == GeometryProtocol.STATUS_ERROR) {
+            return new Response(id, Double.NaN, null, in.readUTF());
+        }
+        if (op == GeometryProtocol.OP_VOLUME) {
+            return new Response(id, in.readDouble(), null, null);
+        }
+        return new Response(id, Double.NaN, GeometryProtocol.readBox(in), null);
+    }
+
+    /**
+     * Gibt die Anzahl gesendeter, noch nicht gelesener Antworten zurück.
+     *
+     * @return Anzahl offener Anfragen
+     */
+    public int pending() {
+        return pendingCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Schreibt den Anfrage-Kopf und merkt sich die Operation.
+     */
+    private int begin(byte op) throws IOException {
+        if (pendingCount == pending.length) {
+            // Ringpuffer verdoppeln, Reihenfolge erhalten
+            byte[] grown = new byte[pending.length * 2];
+            for (int i = 0; i < pendingCount; i++) {
+                grown[i] = pending[(pendingHead + i) % pending.length];
+            }
+            pending = grown;
+            pendingHead = 0;
+        }
+        pending[(pendingHead + pendingCount) % pending.length] = op;
+        pendingCount++;
+
+        int id = nextId++;
+        out.writeInt(id);
+        out.writeByte(op);
+        return id;
+    }
+
+    /**
+     * Wandelt eine Fehlerantwort in eine Exception um.
+     */
+    private static Response check(Response response) {
+        if (response.error != null) {
+            throw new RuntimeException(response.error);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,396 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
+
+/**
+ * Reactive operators for streams of Geometries based on java.util.concurrent.Flow.
+ *
+ * OPERATOREN:
+ * - runningEncapsulate():     nach jedem Element die bisherigen Bounds
+ * - tumblingEncapsulate(n):   Bounds je n Elemente (Rest beim Abschluss)
+ * - filterByVolume(min, max): nur Geometrien mit min &lt;= volume() &lt;= max
+ * - batch(n):                 Pakete zu n Geometrien als {@link ColumnarChunk}
+ * - {@link DimensionRouter}:  verteilt nach Dimension und Typ auf eigene Publisher
+ *
+ * BACKPRESSURE:
+ * - Jeder Operator fordert von oben immer nur EIN Element an (request(1))
+ * - Ergebnisse gehen über einen SubmissionPublisher mit begrenztem Puffer
+ * - Ist der Puffer eines Abnehmers voll, blockiert submit() → das nächste
+ *   Element wird erst angefordert, wenn wieder Platz ist
+ *   → Speicherbedarf bleibt auch bei Lastspitzen begrenzt
+ *
+ * BEISPIEL:
+ * SubmissionPublisher<Geometry> source = new SubmissionPublisher<>();
+ * GeometryFlow.Operator<Geometry> bounds = GeometryFlow.tumblingEncapsulate(1000);
+ * source.subscribe(bounds);
+ * bounds.subscribe(mySubscriber);
+ */
+public final class GeometryFlow {
+
+    /**
+     * Standardgröße der Puffer (pro Abnehmer).
+     */
+    public static final int DEFAULT_BUFFER = Flow.defaultBufferSize();
+
+    /**
+     * Keine Instanzen - nur statische Fabrikmethoden.
+     */
+    private GeometryFlow() {
+    }
+
+    /**
+     * Basisklasse aller Operatoren: Subscriber für Geometrien und
+     * Publisher für Ergebnisse vom Typ R.
+     *
+     * @param <R> Typ der Ergebnisse
+     */
+    public abstract static class Operator<R> extends SubmissionPublisher<R>
+            implements Flow.Processor<Geometry, R> {
+
+        private Flow.Subscription subscription;
+
+        /**
+         * @param executor   Executor für die Zustellung an Abnehmer
+         * @param bufferSize maximale Anzahl gepufferter Ergebnisse je Abnehmer
+         */
+        protected Operator(Executor executor, int bufferSize) {
+            super(executor, bufferSize);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(Geometry item) {
+            try {
+                process(item);
+            } catch (RuntimeException e) {
+                subscription.cancel();
+                closeExceptionally(e);
+                return;
+            }
+            if (!isClosed()) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                finish();
+                close();
+            } catch (RuntimeException e) {
+                closeExceptionally(e);
+            }
+        }
+
+        /**
+         * Verarbeitet ein Element; Ergebnisse werden mit submit() weitergegeben.
+         *
+         * @param item das Element
+         */
+        protected abstract void process(Geometry item);
+
+        /**
+         * Wird beim Abschluss des Eingabestroms aufgerufen (z.B. für Reste).
+         */
+        protected void finish() {
+        }
+    }
+
+    /**
+     * Gibt nach jedem Element die Bounds aller bisherigen Elemente weiter.
+     *
+     * @return Operator
+     */
+    public static Operator<Geometry> runningEncapsulate() {
+        return runningEncapsulate(ForkJoinPool.commonPool(), DEFAULT_BUFFER);
+    }
+
+    /**
+     * Gibt nach jedem Element die Bounds aller bisherigen Elemente weiter.
+     *
+     * @param executor   Executor für die Zustellung
+     * @param bufferSize Puffergröße je Abnehmer
+     * @return Operator
+     */
+    public static Operator<Geometry> runningEncapsulate(Executor executor, int bufferSize) {
+        return new Operator<>(executor, bufferSize) {
+            private Geometry bounds;
+
+            @Override
+            protected void process(Geometry item) {
+                bounds = encapsulate(bounds, item);
+                submit(bounds);
+            }
+        };
+    }
+
+    /**
+     * Gibt je <code>size</code> Elemente deren Bounds weiter.
+     *
+     * @param size Fenstergröße (mindestens 1)
+     * @return Operator
+     */
+    public static Operator<Geometry> tumblingEncapsulate(int size) {
+        return tumblingEncapsulate(size, ForkJoinPool.commonPool(), DEFAULT_BUFFER);
+    }
+
+    /**
+     * Gibt je <code>size</code> Elemente deren Bounds weiter. Ein
+     * unvollständiges letztes Fenster wird beim Abschluss weitergegeben.
+     *
+     * @param size       Fenstergröße (mindestens 1)
+     * @param executor   Executor für die Zustellung
+     * @param bufferSize Puffergröße je Abnehmer
+     * @return Operator
+     * @throws RuntimeException if size is lesser than 1
+     */
+    public static Operator<Geometry> tumblingEncapsulate(int size, Executor executor, int bufferSize) {
+        checkSize(size);
+        return new Operator<>(executor, bufferSize) {
+            private Geometry bounds;
+            private int count;
+
+            @Override
+            protected void process(Geometry item) {
+                bounds = encapsulate(bounds, item);
+                if (++count == size) {
+                    submit(bounds);
+                    bounds = null;
+                    count = 0;
+                }
+            }
+
+            @Override
+            protected void finish() {
+                if (bounds != null) {
+                    submit(bounds);
+                }
+            }
+        };
+    }
+
+    /**
+     * Lässt nur Geometrien mit min &lt;= volume() &lt;= max durch.
+     *
+     * @param min kleinstes erlaubtes Volumen
+     * @param max größtes erlaubtes Volumen
+     * @return Operator
+     */
+    public static Operator<Geometry> filterByVolume(double min, double max) {
+        return filterByVolume(min, max, ForkJoinPool.commonPool(), DEFAULT_BUFFER);
+    }
+
+    /**
+     * Lässt nur Geometrien mit min &lt;= volume() &lt;= max durch.
+     *
+     * @param min        kleinstes erlaubtes Volumen
+     * @param max        größtes erlaubtes Volumen
+     * @param executor   Executor für die Zustellung
+     * @param bufferSize Puffergröße je Abnehmer
+     * @return Operator
+     */
+    public static Operator<Geometry> filterByVolume(double min, double max, Executor executor, int bufferSize) {
+        return new Operator<>(executor, bufferSize) {
+            @Override
+            protected void process(Geometry item) {
+                double volume = item.volume();
+                if (volume >= min && volume <= max) {
+                    submit(item);
+                }
+            }
+        };
+    }
+
+    /**
+     * Packt je <code>size</code> Geometrien in einen ColumnarChunk.
+     *
+     * @param size Paketgröße (mindestens 1)
+     * @return Operator
+     */
+    public static Operator<ColumnarChunk> batch(int size) {
+        return batch(size, ForkJoinPool.commonPool(), DEFAULT_BUFFER);
+    }
+
+    /**
+     * Packt je <code>size</code> Geometrien in einen ColumnarChunk. Ein
+     * unvollständiges letztes Paket wird beim Abschluss weitergegeben.
+     * Alle Geometrien müssen dieselbe Dimension und Art (planar oder nicht)
+     * haben (vorher routen).
+     *
+     * @param size       Paketgröße (mindestens 1)
+     * @param executor   Executor für die Zustellung
+     * @param bufferSize Puffergröße je Abnehmer (in Paketen)
+     * @return Operator
+     * @throws RuntimeException if size is lesser than 1
+     */
+    public static Operator<ColumnarChunk> batch(int size, Executor executor, int bufferSize) {
+        checkSize(size);
+        return new Operator<>(executor, bufferSize) {
+            private ColumnarChunk chunk;
+
+            @Override
+            protected void process(Geometry item) {
+                if (chunk == null) {
+                    chunk = new ColumnarChunk(item.dimensions(), Bounds.isPlanar(item), size);
+                }
+                chunk.add(item);
+                if (chunk.size() == size) {
+                    submit(chunk);
+                    chunk = null;
+                }
+            }
+
+            @Override
+            protected void finish() {
+                if (chunk != null) {
+                    submit(chunk);
+                }
+            }
+        };
+    }
+
+    /**
+     * Verteilt Geometrien nach Dimension und Art auf eigene Publisher.
+     *
+     * PROBLEM: encapsulate liefert null bei unterschiedlichen Dimensionen
+     * und wirft bei gemischten Typen gleicher Dimension (Point2D und 2D-Point)
+     * → Aggregation über einen gemischten Strom bricht ab
+     * LÖSUNG: Vorher routen, je Dimension und Art (planar: Point2D/Rectangle,
+     * sonst Point/Volume) eine eigene Kette
+     *
+     * Geometrien ohne eigene Route gehen an {@link #unrouted()}.
+     * Routen müssen vor dem Abonnieren der Quelle angelegt werden.
+     */
+    public static final class DimensionRouter implements Flow.Subscriber<Geometry> {
+
+        private final Executor executor;
+        private final int bufferSize;
+        /**
+         * Publisher je Schlüssel, siehe {@link #key(int, boolean)}.
+         */
+        private final Map<Integer, SubmissionPublisher<Geometry>> routes = new HashMap<>();
+        private final SubmissionPublisher<Geometry> unrouted;
+        private Flow.Subscription subscription;
+
+        /**
+         * Creates a router with the common pool and default buffers.
+         */
+        public DimensionRouter() {
+            this(ForkJoinPool.commonPool(), DEFAULT_BUFFER);
+        }
+
+        /**
+         * @param executor   Executor für die Zustellung
+         * @param bufferSize Puffergröße je Abnehmer
+         */
+        public DimensionRouter(Executor executor, int bufferSize) {
+            this.executor = executor;
+            this.bufferSize = bufferSize;
+            this.unrouted = new SubmissionPublisher<>(executor, bufferSize);
+        }
+
+        /**
+         * Gibt den Publisher für eine Dimension und Art zurück (legt ihn bei
+         * Bedarf an).
+         *
+         * @param dims   Dimension
+         * @param planar true für Point2D/Rectangle, false für Point/Volume
+         * @return Publisher aller Geometrien mit dieser Dimension und Art
+         */
+        public synchronized Flow.Publisher<Geometry> route(int dims, boolean planar) {
+            return routes.computeIfAbsent(key(dims, planar), k -> new SubmissionPublisher<>(executor, bufferSize));
+        }
+
+        /**
+         * @return Publisher aller Geometrien ohne eigene Route
+         */
+        public Flow.Publisher<Geometry> unrouted() {
+            return unrouted;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(Geometry item) {
+            SubmissionPublisher<Geometry> target;
+            synchronized (this) {
+                target = routes.getOrDefault(key(item.dimensions(), Bounds.isPlanar(item)), unrouted);
+            }
+            target.submit(item); // blockiert bei vollem Puffer → Backpressure
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            forEachPublisher(p -> p.closeExceptionally(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            forEachPublisher(SubmissionPublisher::close);
+        }
+
+        /**
+         * Schlüssel einer Route: Dimension und Art in einem int.
+         */
+        private static int key(int dims, boolean planar) {
+            return 2 * dims + (planar ? 1 : 0);
+        }
+
+        private void forEachPublisher(Consumer<SubmissionPublisher<Geometry>> action) {
+            synchronized (this) {
+                routes.values().forEach(action);
+            }
+            action.accept(unrouted);
+        }
+    }
+
+    /**
+     * encapsulate mit null als neutralem Element.
+     *
+     * @throws RuntimeException bei unterschiedlichen Dimensionen
+     */
+    private static Geometry encapsulate(Geometry bounds, Geometry item) {
+        if (bounds == null) {
+            // Erstes Element: Bounds einer einzelnen Geometrie
+            return item.encapsulate(item);
+        }
+        Geometry result = bounds.encapsulate(item);
+        if (result == null) {
+            throw new RuntimeException("Geometries have different dimensions, route by dimension first");
+        }
+        return result;
+    }
+
+    private static void checkSize(int size) {
+        if (size < 1) {
+            throw new RuntimeException("size is < 1");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Local load generator for {@link GeometryServer}.
+ *
+ * ABLAUF pro Verbindung (jeweils auf einem virtuellen Thread):
+ * 1. <code>depth</code> Anfragen puffern (volume, encapsulate, bounds im Wechsel)
+ * 2. flush → alle Anfragen gehen in einem Rutsch raus (Pipelining)
+ * 3. Alle Antworten lesen, Latenz pro Anfrage = Antwort - Sendezeitpunkt
+ * 4. Wiederholen bis die Messdauer abgelaufen ist
+ *
+ * GRENZE: Der Client liest erst nach dem Senden einer Runde. Eine Runde darf
+ * deshalb höchstens {@link #MAX_BYTES_IN_FLIGHT} Bytes umfassen, sonst laufen
+ * die Socket-Puffer beider Richtungen voll und Client und Server blockieren
+ * gegenseitig in write(). Zu große <code>depth</code> wird abgelehnt.
+ *
+ * AUSGABE: Durchsatz (ops/s), p50- und p99-Latenz
+ *
+ * VERWENDUNG:
+ * java GeometryLoadGenerator [connections] [depth] [seconds] [host:port | unix-socket-path]
+ * Ohne Adresse wird ein Server im selben Prozess gestartet.
+ */
+public class GeometryLoadGenerator {
+
+    /**
+     * Obergrenze der Anfrage-Bytes einer Pipeline-Runde. Antworten sind nie
+     * größer als ihre Anfragen → auch die Rückrichtung bleibt darunter.
+     */
+    public static final int MAX_BYTES_IN_FLIGHT = 32 * 1024;
+
+    /**
+     * Anfrage-Kopf: Anfrage-ID (int) + Operation (byte).
+     */
+    private static final int HEADER_BYTES = Integer.BYTES + 1;
+
+    // Anfragemix: volume(A), encapsulate(B, C), bounds(BATCH) im Wechsel
+    private static final Rectangle A = new Rectangle(new Point2D(0, 0), new Point2D(4, 3));
+    private static final Volume B = new Volume(new Point(1, 1, 1), new Point(2, 3, 4));
+    private static final Volume C = new Volume(new Point(-1, 0, 2), new Point(5, 5, 5));
+    private static final List<Volume> BATCH = List.of(B, C, B, C);
+
+    /**
+     * Ergebnis eines Lastlaufs.
+     */
+    public static final class Result {
+        public final long operations;
+        public final double opsPerSecond;
+        public final double p50Micros;
+        public final double p99Micros;
+
+        private Result(long operations, double opsPerSecond, double p50Micros, double p99Micros) {
+            this.operations = operations;
+            this.opsPerSecond = opsPerSecond;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ops, %.0f ops/s, p50 %.1f us, p99 %.1f us",
+                operations, opsPerSecond, p50Micros, p99Micros);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        if (args.length > 3) {
+            System.out.println(run(parseAddress(args[3]), connections, depth, seconds * 1000L));
+        } else {
+            try (GeometryServer server = GeometryServer.start(new InetSocketAddress("127.0.0.1", 0))) {
+                System.out.println(run(server.getAddress(), connections, depth, seconds * 1000L));
+            }
+        }
+    }
+
+    /**
+     * Erzeugt Last auf einem laufenden Server.
+     *
+     * @param address        Adresse des Servers
+     * @param connections    Anzahl paralleler Verbindungen
+     * @param depth          Anfragen pro Pipeline-Runde
+     * @param durationMillis Messdauer in Millisekunden
+     * @return Durchsatz und Latenzen
+     * @throws Exception wenn eine Verbindung fehlschlägt
+     * @throws RuntimeException if connections or depth is lesser than 1 or a
+     *                          round exceeds {@link #MAX_BYTES_IN_FLIGHT}
+     */
+    public static Result run(SocketAddress address, int connections, int depth, long durationMillis)
+            throws Exception {
+        if (connections < 1) {
+            throw new RuntimeException("connections is < 1");
+        }
+        if (depth < 1) {
+            throw new RuntimeException("depth is < 1");
+        }
+        long roundBytes = 0;
+        for (int i = 0; i < depth; i++) {
+            roundBytes += requestBytes(i);
+        }
+        if (roundBytes > MAX_BYTES_IN_FLIGHT) {
+            throw new RuntimeException("depth " + depth + " needs " + roundBytes
+                + " bytes per round, more than " + MAX_BYTES_IN_FLIGHT + " fit in the socket buffers");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + durationMillis * 1_000_000L;
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                futures.add(executor.submit(() -> drive(address, depth, deadline)));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // Latenzen aller Verbindungen zusammenführen
+        long[][] perConnection = new long[futures.size()][];
+        int total = 0;
+        for (int i = 0; i < perConnection.length; i++) {
+            perConnection[i] = futures.get(i).get();
+            total += perConnection[i].length;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (long[] part : perConnection) {
+            System.arraycopy(part, 0, latencies, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(latencies);
+
+        return new Result(total, total / seconds,
+            percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3);
+    }
+
+    /**
+     * Lastschleife einer Verbindung.
+     *
+     * @return Latenzen aller Anfragen in Nanosekunden
+     */
+    private static long[] drive(SocketAddress address, int depth, long deadline) throws IOException {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long[] sentAt = new long[depth];
+        try (GeometryClient client = GeometryClient.connect(address)) {
+            while (System.nanoTime() < deadline) {
+                for (int i = 0; i < depth; i++) {
+                    sentAt[i] = System.nanoTime();
+                    switch (i % 3) {
+                        case 0 -> client.sendVolume(A);
+                        case 1 -> client.sendEncapsulate(B, C);
+                        default -> client.sendBounds(BATCH);
+                    }
+                }
+                client.flush();
+                for (int i = 0; i < depth; i++) {
+                    GeometryClient.Response response = client.receive();
+                    if (response.error != null) {
+                        throw new RuntimeException(response.error);
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - sentAt[i];
+                }
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    /**
+     * Größe der i-ten Anfrage einer Runde im Protokoll (siehe drive()).
+     */
+    private static int requestBytes(int i) {
+        return switch (i % 3) {
+            case 0 -> HEADER_BYTES + boxBytes(A.dimensions());
+            case 1 -> HEADER_BYTES + boxBytes(B.dimensions()) + boxBytes(C.dimensions());
+            // dims (byte) + Anzahl (int) + je Box untere und obere Ecke
+            default -> HEADER_BYTES + 1 + Integer.BYTES + BATCH.size() * 2 * B.dimensions() * Double.BYTES;
+        };
+    }
+
+    /**
+     * Größe einer Box nach GeometryProtocol.writeBox: dims (byte) + 2 Ecken.
+     */
+    private static int boxBytes(int dims) {
+        return 1 + 2 * dims * Double.BYTES;
+    }
+
+    /**
+     * Perzentil einer sortierten Liste (Nearest-Rank).
+     */
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, rank)];
+    }
+
+    /**
+     * "host:port" → TCP-Adresse, sonst Pfad eines Unix-Sockets.
+     */
+    private static SocketAddress parseAddress(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon > 0 && address.substring(colon + 1).chars().allMatch(Character::isDigit)) {
+            return new InetSocketAddress(address.substring(0, colon),
+                Integer.parseInt(address.substring(colon + 1)));
+        }
+        return UnixDomainSocketAddress.of(Path.of(address));
+    }
+}
@@ -0,0 +1,460 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Performance regression tests for the public Geometry operations.
+ *
+ * ZWECK:
+ * - GeometryTest prüft nur Korrektheit; hier wird geprüft, dass eine
+ *   Änderung nicht unbemerkt Allokation oder Durchsatz verschlechtert
+ *   (z.B. dreifache Allokation in Volume.encapsulate)
+ *
+ * MESSUNG je Operation:
+ * - Feste Arbeitslast: INPUTS zufällige Eingaben (fester Seed), OPERATIONS
+ *   Aufrufe pro Runde, zuerst WARMUP Runden für den JIT
+ * - Allokation: com.sun.management.ThreadMXBean, Bytes des aktuellen
+ *   Threads vor/nach der Runde → Bytes pro Aufruf (Minimum über ROUNDS)
+ * - Durchsatz: Aufrufe pro Sekunde (Maximum über ROUNDS)
+ * - Ergebnisse werden in ein Array geschrieben → sie entkommen, Escape
+ *   Analysis kann die Allokation nicht wegoptimieren
+ * - Die Messwerte hängen vom Zustand des JIT ab; TestRunner führt diese
+ *   Klasse deshalb VOR GeometryTest aus (gleiche Bedingungen wie beim
+ *   Aufzeichnen der Baselines)
+ *
+ * BASELINES (perf-baselines.properties neben dieser Klasse im Klassenpfad
+ * oder -Dperf.baselines=&lt;Datei&gt;):
+ * - &lt;Operation&gt;.bytesPerOp und &lt;Operation&gt;.opsPerSecond
+ * - tolerance.bytesPerOp:   Fehler, wenn gemessen > Baseline × (1 + t) + 8
+ * - tolerance.opsPerSecond: Fehler, wenn gemessen < Baseline × (1 - t)
+ * - Fehlt die Datei oder der Eintrag einer gemessenen Operation → Fehler
+ *   (sonst würde still nichts geprüft)
+ *
+ * DURCHSATZ nur mit -Dperf.throughput=true:
+ * - Allokation ist maschinenunabhängig und wird immer geprüft
+ * - ops/s-Baselines stammen von einer Maschine: auf langsameren schlägt die
+ *   Prüfung fehl, auf schnelleren fällt eine Verlangsamung nicht auf
+ *   → nur auf der Maschine einschalten, auf der aufgezeichnet wurde
+ *
+ * ABGEDECKT: Konstruktoren, encapsulate für alle 16 Typpaare (Paare mit
+ * unterschiedlicher Dimension liefern null; gleiche Dimension, aber andere
+ * Art, z.B. Point2D und 2D-Point, wirft und wird nicht gemessen), volume,
+ * logVolume, compareTo, equals, hashCode und getCoordinates.
+ *
+ * BASELINES AKTUALISIEREN:
+ * java -Dperf.record=src/perf-baselines.properties TestRunner GeometryPerformanceTest
+ * → schreibt alle Messwerte in die Datei (Toleranzen bleiben erhalten)
+ */
+public class GeometryPerformanceTest {
+
+    private static final String BASELINES = "perf-baselines.properties";
+
+    /**
+     * Durchsatz nur auf Wunsch prüfen (siehe Klassenkommentar).
+     */
+    private static final boolean CHECK_THROUGHPUT = Boolean.getBoolean("perf.throughput");
+
+    /**
+     * Anzahl unterschiedlicher Eingaben (Zweierpotenz, Index i & (INPUTS - 1)).
+     */
+    private static final int INPUTS = 1024;
+
+    private static final int OPERATIONS = 200_000;
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Spielraum für Rundungen bei der Allokationsmessung.
+     */
+    private static final double BYTES_SLACK = 8;
+
+    /**
+     * Ziel für Ergebnisse, damit der JIT die Aufrufe nicht entfernt.
+     */
+    private static final Object[] SINK = new Object[INPUTS];
+    private static double doubleSink;
+
+    private static Properties baselines;
+
+    static {
+        // Messschleifen vorab mit mehreren Operationen aufwärmen: Die Aufrufstelle
+        // der Operation ist dann megamorph, der JIT spezialisiert die Schleife nicht
+        // auf die erste gemessene Operation → Ergebnisse unabhängig von der Reihenfolge
+        measure(i -> SINK[0]);
+        measure(i -> null);
+        measure(i -> SINK);
+        measureDouble(i -> i);
+        measureDouble(i -> -i);
+        measureDouble(i -> i * 0.5);
+    }
+
+    /**
+     * Ergebnis einer Messung.
+     */
+    public static final class Measurement {
+        public final double bytesPerOp;
+        public final double opsPerSecond;
+
+        private Measurement(double bytesPerOp, double opsPerSecond) {
+            this.bytesPerOp = bytesPerOp;
+            this.opsPerSecond = opsPerSecond;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f B/op, %.2f M ops/s", bytesPerOp, opsPerSecond / 1e6);
+        }
+    }
+
+    @Test
+    private static void testPoint2DPerformance() {
+        System.out.println("Testing Point2D performance...");
+        Random random = new Random(42);
+        Point2D[] a = new Point2D[INPUTS];
+        Point2D[] b = new Point2D[INPUTS];
+        Rectangle[] rects = new Rectangle[INPUTS];
+        Point[] points = new Point[INPUTS];
+        Volume[] volumes = new Volume[INPUTS];
+        double[] xs = new double[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            a[i] = new Point2D(random.nextDouble() * 100, random.nextDouble() * 100);
+            b[i] = new Point2D(random.nextDouble() * 100, random.nextDouble() * 100);
+            rects[i] = randomRectangle(random);
+            points[i] = randomPoint(random, 3);
+            volumes[i] = randomVolume(random);
+            xs[i] = random.nextDouble();
+        }
+        int m = INPUTS - 1;
+
+        List<String> failures = new ArrayList<>();
+        check("new Point2D", measure(i -> new Point2D(xs[i & m], xs[(i + 1) & m])), failures);
+        check("Point2D.encapsulate(Point2D)", measure(i -> a[i & m].encapsulate(b[i & m])), failures);
+        check("Point2D.encapsulate(Rectangle)", measure(i -> a[i & m].encapsulate(rects[i & m])), failures);
+        check("Point2D.encapsulate(Point)", measure(i -> a[i & m].encapsulate(points[i & m])), failures);
+        check("Point2D.encapsulate(Volume)", measure(i -> a[i & m].encapsulate(volumes[i & m])), failures);
+        check("Point2D.volume", measureDouble(i -> a[i & m].volume()), failures);
+        check("Point2D.logVolume", measureDouble(i -> a[i & m].logVolume()), failures);
+        check("Point2D.equals", measureDouble(i -> a[i & m].equals(b[(i * 7) & m]) ? 1 : 0), failures);
+        check("Point2D.hashCode", measureDouble(i -> a[i & m].hashCode()), failures);
+        check("Point2D.compareTo", measureDouble(i -> a[i & m].compareTo(b[i & m])), failures);
+        assertNoRegression(failures);
+        System.out.println("  ✓ Point2D performance OK");
+    }
+
+    @Test
+    private static void testRectanglePerformance() {
+        System.out.println("Testing Rectangle performance...");
+        Random random = new Random(43);
+        Rectangle[] rects = new Rectangle[INPUTS];
+        Rectangle[] others = new Rectangle[INPUTS];
+        Point2D[] points = new Point2D[INPUTS];
+        Point[] spatial = new Point[INPUTS];
+        Volume[] volumes = new Volume[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            rects[i] = randomRectangle(random);
+            others[i] = randomRectangle(random);
+            points[i] = new Point2D(random.nextDouble() * 200, random.nextDouble() * 200);
+            spatial[i] = randomPoint(random, 3);
+            volumes[i] = randomVolume(random);
+        }
+        int m = INPUTS - 1;
+
+        List<String> failures = new ArrayList<>();
+        check("new Rectangle", measure(i -> new Rectangle(points[i & m], points[(i + 1) & m])), failures);
+        check("Rectangle.encapsulate(Point2D)", measure(i -> rects[i & m].encapsulate(points[i & m])), failures);
+        check("Rectangle.encapsulate(Rectangle)", measure(i -> rects[i & m].encapsulate(others[i & m])), failures);
+        check("Rectangle.encapsulate(Point)", measure(i -> rects[i & m].encapsulate(spatial[i & m])), failures);
+        check("Rectangle.encapsulate(Volume)", measure(i -> rects[i & m].encapsulate(volumes[i & m])), failures);
+        check("Rectangle.volume", measureDouble(i -> rects[i & m].volume()), failures);
+        check("Rectangle.logVolume", measureDouble(i -> rects[i & m].logVolume()), failures);
+        check("Rectangle.compareTo", measureDouble(i -> rects[i & m].compareTo(others[i & m])), failures);
+        check("Rectangle.equals", measureDouble(i -> rects[i & m].equals(others[i & m]) ? 1 : 0), failures);
+        check("Rectangle.hashCode", measureDouble(i -> rects[i & m].hashCode()), failures);
+        assertNoRegression(failures);
+        System.out.println("  ✓ Rectangle performance OK");
+    }
+
+    @Test
+    private static void testPointPerformance() {
+        System.out.println("Testing Point performance...");
+        Random random = new Random(44);
+        Point[] a = new Point[INPUTS];
+        Point[] b = new Point[INPUTS];
+        Volume[] volumes = new Volume[INPUTS];
+        Point2D[] planar = new Point2D[INPUTS];
+        Rectangle[] rects = new Rectangle[INPUTS];
+        double[] xs = new double[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            a[i] = randomPoint(random, 3);
+            b[i] = randomPoint(random, 3);
+            volumes[i] = randomVolume(random);
+            planar[i] = new Point2D(random.nextDouble() * 100, random.nextDouble() * 100);
+            rects[i] = randomRectangle(random);
+            xs[i] = random.nextDouble();
+        }
+        int m = INPUTS - 1;
+
+        List<String> failures = new ArrayList<>();
+        check("new Point(3D)", measure(i -> new Point(xs[i & m], xs[(i + 1) & m], xs[(i + 2) & m])), failures);
+        check("Point.encapsulate(Point)", measure(i -> a[i & m].encapsulate(b[i & m])), failures);
+        check("Point.encapsulate(Volume)", measure(i -> a[i & m].encapsulate(volumes[i & m])), failures);
+        check("Point.encapsulate(Point2D)", measure(i -> a[i & m].encapsulate(planar[i & m])), failures);
+        check("Point.encapsulate(Rectangle)", measure(i -> a[i & m].encapsulate(rects[i & m])), failures);
+        check("Point.volume", measureDouble(i -> a[i & m].volume()), failures);
+        check("Point.logVolume", measureDouble(i -> a[i & m].logVolume()), failures);
+        check("Point.compareTo", measureDouble(i -> a[i & m].compareTo(b[i & m])), failures);
+        check("Point.getCoordinates", measure(i -> a[i & m].getCoordinates()), failures);
+        check("Point.equals", measureDouble(i -> a[i & m].equals(b[(i * 7) & m]) ? 1 : 0), failures);
+        check("Point.hashCode", measureDouble(i -> a[i & m].hashCode()), failures);
+        assertNoRegression(failures);
+        System.out.println("  ✓ Point performance OK");
+    }
+
+    @Test
+    private static void testVolumePerformance() {
+        System.out.println("Testing Volume performance...");
+        Random random = new Random(45);
+        Volume[] volumes = new Volume[INPUTS];
+        Volume[] others = new Volume[INPUTS];
+        Point[] points = new Point[INPUTS];
+        Point2D[] planar = new Point2D[INPUTS];
+        Rectangle[] rects = new Rectangle[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            volumes[i] = randomVolume(random);
+            others[i] = randomVolume(random);
+            points[i] = randomPoint(random, 3);
+            planar[i] = new Point2D(random.nextDouble() * 100, random.nextDouble() * 100);
+            rects[i] = randomRectangle(random);
+        }
+        int m = INPUTS - 1;
+
+        List<String> failures = new ArrayList<>();
+        check("new Volume", measure(i -> new Volume(points[i & m], points[(i + 1) & m])), failures);
+        check("Volume.encapsulate(Point)", measure(i -> volumes[i & m].encapsulate(points[i & m])), failures);
+        check("Volume.encapsulate(Volume)", measure(i -> volumes[i & m].encapsulate(others[i & m])), failures);
+        check("Volume.encapsulate(Point2D)", measure(i -> volumes[i & m].encapsulate(planar[i & m])), failures);
+        check("Volume.encapsulate(Rectangle)", measure(i -> volumes[i & m].encapsulate(rects[i & m])), failures);
+        check("Volume.volume", measureDouble(i -> volumes[i & m].volume()), failures);
+        check("Volume.logVolume", measureDouble(i -> volumes[i & m].logVolume()), failures);
+        check("Volume.compareTo", measureDouble(i -> volumes[i & m].compareTo(others[i & m])), failures);
+        check("Volume.equals", measureDouble(i -> volumes[i & m].equals(others[i & m]) ? 1 : 0), failures);
+        check("Volume.hashCode", measureDouble(i -> volumes[i & m].hashCode()), failures);
+        assertNoRegression(failures);
+        System.out.println("  ✓ Volume performance OK");
+    }
+
+    /**
+     * Misst eine Operation mit Objekt-Ergebnis.
+     *
+     * @param operation Aufruf für Eingabe-Index i
+     * @return Messung
+     */
+    static Measurement measure(IntFunction<?> operation) {
+        return run(() -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                SINK[i & (INPUTS - 1)] = operation.apply(i);
+            }
+        });
+    }
+
+    /**
+     * Misst eine Operation mit primitivem Ergebnis (ohne Boxing).
+     *
+     * @param operation Aufruf für Eingabe-Index i
+     * @return Messung
+     */
+    static Measurement measureDouble(IntToDoubleFunction operation) {
+        return run(() -> {
+            double sum = 0;
+            for (int i = 0; i < OPERATIONS; i++) {
+                sum += operation.applyAsDouble(i);
+            }
+            doubleSink += sum;
+        });
+    }
+
+    /**
+     * Führt WARMUP + ROUNDS Runden aus: Minimum der Bytes, Maximum des Durchsatzes.
+     * Ohne Unterstützung der Allokationsmessung ist bytesPerOp NaN.
+     */
+    private static Measurement run(Runnable round) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocation =
+            threads instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()
+                ? bean : null;
+        if (allocation != null) {
+            allocation.setThreadAllocatedMemoryEnabled(true);
+        }
+        for (int r = 0; r < WARMUP; r++) {
+            round.run();
+        }
+        double bytes = Double.POSITIVE_INFINITY;
+        double ops = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            long allocatedBefore = allocation == null ? 0 : allocation.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            round.run();
+            long nanos = System.nanoTime() - start;
+            long allocatedAfter = allocation == null ? 0 : allocation.getCurrentThreadAllocatedBytes();
+            bytes = Math.min(bytes, (double) (allocatedAfter - allocatedBefore) / OPERATIONS);
+            ops = Math.max(ops, OPERATIONS * 1e9 / Math.max(1, nanos));
+        }
+        return new Measurement(allocation == null ? Double.NaN : bytes, ops);
+    }
+
+    /**
+     * Vergleicht eine Messung mit der Baseline und merkt Regressionen sowie
+     * fehlende Baselines vor. Mit -Dperf.record=&lt;Datei&gt; wird die Messung
+     * stattdessen gespeichert.
+     */
+    private static void check(String name, Measurement measured, List<String> failures) {
+        String line = "  " + name + ": " + measured;
+        String record = System.getProperty("perf.record");
+        if (record != null) {
+            record(Paths.get(record), name, measured);
+            System.out.println(line + " (recorded)");
+            return;
+        }
+        Properties base = baselines();
+        String bytesKey = name + ".bytesPerOp";
+        String opsKey = name + ".opsPerSecond";
+        System.out.println(line);
+
+        if (!Double.isNaN(measured.bytesPerOp)) {
+            if (base.getProperty(bytesKey) == null) {
+                failures.add("No baseline " + bytesKey + " (record with -Dperf.record)");
+                return;
+            }
+            double baseline = Double.parseDouble(base.getProperty(bytesKey));
+            double tolerance = Double.parseDouble(base.getProperty("tolerance.bytesPerOp", "0.1"));
+            double limit = baseline * (1 + tolerance) + BYTES_SLACK;
+            if (measured.bytesPerOp > limit) {
+                failures.add(String.format("%s allocates %.1f B/op, baseline %.1f (limit %.1f)",
+                    name, measured.bytesPerOp, baseline, limit));
+            }
+        }
+        if (CHECK_THROUGHPUT) {
+            if (base.getProperty(opsKey) == null) {
+                failures.add("No baseline " + opsKey + " (record with -Dperf.record)");
+                return;
+            }
+            double baseline = Double.parseDouble(base.getProperty(opsKey));
+            double tolerance = Double.parseDouble(base.getProperty("tolerance.opsPerSecond", "0.5"));
+            double limit = baseline * (1 - tolerance);
+            if (measured.opsPerSecond < limit) {
+                failures.add(String.format("%s runs %.0f ops/s, baseline %.0f (limit %.0f)",
+                    name, measured.opsPerSecond, baseline, limit));
+            }
+        }
+    }
+
+    /**
+     * Wirft einen AssertionError mit allen Regressionen - unabhängig von -ea.
+     */
+    private static void assertNoRegression(List<String> failures) {
+        if (!failures.isEmpty()) {
+            throw new AssertionError("Performance regression:\n  " + String.join("\n  ", failures));
+        }
+    }
+
+    /**
+     * Lädt die Baselines einmal aus -Dperf.baselines oder dem Klassenpfad.
+     *
+     * @throws AssertionError wenn keine Baseline-Datei gefunden wird
+     */
+    private static synchronized Properties baselines() {
+        if (baselines == null) {
+            String path = System.getProperty("perf.baselines");
+            if (path == null && GeometryPerformanceTest.class.getResource(BASELINES) == null) {
+                throw new AssertionError(BASELINES + " is not on the class path, set -Dperf.baselines=<file>");
+            }
+            if (path != null && !Files.exists(Paths.get(path))) {
+                throw new AssertionError("Baselines not found: " + path);
+            }
+            Properties loaded = new Properties();
+            try (InputStream in = path != null ? Files.newInputStream(Paths.get(path))
+                    : GeometryPerformanceTest.class.getResourceAsStream(BASELINES)) {
+                loaded.load(in);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            baselines = loaded;
+        }
+        return baselines;
+    }
+
+    /**
+     * Trägt eine Messung in die Datei ein, sortiert nach Schlüssel
+     * (vorhandene Einträge und Toleranzen bleiben erhalten).
+     */
+    private static synchronized void record(Path file, String name, Measurement measured) {
+        try {
+            Properties values = new Properties();
+            if (Files.exists(file)) {
+                try (Reader in = Files.newBufferedReader(file)) {
+                    values.load(in);
+                }
+            }
+            if (!Double.isNaN(measured.bytesPerOp)) {
+                values.setProperty(name + ".bytesPerOp", String.format("%.1f", measured.bytesPerOp));
+            }
+            values.setProperty(name + ".opsPerSecond", String.format("%.0f", measured.opsPerSecond));
+
+            Map<String, String> sorted = new TreeMap<>();
+            values.stringPropertyNames().forEach(key -> sorted.put(key, values.getProperty(key)));
+            try (BufferedWriter out = Files.newBufferedWriter(file)) {
+                out.write("# Baselines for GeometryPerformanceTest, see its class comment\n");
+                for (Map.Entry<String, String> entry : sorted.entrySet()) {
+                    out.write(escape(entry.getKey()) + "=" + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Maskiert Leerzeichen im Schlüssel (Properties-Format).
+     */
+    private static String escape(String key) {
+        return key.replace(" ", "\\ ");
+    }
+
+    private static Rectangle randomRectangle(Random random) {
+        double x = random.nextDouble() * 100;
+        double y = random.nextDouble() * 100;
+        return new Rectangle(new Point2D(x, y),
+                             new Point2D(x + 1 + random.nextDouble() * 50, y + 1 + random.nextDouble() * 50));
+    }
+
+    private static Point randomPoint(Random random, int dims) {
+        double[] c = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            c[axis] = random.nextDouble() * 100;
+        }
+        return new Point(c);
+    }
+
+    private static Volume randomVolume(Random random) {
+        Point lower = randomPoint(random, 3);
+        double[] upper = lower.getCoordinates();
+        for (int axis = 0; axis < upper.length; axis++) {
+            upper[axis] += 1 + random.nextDouble() * 50;
+        }
+        return new Volume(lower, new Point(upper));
+    }
+}
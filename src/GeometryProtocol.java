@@ -0,0 +1,115 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Compact binary protocol of {@link GeometryServer} and {@link GeometryClient}.
+ *
+ * NACHRICHTEN (alle Zahlen big-endian, wie DataInput/DataOutput):
+ *
+ * Anfrage:  int requestId | byte op | Nutzdaten
+ * Antwort:  int requestId | byte status | Nutzdaten
+ *
+ * OPERATIONEN:
+ * - OP_VOLUME:      box                          → double
+ * - OP_ENCAPSULATE: box, box                     → box
+ * - OP_BOUNDS:      byte dims | int count | count × (min[dims], max[dims]) → box
+ *
+ * BOX-KODIERUNG: byte dims | double min[dims] | double max[dims]
+ * (ein Punkt ist eine Box mit min == max)
+ *
+ * FEHLER: status = STATUS_ERROR, Nutzdaten = UTF-Fehlermeldung
+ *
+ * PIPELINING:
+ * - Ein Client darf beliebig viele Anfragen senden, ohne auf Antworten zu warten
+ * - Antworten kommen in derselben Reihenfolge zurück
+ * - requestId dient nur der Zuordnung auf Client-Seite
+ */
+public final class GeometryProtocol {
+
+    public static final byte OP_VOLUME = 1;
+    public static final byte OP_ENCAPSULATE = 2;
+    public static final byte OP_BOUNDS = 3;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+
+    /**
+     * Keine Instanzen - nur Konstanten und Hilfsmethoden.
+     */
+    private GeometryProtocol() {
+    }
+
+    /**
+     * Schreibt die Bounds einer Geometrie als Box.
+     *
+     * @param out Ausgabestrom
+     * @param g   die Geometrie
+     * @throws IOException bei Schreibfehlern
+     */
+    public static void writeBox(DataOutputStream out, Geometry g) throws IOException {
+        int dims = g.dimensions();
+        out.writeByte(dims);
+        for (int axis = 0; axis < dims; axis++) {
+            out.writeDouble(Bounds.lower(g, axis));
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            out.writeDouble(Bounds.upper(g, axis));
+        }
+    }
+
+    /**
+     * Liest eine Box und erzeugt daraus ein Volume. Die Box wird vollständig
+     * gelesen, BEVOR sie geprüft wird → auch bei einer ungültigen Box beginnt
+     * die nächste Anfrage an der richtigen Stelle im Strom.
+     *
+     * @param in Eingabestrom
+     * @return Volume mit den gelesenen Ecken
+     * @throws IOException bei Lesefehlern
+     * @throws RuntimeException if the box has fewer than 2 dimensions
+     */
+    public static Volume readBox(DataInputStream in) throws IOException {
+        return toVolume(readCorners(in));
+    }
+
+    /**
+     * Liest eine Box vollständig, ohne sie zu prüfen.
+     *
+     * @param in Eingabestrom
+     * @return {min, max}
+     * @throws IOException bei Lesefehlern
+     */
+    public static double[][] readCorners(DataInputStream in) throws IOException {
+        int dims = in.readUnsignedByte();
+        double[] min = readDoubles(in, dims);
+        double[] max = readDoubles(in, dims);
+        return new double[][] {min, max};
+    }
+
+    /**
+     * Erzeugt aus gelesenen Ecken ein Volume.
+     *
+     * @param corners {min, max} aus readCorners()
+     * @return Volume mit diesen Ecken
+     * @throws RuntimeException if the box has fewer than 2 dimensions
+     */
+    public static Volume toVolume(double[][] corners) {
+        return new Volume(new Point(corners[0]), new Point(corners[1]));
+    }
+
+    /**
+     * Liest <code>n</code> doubles.
+     *
+     * @param in Eingabestrom
+     * @param n  Anzahl
+     * @return gelesene Werte
+     * @throws IOException bei Lesefehlern
+     */
+    public static double[] readDoubles(DataInputStream in, int n) throws IOException {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
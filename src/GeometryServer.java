@@ -0,0 +1,259 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves geometry operations over a local TCP or Unix domain socket.
+ *
+ * ZWECK:
+ * - Andere Prozesse können encapsulate, volume() und Bounds-Berechnungen
+ *   nutzen, ohne die Bibliothek einzubinden
+ * - Protokoll: siehe {@link GeometryProtocol}
+ *
+ * THREADING:
+ * - Ein Thread nimmt Verbindungen an
+ * - Jede Verbindung läuft auf einem eigenen VIRTUELLEN Thread
+ *   → blockierendes I/O ist billig, tausende Verbindungen möglich
+ *
+ * BATCHING:
+ * - Antworten werden gepuffert
+ * - Geflusht wird erst, wenn keine weitere Anfrage im Eingabepuffer liegt
+ *   → bei Pipelining gehen viele Antworten in einem Systemaufruf raus
+ *
+ * BEISPIEL:
+ * try (GeometryServer server = GeometryServer.start(new InetSocketAddress("127.0.0.1", 0))) {
+ *     GeometryClient client = GeometryClient.connect(server.getAddress());
+ *     ...
+ * }
+ */
+public class GeometryServer implements Closeable {
+
+    /**
+     * Größe der Ein- und Ausgabepuffer pro Verbindung.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Kanal, auf dem Verbindungen angenommen werden.
+     */
+    private final ServerSocketChannel serverChannel;
+
+    /**
+     * Socket-Datei bei Unix-Domain-Sockets (wird beim Schließen gelöscht), sonst null.
+     */
+    private final Path socketPath;
+
+    /**
+     * Ein virtueller Thread pro Verbindung.
+     */
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Thread, der Verbindungen annimmt.
+     */
+    private final Thread acceptor;
+
+    /**
+     * Creates the server; use {@link #start(SocketAddress)}.
+     */
+    private GeometryServer(ServerSocketChannel serverChannel, Path socketPath) {
+        this.serverChannel = serverChannel;
+        this.socketPath = socketPath;
+        this.acceptor = Thread.ofVirtual().name("geometry-server-acceptor").unstarted(this::acceptLoop);
+    }
+
+    /**
+     * Startet einen Server auf der gegebenen Adresse.
+     *
+     * @param address InetSocketAddress (TCP) oder UnixDomainSocketAddress
+     * @return laufender Server
+     * @throws IOException wenn die Adresse nicht gebunden werden kann
+     */
+    public static GeometryServer start(SocketAddress address) throws IOException {
+        ServerSocketChannel channel = address instanceof UnixDomainSocketAddress
+            ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+            : ServerSocketChannel.open();
+        try {
+            channel.bind(address);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        Path socketPath = address instanceof UnixDomainSocketAddress unix ? unix.getPath() : null;
+        GeometryServer server = new GeometryServer(channel, socketPath);
+        server.acceptor.start();
+        return server;
+    }
+
+    /**
+     * Gibt die tatsächlich gebundene Adresse zurück (z.B. mit freiem Port).
+     *
+     * @return lokale Adresse
+     * @throws IOException wenn der Server geschlossen ist
+     */
+    public SocketAddress getAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Stoppt den Server: keine neuen Verbindungen, laufende werden beendet.
+     * Die Socket-Datei eines Unix-Domain-Sockets wird gelöscht, damit ein
+     * neuer Server denselben Pfad binden kann.
+     *
+     * @throws IOException beim Schließen des Kanals oder Löschen der Socket-Datei
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        connections.shutdownNow();
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    /**
+     * Nimmt Verbindungen an, bis der Kanal geschlossen wird.
+     */
+    private void acceptLoop() {
+        try {
+            while (true) {
+                SocketChannel channel = serverChannel.accept();
+                if (!(channel.getLocalAddress() instanceof UnixDomainSocketAddress)) {
+                    // Gebündelte Antworten sofort senden (kein Nagle-Verzögern)
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+                connections.execute(() -> serve(channel));
+            }
+        } catch (ClosedChannelException e) {
+            // Server wurde geschlossen
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Bearbeitet alle Anfragen einer Verbindung nacheinander.
+     */
+    private void serve(SocketChannel channel) {
+        try (channel;
+             DataInputStream in = new DataInputStream(
+                 new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+             DataOutputStream out = new DataOutputStream(
+                 new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE))) {
+            while (true) {
+                int requestId;
+                try {
+                    requestId = in.readInt();
+                } catch (EOFException e) {
+                    return; // Client hat die Verbindung geschlossen
+                }
+                try {
+                    handle(requestId, in, out);
+                } catch (RuntimeException e) {
+                    // Ungültige Geometrie: handle() liest die Nutzdaten vollständig, bevor es prüft
+                    writeError(out, requestId, String.valueOf(e.getMessage()));
+                }
+
+                // BATCHING: erst flushen, wenn keine Anfrage mehr wartet
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // Verbindung abgebrochen - nur diese Verbindung ist betroffen
+        }
+    }
+
+    /**
+     * Liest eine Anfrage und schreibt die Antwort.
+     */
+    private static void handle(int requestId, DataInputStream in, DataOutputStream out) throws IOException {
+        byte op = in.readByte();
+        switch (op) {
+            case GeometryProtocol.OP_VOLUME: {
+                Volume box = GeometryProtocol.readBox(in);
+                out.writeInt(requestId);
+                out.writeByte(GeometryProtocol.STATUS_OK);
+                out.writeDouble(box.volume());
+                break;
+            }
+            case GeometryProtocol.OP_ENCAPSULATE: {
+                // Beide Boxen vollständig lesen, erst dann prüfen (sonst bliebe
+                // bei ungültigem a die Box b im Strom stehen)
+                double[][] first = GeometryProtocol.readCorners(in);
+                double[][] second = GeometryProtocol.readCorners(in);
+                Volume a = GeometryProtocol.toVolume(first);
+                Volume b = GeometryProtocol.toVolume(second);
+                Geometry result = a.encapsulate(b);
+                if (result == null) {
+                    writeError(out, requestId, "Geometries have different dimensions");
+                } else {
+                    out.writeInt(requestId);
+                    out.writeByte(GeometryProtocol.STATUS_OK);
+                    GeometryProtocol.writeBox(out, result);
+                }
+                break;
+            }
+            case GeometryProtocol.OP_BOUNDS: {
+                int dims = in.readUnsignedByte();
+                int count = in.readInt();
+                if (count <= 0 || dims < 2) {
+                    // Nutzdaten überspringen, damit die nächste Anfrage richtig beginnt
+                    if (count > 0) {
+                        in.skipNBytes(2L * dims * count * Double.BYTES);
+                    }
+                    writeError(out, requestId, "Bounds require at least one box with 2 dimensions");
+                    break;
+                }
+                // Massenberechnung direkt auf primitiven Werten
+                double[] min = new double[dims];
+                double[] max = new double[dims];
+                Arrays.fill(min, Double.POSITIVE_INFINITY);
+                Arrays.fill(max, Double.NEGATIVE_INFINITY);
+                for (int i = 0; i < count; i++) {
+                    for (int axis = 0; axis < dims; axis++) {
+                        min[axis] = Math.min(min[axis], in.readDouble());
+                    }
+                    for (int axis = 0; axis < dims; axis++) {
+                        max[axis] = Math.max(max[axis], in.readDouble());
+                    }
+                }
+                out.writeInt(requestId);
+                out.writeByte(GeometryProtocol.STATUS_OK);
+                GeometryProtocol.writeBox(out, new Volume(new Point(min), new Point(max)));
+                break;
+            }
+            default:
+                // Unbekannte Operation: Nutzdaten unbekannter Länge → Verbindung beenden
+                writeError(out, requestId, "Unknown operation " + op);
+                out.flush();
+                throw new IOException("Unknown operation " + op);
+        }
+    }
+
+    /**
+     * Schreibt eine Fehlerantwort.
+     */
+    private static void writeError(DataOutputStream out, int requestId, String message) throws IOException {
+        out.writeInt(requestId);
+        out.writeByte(GeometryProtocol.STATUS_ERROR);
+        out.writeUTF(message);
+    }
+}
@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Sorts and ranks Geometries by their volume.
+ *
+ * ZWECK:
+ * - Große Mengen von Rectangles/Volumes nach Größe ordnen
+ * - volume() wird pro Geometrie genau EINMAL aufgerufen (vorberechnet)
+ * - Danach wird nur noch auf primitiven double-Werten verglichen
+ *
+ * KONSISTENZ mit {@link Geometry#compareTo(Geometry)}:
+ * - Verglichen wird mit Double.compare, genau wie in compareTo
+ * - Bei gleichem Volumen bleibt die ursprüngliche Reihenfolge erhalten
+ *
+ * BEISPIEL:
+ * List<Rectangle> sorted = GeometrySort.parallelSort(rects);
+ * List<Rectangle> top10  = GeometrySort.largest(rects, 10);
+ */
+public final class GeometrySort {
+
+    /**
+     * Paar aus vorberechnetem Volumen und Position in der Eingabe.
+     *
+     * ORDNUNG: zuerst nach Volumen (Double.compare), dann nach Index
+     * → Sortierung ist stabil und deterministisch
+     */
+    private static final class Entry implements Comparable<Entry> {
+        private final double volume;
+        private final int index;
+
+        private Entry(double volume, int index) {
+            this.volume = volume;
+            this.index = index;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int c = Double.compare(volume, o.volume);
+            return c != 0 ? c : Integer.compare(index, o.index);
+        }
+    }
+
+    /**
+     * Keine Instanzen - nur statische Hilfsmethoden.
+     */
+    private GeometrySort() {
+    }
+
+    /**
+     * Berechnet die Volumen aller Geometrien parallel.
+     *
+     * @param geometries die Geometrien
+     * @return volumes[i] = geometries.get(i).volume()
+     */
+    public static double[] volumes(List<? extends Geometry> geometries) {
+        double[] volumes = new double[geometries.size()];
+        IntStream.range(0, volumes.length).parallel()
+            .forEach(i -> volumes[i] = geometries.get(i).volume());
+        return volumes;
+    }
+
+    /**
+     * Sortiert die Geometrien aufsteigend nach Volumen.
+     *
+     * ALGORITHMUS:
+     * 1. Volumen parallel vorberechnen
+     * 2. (Volumen, Index)-Paare mit Arrays.parallelSort sortieren
+     * 3. Ergebnisliste in sortierter Reihenfolge aufbauen
+     *
+     * Die Eingabeliste wird nicht verändert.
+     *
+     * @param geometries die zu sortierenden Geometrien
+     * @param <T>        Typ der Geometrien
+     * @return neue, aufsteigend sortierte Liste
+     */
+    public static <T extends Geometry> List<T> parallelSort(List<T> geometries) {
+        return collect(geometries, parallelSortedIndices(volumes(geometries)));
+    }
+
+    /**
+     * Gibt die Indizes der Volumen in aufsteigender Reihenfolge zurück.
+     *
+     * @param volumes vorberechnete Volumen
+     * @return Permutation der Indizes 0..n-1, aufsteigend nach Volumen
+     */
+    public static int[] parallelSortedIndices(double[] volumes) {
+        Entry[] entries = new Entry[volumes.length];
+        Arrays.parallelSetAll(entries, i -> new Entry(volumes[i], i));
+        Arrays.parallelSort(entries);
+
+        int[] order = new int[entries.length];
+        Arrays.parallelSetAll(order, i -> entries[i].index);
+        return order;
+    }
+
+    /**
+     * Gibt die k kleinsten Geometrien aufsteigend sortiert zurück.
+     *
+     * Keine vollständige Sortierung: ein Heap der Größe k wird über
+     * die vorberechneten Volumen geführt → O(n log k).
+     *
+     * @param geometries die Geometrien
+     * @param k          Anzahl der gewünschten Elemente
+     * @param <T>        Typ der Geometrien
+     * @return höchstens k Geometrien, aufsteigend nach Volumen
+     */
+    public static <T extends Geometry> List<T> smallest(List<T> geometries, int k) {
+        return collect(geometries, selectIndices(volumes(geometries), k, false));
+    }
+
+    /**
+     * Gibt die k größten Geometrien absteigend sortiert zurück.
+     *
+     * @param geometries die Geometrien
+     * @param k          Anzahl der gewünschten Elemente
+     * @param <T>        Typ der Geometrien
+     * @return höchstens k Geometrien, absteigend nach Volumen
+     */
+    public static <T extends Geometry> List<T> largest(List<T> geometries, int k) {
+        return collect(geometries, selectIndices(volumes(geometries), k, true));
+    }
+
+    /**
+     * Wählt die Indizes der k kleinsten (oder größten) Volumen aus.
+     *
+     * FUNKTIONSWEISE (für die k kleinsten):
+     * - Max-Heap der Größe k über Indizes, Wurzel = größtes Element im Heap
+     * - Jedes weitere Element ersetzt die Wurzel, falls es kleiner ist
+     * - Am Ende wird der Heap geleert → Ergebnis von hinten nach vorne füllen
+     *
+     * Für die k größten wird die Ordnung einfach umgedreht.
+     *
+     * @param volumes vorberechnete Volumen
+     * @param k       Anzahl der gewünschten Elemente
+     * @param largest true für die größten, false für die kleinsten
+     * @return Indizes, sortiert (aufsteigend bzw. absteigend bei largest)
+     * @throws RuntimeException wenn k negativ ist
+     */
+    public static int[] selectIndices(double[] volumes, int k, boolean largest) {
+        if (k < 0) {
+            throw new RuntimeException("k is < 0");
+        }
+        int size = Math.min(k, volumes.length);
+        int[] heap = new int[size];
+        if (size == 0) {
+            return heap;
+        }
+
+        // Heap mit den ersten k Elementen aufbauen
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, size, volumes, largest);
+        }
+
+        // Restliche Elemente: nur aufnehmen, wenn besser als die Wurzel
+        for (int i = size; i < volumes.length; i++) {
+            if (before(volumes, i, heap[0], largest)) {
+                heap[0] = i;
+                siftDown(heap, 0, size, volumes, largest);
+            }
+        }
+
+        // Heap abbauen: Wurzel ist jeweils das "schlechteste" Element
+        int[] result = new int[size];
+        for (int n = size; n > 0; n--) {
+            result[n - 1] = heap[0];
+            heap[0] = heap[n - 1];
+            siftDown(heap, 0, n - 1, volumes, largest);
+        }
+        return result;
+    }
+
+    /**
+     * Prüft, ob Element a im Ergebnis vor Element b steht.
+     */
+    private static boolean before(double[] volumes, int a, int b, boolean largest) {
+        int c = Double.compare(volumes[a], volumes[b]);
+        if (largest) {
+            c = -c;
+        }
+        return c != 0 ? c < 0 : a < b;
+    }
+
+    /**
+     * Lässt heap[i] nach unten sinken, bis die Heap-Eigenschaft gilt
+     * (Wurzel = Element, das im Ergebnis am weitesten hinten steht).
+     */
+    private static void siftDown(int[] heap, int i, int size, double[] volumes, boolean largest) {
+        int element = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(volumes, heap[child], heap[child + 1], largest)) {
+                child++;
+            }
+            if (!before(volumes, element, heap[child], largest)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = element;
+    }
+
+    /**
+     * Baut die Ergebnisliste in der Reihenfolge der Indizes auf.
+     */
+    private static <T extends Geometry> List<T> collect(List<T> geometries, int[] indices) {
+        List<T> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(geometries.get(index));
+        }
+        return result;
+    }
+}
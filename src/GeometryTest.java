@@ -1,3 +1,33 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Test class for Geometry hierarchy.
  * 
@@ -7,42 +37,15 @@
  * - Validierung der Korrektheit
  * 
  * STRUKTUR:
- * - Jede Testmethode testet einen Aspekt der Bibliothek
+ * - Jede @Test-Methode testet einen Aspekt der Bibliothek
  * - Verwendet Assertions für automatische Fehlerprüfung
  * - Gibt Ergebnisse zur manuellen Inspektion aus
  * 
  * VERWENDUNG:
- * java -ea GeometryTest    (-ea aktiviert Assertions)
+ * java TestRunner GeometryTest    (Assertions schaltet der Runner ein)
  */
 public class GeometryTest {
 
-    /**
-     * Hauptmethode - führt alle Tests aus.
-     * 
-     * ABLAUF:
-     * 1. Teste jede Klasse einzeln
-     * 2. Teste Comparable-Funktionalität
-     * 3. Teste Encapsulation in allen Varianten
-     * 4. Erfolgreiche Ausgabe wenn alle Tests bestanden
-     */
-    public static void main(String[] args) {
-        System.out.println("=== Geometry Library Test Suite ===\n");
-        
-        // Teste einzelne Klassen
-        testPoint2D();
-        testRectangle();
-        testNDimensionalPoint();
-        testVolume();
-        
-        // Teste Interfaces und Interaktionen
-        testComparable();
-        testEncapsulation();
-        
-        // Erfolgsmeldung
-        System.out.println("\n✓ All tests passed!");
-        System.out.println("=== Test Suite Complete ===");
-    }
-
     /**
      * Testet Point2D-Funktionalität.
      * 
@@ -52,6 +55,7 @@ public class GeometryTest {
      * - volume() gibt 0.0 zurück
      * - Getter-Methoden
      */
+    @Test
     private static void testPoint2D() {
         System.out.println("Testing Point2D...");
         
@@ -82,6 +86,7 @@ public class GeometryTest {
      * - volume() berechnet Fläche korrekt
      * - Getter-Methoden
      */
+    @Test
     private static void testRectangle() {
         System.out.println("Testing Rectangle...");
         
@@ -114,6 +119,7 @@ public class GeometryTest {
      * - volume() gibt 0.0 zurück
      * - Getter für einzelne Koordinaten
      */
+    @Test
     private static void testNDimensionalPoint() {
         System.out.println("Testing N-Dimensional Point...");
         
@@ -145,6 +151,7 @@ public class GeometryTest {
      * - volume() berechnet Produkt aller Kantenlängen korrekt
      * - Kantenlängen-Getter
      */
+    @Test
     private static void testVolume() {
         System.out.println("Testing Volume...");
         
@@ -178,6 +185,7 @@ public class GeometryTest {
      * - Größere Geometrie gibt positiven Wert zurück
      * - Gleiche Geometrie gibt 0 zurück
      */
+    @Test
     private static void testComparable() {
         System.out.println("Testing Comparable...");
         
@@ -201,6 +209,50 @@ public class GeometryTest {
         System.out.println("  ✓ Comparable tests passed\n");
     }
 
+    /**
+     * Testet logVolume() und LOG_VOLUME_ORDER.
+     * 
+     * GETESTET:
+     * - logVolume() entspricht log(volume()) bei normalen Größen
+     * - Bei 200 Dimensionen bleibt die Ordnung korrekt, obwohl
+     *   volume() überläuft (Infinity) bzw. unterläuft (0.0)
+     */
+    @Test
+    private static void testLogVolume() {
+        System.out.println("Testing logVolume...");
+        
+        Volume vol = new Volume(new Point(0, 0, 0), new Point(2, 3, 4));
+        assert Math.abs(vol.logVolume() - Math.log(24)) < 1e-12 : "logVolume should be log(24)";
+        Rectangle rect = new Rectangle(new Point2D(0, 0), new Point2D(4, 3));
+        assert Math.abs(rect.logVolume() - Math.log(12)) < 1e-12 : "logVolume should be log(12)";
+        assert new Point2D(1, 1).logVolume() == Double.NEGATIVE_INFINITY : "Point has empty volume";
+        
+        // 200-dimensionale Hyperwürfel mit Kantenlänge 100 bzw. 200
+        Volume big = cube(200, 100);
+        Volume bigger = cube(200, 200);
+        assert big.volume() == bigger.volume() : "volume() overflows to a tie";
+        assert Geometry.LOG_VOLUME_ORDER.compare(big, bigger) < 0 : "big should be smaller than bigger";
+        
+        // Kantenlänge 0.01 bzw. 0.02: volume() unterläuft zu 0.0
+        Volume tiny = cube(200, 0.01);
+        Volume small = cube(200, 0.02);
+        assert tiny.volume() == 0.0 : "volume() underflows to 0";
+        assert Geometry.LOG_VOLUME_ORDER.compare(small, tiny) > 0 : "small should be larger than tiny";
+        assert Geometry.LOG_VOLUME_ORDER.compare(null, tiny) < 0 : "null is ordered first";
+        
+        System.out.println("  log volume of 200D cube (edge 100): " + big.logVolume());
+        System.out.println("  ✓ logVolume tests passed\n");
+    }
+
+    /**
+     * Erzeugt einen Hyperwürfel mit gegebener Dimension und Kantenlänge.
+     */
+    private static Volume cube(int dimensions, double edge) {
+        double[] upper = new double[dimensions];
+        Arrays.fill(upper, edge);
+        return new Volume(new Point(new double[dimensions]), new Point(upper));
+    }
+
     /**
      * Testet Encapsulation-Funktionalität.
      * 
@@ -212,6 +264,7 @@ public class GeometryTest {
      * - nD: Volume + Punkt → erweitertes Volume
      * - Unterschiedliche Dimensionen → null
      */
+    @Test
     private static void testEncapsulation() {
         System.out.println("Testing Encapsulation...");
         
@@ -266,4 +319,1613 @@ public class GeometryTest {
         
         System.out.println("  ✓ Encapsulation tests passed\n");
     }
+
+    /**
+     * Testet GeometrySort.
+     * 
+     * GETESTET:
+     * - parallelSort() liefert dieselbe Reihenfolge wie compareTo()
+     * - smallest()/largest() liefern die k kleinsten/größten Geometrien
+     */
+    @Test
+    private static void testSort() {
+        System.out.println("Testing GeometrySort...");
+        
+        // Rechtecke mit Flächen 9, 1, 4, 16, 4
+        List<Rectangle> rects = new ArrayList<>();
+        for (int side : new int[] {3, 1, 2, 4, 2}) {
+            rects.add(new Rectangle(new Point2D(0, 0), new Point2D(side, side)));
+        }
+        
+        // Referenz: stabile Sortierung über compareTo
+        List<Rectangle> expected = new ArrayList<>(rects);
+        Collections.sort(expected);
+        assert GeometrySort.parallelSort(rects).equals(expected) : "Order must match compareTo";
+        
+        // Top-k / Bottom-k
+        List<Rectangle> smallest = GeometrySort.smallest(rects, 2);
+        assert smallest.get(0).volume() == 1.0 && smallest.get(1).volume() == 4.0 : "Wrong bottom-2";
+        List<Rectangle> largest = GeometrySort.largest(rects, 3);
+        assert largest.get(0).volume() == 16.0 : "Wrong top-1";
+        assert largest.get(2).volume() == 4.0 : "Wrong top-3";
+        assert GeometrySort.largest(rects, 10).size() == 5 : "k larger than n";
+        
+        System.out.println("  Sorted: " + GeometrySort.parallelSort(rects).size() + " rectangles");
+        System.out.println("  ✓ GeometrySort tests passed\n");
+    }
+
+    /**
+     * Testet SpatialPartitioner mit simulierten Knoten.
+     * 
+     * GETESTET:
+     * - Jeder Knoten bekommt etwa gleich viele Punkte
+     * - Jeder Punkt liegt im Bereich seines Knotens
+     * - Grenzüberschreitende Rechtecke schneiden mehrere Partitionen
+     * - Gleiche Mittelpunkte landen zusammen in der gebauten Partition
+     */
+    @Test
+    private static void testPartitioner() {
+        System.out.println("Testing SpatialPartitioner...");
+        
+        // 1000 Punkte auf einem unregelmäßigen Gitter
+        List<Point2D> points = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            points.add(new Point2D((i * 37) % 101, (i * 53) % 97 * 0.5));
+        }
+        int nodes = 5;
+        SpatialPartitioner sp = new SpatialPartitioner(points, nodes);
+        assert sp.size() == nodes : "Expected " + nodes + " partitions";
+        assert sp.getExtent() instanceof Rectangle : "Extent of Point2D should be a Rectangle";
+        
+        // Simulierte Knoten: jeder sammelt seine Punkte
+        List<List<Point2D>> shards = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (Point2D p : points) {
+            shards.get(sp.owner(p)).add(p);
+        }
+        for (int i = 0; i < nodes; i++) {
+            assert Math.abs(shards.get(i).size() - 200) <= 20 : "Unbalanced shard " + i;
+            for (Point2D p : shards.get(i)) {
+                assert sp.getPartition(i).encapsulate(p).volume() == sp.getPartition(i).volume()
+                    : p + " outside of partition " + i;
+            }
+        }
+        
+        // Rechteck über die gesamte Ausdehnung: schneidet alle Partitionen
+        Rectangle all = (Rectangle) sp.getExtent();
+        assert sp.overlapping(all).length == nodes : "Extent should overlap all partitions";
+        assert sp.owner(all) >= 0 && sp.owner(all) < nodes : "Owner must be a partition";
+        
+        // n-dimensionale Daten ergeben Volumes
+        List<Point> points3d = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            points3d.add(new Point(i % 7, i % 11, i % 13));
+        }
+        SpatialPartitioner sp3d = new SpatialPartitioner(points3d, 4);
+        assert sp3d.getPartition(0) instanceof Volume : "Partitions of Point should be Volumes";
+        
+        // Viele gleiche Mittelpunkte: owner() muss die gebaute Aufteilung treffen
+        // (450 verschiedene links, 200 gleiche bei x = 5, 350 verschiedene rechts)
+        List<Point2D> ties = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            ties.add(new Point2D(i * 0.01, 0));
+        }
+        for (int i = 0; i < 200; i++) {
+            ties.add(new Point2D(5, 0));
+        }
+        for (int i = 0; i < 350; i++) {
+            ties.add(new Point2D(6 + i * 0.01, 0));
+        }
+        SpatialPartitioner tied = new SpatialPartitioner(ties, 4);
+        int[] tiedSizes = new int[4];
+        for (Point2D p : ties) {
+            tiedSizes[tied.owner(p)]++;
+        }
+        Arrays.sort(tiedSizes);
+        assert Arrays.equals(tiedSizes, new int[] {225, 225, 275, 275})
+            : "Shards should follow the built split: " + Arrays.toString(tiedSizes);
+        
+        System.out.println("  Shard sizes: " + shards.stream().map(List::size).toList());
+        System.out.println("  ✓ SpatialPartitioner tests passed\n");
+    }
+
+    /**
+     * Testet DynamicExtent.
+     * 
+     * GETESTET:
+     * - Ausdehnung schrumpft beim Entfernen
+     * - Nach zufälligen add/remove-Folgen stimmt bounds() mit einer
+     *   Neuberechnung über encapsulate überein (2D und 3D)
+     */
+    @Test
+    private static void testDynamicExtent() {
+        System.out.println("Testing DynamicExtent...");
+        
+        DynamicExtent extent = new DynamicExtent();
+        assert extent.bounds() == null : "Empty extent should be null";
+        int a = extent.add(new Point2D(0, 0));
+        int b = extent.add(new Rectangle(new Point2D(2, 2), new Point2D(5, 6)));
+        assert extent.bounds().volume() == 30.0 : "Area should be 30.0";
+        extent.remove(b);
+        assert extent.bounds().volume() == 0.0 : "Extent should shrink to the point";
+        extent.remove(a);
+        assert extent.bounds() == null : "Extent should be empty again";
+        
+        // Zufällige Folge in 3D gegen Neuberechnung prüfen
+        Random random = new Random(42);
+        DynamicExtent extent3d = new DynamicExtent();
+        List<Integer> handles = new ArrayList<>();
+        List<Point> live = new ArrayList<>();
+        for (int step = 0; step < 2000; step++) {
+            if (live.isEmpty() || random.nextInt(3) > 0) {
+                Point p = new Point(random.nextDouble(), random.nextDouble(), random.nextDouble());
+                handles.add(extent3d.add(p));
+                live.add(p);
+            } else {
+                int i = random.nextInt(live.size());
+                extent3d.remove(handles.remove(i));
+                live.remove(i);
+            }
+            if (step % 100 == 0 && live.size() > 1) {
+                Geometry expected = live.get(0);
+                for (Point p : live) {
+                    expected = expected.encapsulate(p);
+                }
+                Geometry actual = extent3d.bounds();
+                for (int axis = 0; axis < 3; axis++) {
+                    assert Bounds.lower(actual, axis) == Bounds.lower(expected, axis) : "Wrong lower bound";
+                    assert Bounds.upper(actual, axis) == Bounds.upper(expected, axis) : "Wrong upper bound";
+                }
+            }
+        }
+        assert extent3d.size() == live.size() : "Wrong size";
+        
+        System.out.println("  Live geometries: " + extent3d.size());
+        System.out.println("  ✓ DynamicExtent tests passed\n");
+    }
+
+    /**
+     * Testet GeometryServer über TCP und Unix-Socket.
+     * 
+     * GETESTET:
+     * - volume(), encapsulate() und bounds() liefern dieselben Werte wie lokal
+     * - Ungültige Anfragen liefern eine Fehlerantwort, die Verbindung bleibt nutzbar
+     * - Pipelining: Antworten kommen in Reihenfolge der Anfragen
+     * - Lastgenerator misst Durchsatz und Latenz, lehnt zu große depth ab
+     * - Unix-Socket: close() löscht die Socket-Datei, Neustart auf demselben Pfad
+     */
+    @Test
+    private static void testServer() {
+        System.out.println("Testing GeometryServer...");
+        
+        Path socket = null;
+        try (GeometryServer server = GeometryServer.start(new InetSocketAddress("127.0.0.1", 0));
+             GeometryClient client = GeometryClient.connect(server.getAddress())) {
+            Rectangle rect = new Rectangle(new Point2D(0, 0), new Point2D(4, 3));
+            assert client.volume(rect) == 12.0 : "Remote volume should be 12.0";
+            
+            Volume v1 = new Volume(new Point(0, 0, 0), new Point(2, 2, 2));
+            Point p = new Point(3, 3, 3);
+            Geometry remote = client.encapsulate(v1, p);
+            assert remote.volume() == v1.encapsulate(p).volume() : "Remote encapsulate differs";
+            assert client.bounds(List.of(v1, p)).volume() == 27.0 : "Remote bounds should be 27.0";
+            
+            // Fehler: unterschiedliche Dimensionen
+            boolean failed = false;
+            try {
+                client.encapsulate(v1, rect);
+            } catch (RuntimeException e) {
+                failed = true;
+            }
+            assert failed : "Different dimensions should fail";
+            
+            // Ungültige Anfragen dürfen die folgenden nicht verschieben
+            try (SocketChannel raw = SocketChannel.open(server.getAddress());
+                 DataOutputStream out = new DataOutputStream(Channels.newOutputStream(raw));
+                 DataInputStream in = new DataInputStream(Channels.newInputStream(raw))) {
+                // 1: encapsulate mit 1D-Box a, gültiger Box b
+                out.writeInt(1);
+                out.writeByte(GeometryProtocol.OP_ENCAPSULATE);
+                out.writeByte(1);
+                out.writeDouble(0);
+                out.writeDouble(1);
+                GeometryProtocol.writeBox(out, v1);
+                // 2: bounds mit negativer Anzahl
+                out.writeInt(2);
+                out.writeByte(GeometryProtocol.OP_BOUNDS);
+                out.writeByte(2);
+                out.writeInt(-1);
+                // 3: bounds mit 1D-Boxen
+                out.writeInt(3);
+                out.writeByte(GeometryProtocol.OP_BOUNDS);
+                out.writeByte(1);
+                out.writeInt(2);
+                for (int i = 0; i < 4; i++) {
+                    out.writeDouble(i);
+                }
+                // 4: gültig
+                out.writeInt(4);
+                out.writeByte(GeometryProtocol.OP_VOLUME);
+                GeometryProtocol.writeBox(out, v1);
+                out.flush();
+                
+                for (int id = 1; id <= 3; id++) {
+                    assert in.readInt() == id : "Wrong response id";
+                    assert in.readByte() == GeometryProtocol.STATUS_ERROR : "Request " + id + " should fail";
+                    in.readUTF();
+                }
+                assert in.readInt() == 4 && in.readByte() == GeometryProtocol.STATUS_OK : "Valid request should succeed";
+                assert in.readDouble() == 8.0 : "Stream is out of sync after invalid requests";
+            }
+            
+            // Pipelining: 100 Anfragen, dann 100 Antworten
+            for (int i = 1; i <= 100; i++) {
+                client.sendVolume(new Rectangle(new Point2D(0, 0), new Point2D(i, 1)));
+            }
+            client.flush();
+            for (int i = 1; i <= 100; i++) {
+                assert client.receive().value == i : "Responses out of order";
+            }
+            
+            // Kurzer Lastlauf
+            GeometryLoadGenerator.Result result = GeometryLoadGenerator.run(server.getAddress(), 2, 16, 200);
+            assert result.operations > 0 : "Load generator should complete requests";
+            System.out.println("  Load: " + result);
+            
+            // Größte zulässige Runde läuft durch, eine zu große wird abgelehnt
+            assert GeometryLoadGenerator.run(server.getAddress(), 1, 250, 50).operations > 0
+                : "Largest allowed depth should complete";
+            boolean rejected = false;
+            try {
+                GeometryLoadGenerator.run(server.getAddress(), 1, 100_000, 50);
+            } catch (RuntimeException e) {
+                rejected = true;
+            }
+            assert rejected : "Depth beyond the bytes in flight should be rejected";
+            
+            // Unix-Domain-Socket
+            socket = Files.createTempDirectory("geometry").resolve("server.sock");
+            try (GeometryServer unixServer = GeometryServer.start(UnixDomainSocketAddress.of(socket));
+                 GeometryClient unixClient = GeometryClient.connect(unixServer.getAddress())) {
+                assert unixClient.volume(v1) == 8.0 : "Remote volume over unix socket should be 8.0";
+                
+                // Belegter Pfad: bind schlägt fehl, der laufende Server bleibt unberührt
+                boolean bound = true;
+                try (GeometryServer duplicate = GeometryServer.start(UnixDomainSocketAddress.of(socket))) {
+                    bound = duplicate != null;
+                } catch (IOException e) {
+                    bound = false;
+                }
+                assert !bound : "Binding an occupied socket path should fail";
+                assert unixClient.volume(v1) == 8.0 : "Failed bind must not disturb the running server";
+            }
+            assert !Files.exists(socket) : "close() should delete the socket file";
+            
+            // Neustart auf demselben Pfad
+            try (GeometryServer restarted = GeometryServer.start(UnixDomainSocketAddress.of(socket));
+                 GeometryClient unixClient = GeometryClient.connect(restarted.getAddress())) {
+                assert unixClient.volume(v1) == 8.0 : "Restarted server should answer on the same path";
+            }
+            assert !Files.exists(socket) : "close() should delete the socket file";
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (socket != null) {
+                socket.getParent().toFile().delete();
+            }
+        }
+        
+        System.out.println("  ✓ GeometryServer tests passed\n");
+    }
+
+    /**
+     * Testet UnionMeasure.
+     * 
+     * GETESTET:
+     * - Überlappungen werden nur einmal gezählt (2D, 3D und 4D)
+     * - Vergleich mit Auszählen eines Einheitsgitters bei ganzzahligen Boxen
+     * - parallelMeasure() liefert dasselbe Ergebnis wie measure()
+     */
+    @Test
+    private static void testUnionMeasure() {
+        System.out.println("Testing UnionMeasure...");
+        
+        // Zwei überlappende Rechtecke: 4×4 + 4×4 - 2×2 = 28
+        List<Rectangle> two = List.of(
+            new Rectangle(new Point2D(0, 0), new Point2D(4, 4)),
+            new Rectangle(new Point2D(2, 2), new Point2D(6, 6)));
+        assert UnionMeasure.measure(two) == 28.0 : "Union area should be 28.0";
+        
+        // -0.0 und 0.0 sind dieselbe Kante
+        List<Rectangle> signedZero = List.of(
+            new Rectangle(new Point2D(0, -0.0), new Point2D(2, 2)),
+            new Rectangle(new Point2D(0, -1), new Point2D(2, 0.0)));
+        assert UnionMeasure.measure(signedZero) == 6.0 : "Union area with -0.0 should be 6.0";
+        
+        // Zufällige ganzzahlige Rechtecke gegen Gitter-Zählung
+        Random random = new Random(7);
+        List<Rectangle> rects = new ArrayList<>();
+        boolean[][] grid = new boolean[50][50];
+        for (int i = 0; i < 200; i++) {
+            int x = random.nextInt(45);
+            int y = random.nextInt(45);
+            int w = 1 + random.nextInt(5);
+            int h = 1 + random.nextInt(5);
+            rects.add(new Rectangle(new Point2D(x, y), new Point2D(x + w, y + h)));
+            for (int gx = x; gx < x + w; gx++) {
+                for (int gy = y; gy < y + h; gy++) {
+                    grid[gx][gy] = true;
+                }
+            }
+        }
+        int cells = 0;
+        for (boolean[] column : grid) {
+            for (boolean covered : column) {
+                cells += covered ? 1 : 0;
+            }
+        }
+        assert UnionMeasure.measure(rects) == cells : "Union area should be " + cells;
+        assert UnionMeasure.parallelMeasure(rects, 7) == cells : "Parallel union area should be " + cells;
+        
+        // 3D: zwei Würfel mit Kante 2, Überlappung 1×1×1 → 8 + 8 - 1 = 15
+        List<Volume> cubes = List.of(
+            new Volume(new Point(0, 0, 0), new Point(2, 2, 2)),
+            new Volume(new Point(1, 1, 1), new Point(3, 3, 3)));
+        assert UnionMeasure.measure(cubes) == 15.0 : "Union volume should be 15.0";
+        assert UnionMeasure.parallelMeasure(cubes, 3) == 15.0 : "Parallel union volume should be 15.0";
+        
+        // 4D: ganzzahlige Boxen auf einem 6^4-Gitter, Brute Force über die Zellen
+        // (mehrere Rekursionsebenen teilen sich ihre Positions-Arrays)
+        Random random4d = new Random(31);
+        List<Volume> boxes = new ArrayList<>();
+        boolean[] covered = new boolean[6 * 6 * 6 * 6];
+        for (int b = 0; b < 25; b++) {
+            double[] lo = new double[4];
+            double[] hi = new double[4];
+            for (int axis = 0; axis < 4; axis++) {
+                lo[axis] = random4d.nextInt(5);
+                hi[axis] = lo[axis] + 1 + random4d.nextInt(6 - (int) lo[axis]);
+            }
+            boxes.add(new Volume(new Point(lo), new Point(hi)));
+            for (int cell = 0; cell < covered.length; cell++) {
+                boolean inside = true;
+                for (int axis = 0, c = cell; axis < 4; axis++, c /= 6) {
+                    inside &= c % 6 >= lo[axis] && c % 6 < hi[axis];
+                }
+                covered[cell] |= inside;
+            }
+        }
+        int cells4d = 0;
+        for (boolean c : covered) {
+            cells4d += c ? 1 : 0;
+        }
+        assert UnionMeasure.measure(boxes) == cells4d : "4D union should be " + cells4d;
+        assert UnionMeasure.parallelMeasure(boxes, 5) == cells4d : "Parallel 4D union should be " + cells4d;
+        
+        System.out.println("  Union area of " + rects.size() + " rectangles: " + cells);
+        System.out.println("  ✓ UnionMeasure tests passed\n");
+    }
+
+    /**
+     * Testet ConvexHull.
+     * 
+     * GETESTET:
+     * - Quadrat mit inneren Punkten, Kantenpunkten und Duplikaten → 4 Ecken
+     * - Alle Punkte liegen in der Hülle (zufällige Punktwolke)
+     * - parallelHullIndices() liefert dieselbe Hülle wie hullIndices()
+     */
+    @Test
+    private static void testConvexHull() {
+        System.out.println("Testing ConvexHull...");
+        
+        List<Point2D> square = List.of(
+            new Point2D(1, 1), new Point2D(0, 0), new Point2D(2, 0), new Point2D(2, 2),
+            new Point2D(0, 2), new Point2D(1, 0), new Point2D(0, 0), new Point2D(0.5, 1.5));
+        List<Point2D> hull = ConvexHull.hull(square);
+        assert hull.size() == 4 : "Square hull should have 4 corners, got " + hull;
+        assert hull.get(0).getX() == 0 && hull.get(0).getY() == 0 : "Hull should start at (0,0)";
+        assert hull.get(1).getX() == 2 && hull.get(1).getY() == 0 : "Hull should be counterclockwise";
+        
+        // Zufällige Punktwolke, groß genug für mehrere Fork-Join-Blöcke
+        Random random = new Random(3);
+        int n = 200_000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextGaussian();
+            ys[i] = random.nextGaussian();
+        }
+        int[] sequential = ConvexHull.hullIndices(xs, ys);
+        int[] parallel = ConvexHull.parallelHullIndices(xs, ys);
+        assert Arrays.equals(sequential, parallel) : "Parallel hull differs";
+        
+        // Jeder Punkt liegt links von (oder auf) jeder Hüllkante
+        for (int k = 0; k < sequential.length; k++) {
+            int a = sequential[k];
+            int b = sequential[(k + 1) % sequential.length];
+            for (int i = 0; i < n; i += 97) {
+                double cross = (xs[b] - xs[a]) * (ys[i] - ys[a]) - (ys[b] - ys[a]) * (xs[i] - xs[a]);
+                assert cross >= -1e-12 : "Point " + i + " outside of hull";
+            }
+        }
+        
+        System.out.println("  Hull of " + n + " points: " + sequential.length + " vertices");
+        System.out.println("  ✓ ConvexHull tests passed\n");
+    }
+
+    /**
+     * Testet RegionTree als Quadtree (Point2D) und als 2^d-Baum (Point).
+     * 
+     * GETESTET:
+     * - rangeQuery(), count() und nearest() gegen Brute-Force-Suche
+     * - bounds() schrumpft nach dem Entfernen
+     * - Viele gleiche Punkte (Tiefenbegrenzung)
+     * - NaN wird abgewiesen
+     * - Copy-on-Write: alte Stände bleiben unverändert, Leser laufen
+     *   während der Schreibzugriffe weiter
+     */
+    @Test
+    private static void testRegionTree() {
+        System.out.println("Testing RegionTree...");
+        
+        Random random = new Random(11);
+        RegionTree quad = new RegionTree(new Rectangle(new Point2D(0, 0), new Point2D(100, 100)), 4);
+        List<Point2D> points = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Point2D p = new Point2D(random.nextDouble() * 100, random.nextDouble() * 100);
+            points.add(p);
+            quad.insert(p);
+        }
+        
+        // Hälfte wieder entfernen
+        for (int i = 0; i < 1000; i++) {
+            assert quad.remove(points.get(i)) : "Point should be removed";
+        }
+        List<Point2D> live = points.subList(1000, 2000);
+        assert quad.size() == 1000 : "Tree should contain 1000 points";
+        assert !quad.remove(new Point2D(-1, -1)) : "Unknown point cannot be removed";
+        
+        // Bereichsanfrage und Zählen gegen Brute Force
+        Rectangle window = new Rectangle(new Point2D(20, 30), new Point2D(45, 70));
+        int expected = 0;
+        for (Point2D p : live) {
+            if (p.getX() >= 20 && p.getX() <= 45 && p.getY() >= 30 && p.getY() <= 70) {
+                expected++;
+            }
+        }
+        assert quad.rangeQuery(window).size() == expected : "Wrong range query result";
+        assert quad.count(window) == expected : "Wrong count";
+        
+        // Nächster Nachbar gegen Brute Force
+        Point2D query = new Point2D(50, 50);
+        Point2D closest = null;
+        for (Point2D p : live) {
+            if (closest == null || dist(p, query) < dist(closest, query)) {
+                closest = p;
+            }
+        }
+        assert quad.nearest(query) == closest : "Wrong nearest neighbour";
+        
+        // Bounds schrumpfen nach Entfernen
+        RegionTree small = new RegionTree(new Rectangle(new Point2D(0, 0), new Point2D(10, 10)));
+        small.insert(new Point2D(1, 1));
+        small.insert(new Point2D(9, 9));
+        assert small.bounds().volume() == 64.0 : "Bounds should be 8x8";
+        small.remove(new Point2D(9, 9));
+        assert small.bounds().volume() == 0.0 : "Bounds should shrink to one point";
+        
+        // n-D: 3D-Baum, auch mit vielen gleichen Punkten
+        RegionTree octree = new RegionTree(new Volume(new Point(0, 0, 0), new Point(1, 1, 1)), 2);
+        for (int i = 0; i < 50; i++) {
+            octree.insert(new Point(0.5, 0.5, 0.5));
+        }
+        octree.insert(new Point(0.1, 0.2, 0.3));
+        assert octree.count(new Volume(new Point(0.4, 0.4, 0.4), new Point(0.6, 0.6, 0.6))) == 50
+            : "Duplicates should all be found";
+        assert octree.bounds() instanceof Volume : "3D bounds should be a Volume";
+        assert octree.nearest(new Point(0, 0, 0)).volume() == 0.0 : "Nearest should be a point";
+        
+        // NaN liegt in keiner Region
+        try {
+            small.insert(new Point2D(Double.NaN, 5));
+            assert false : "NaN coordinates should be rejected";
+        } catch (RuntimeException e) {
+            // erwartet
+        }
+        
+        // Copy-on-Write: ein genommener Stand ändert sich nicht mehr
+        RegionTree.Node snapshot = quad.root();
+        int snapshotSize = snapshot.size;
+        for (int i = 0; i < 200; i++) {
+            quad.insert(new Point2D(random.nextDouble() * 100, random.nextDouble() * 100));
+        }
+        for (int i = 1000; i < 1500; i++) {
+            quad.remove(points.get(i));
+        }
+        quad.compact();
+        assert snapshot.size == snapshotSize : "Published nodes must not change";
+        assert quad.root() != snapshot : "Writes should publish a new root";
+        assert quad.size() == 700 : "Tree should contain 700 points";
+        
+        // Leser laufen während der Schreibzugriffe weiter und sehen immer einen
+        // vollständigen Stand: Bereich A bleibt fest, in B kommen und gehen Punkte
+        RegionTree shared = new RegionTree(new Rectangle(new Point2D(0, 0), new Point2D(100, 100)), 4);
+        for (int i = 0; i < 500; i++) {
+            shared.insert(new Point2D(random.nextDouble() * 50, random.nextDouble() * 100));
+        }
+        Rectangle regionA = new Rectangle(new Point2D(0, 0), new Point2D(50, 100));
+        Rectangle regionB = new Rectangle(new Point2D(60, 0), new Point2D(100, 100));
+        List<Point2D> moving = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            moving.add(new Point2D(60 + random.nextDouble() * 40, random.nextDouble() * 100));
+        }
+        long until = System.nanoTime() + 300_000_000L;
+        Thread writer = new Thread(() -> {
+            while (System.nanoTime() < until) {
+                moving.forEach(shared::insert);
+                moving.forEach(shared::remove);
+            }
+        });
+        writer.start();
+        int reads = 0;
+        while (writer.isAlive()) {
+            assert shared.count(regionA) == 500 : "Readers must see region A unchanged";
+            int inB = shared.count(regionB);
+            assert inB >= 0 && inB <= moving.size() : "Readers must see a consistent state";
+            assert shared.nearest(new Point2D(55, 50)) != null : "Nearest should exist";
+            reads++;
+        }
+        // isAlive() == false: alle Schreibzugriffe des Threads sind sichtbar
+        assert shared.size() == 500 : "All moving points should be removed again";
+        
+        System.out.println("  Points in window: " + expected);
+        System.out.println("  Concurrent reads during writes: " + reads);
+        System.out.println("  ✓ RegionTree tests passed\n");
+    }
+
+    /**
+     * Quadrierter Abstand zweier Punkte.
+     */
+    private static double dist(Point2D a, Point2D b) {
+        double dx = a.getX() - b.getX();
+        double dy = a.getY() - b.getY();
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Testet equals/hashCode und PointHashSet.
+     * 
+     * GETESTET:
+     * - Wertgleichheit aller vier Typen, auch in einem HashSet
+     * - Point2D und 2D-Point sind NICHT gleich
+     * - PointHashSet dedupliziert exakt und im Epsilon-Gitter
+     * - Epsilon-Gitter weist NaN und unendliche Koordinaten ab
+     * - Nur Point2D/Point werden angenommen, zu große Kapazitäten abgewiesen
+     */
+    @Test
+    private static void testEqualsAndDedup() {
+        System.out.println("Testing equals/hashCode and PointHashSet...");
+        
+        assert new Point2D(1, 2).equals(new Point2D(1, 2)) : "Equal Point2D";
+        assert !new Point2D(1, 2).equals(new Point(1, 2)) : "Point2D is not a Point";
+        assert new Point(1, 2, 3).equals(new Point(1, 2, 3)) : "Equal Point";
+        assert !new Point(1, 2, 3).equals(new Point(1, 2, 4)) : "Different Point";
+        // Konstruktor normalisiert → Reihenfolge der Ecken egal
+        assert new Rectangle(new Point2D(4, 3), new Point2D(0, 0))
+            .equals(new Rectangle(new Point2D(0, 3), new Point2D(4, 0))) : "Equal Rectangle";
+        assert new Volume(new Point(0, 0, 0), new Point(2, 2, 2))
+            .equals(new Volume(new Point(2, 2, 2), new Point(0, 0, 0))) : "Equal Volume";
+        
+        Set<Geometry> set = new HashSet<>(List.of(new Point2D(1, 2), new Point(1, 2, 3)));
+        assert set.contains(new Point2D(1, 2)) && set.contains(new Point(1, 2, 3)) : "HashSet lookup";
+        assert !set.add(new Point2D(1, 2)) : "HashSet should deduplicate";
+        
+        // Exakte Deduplizierung aus Spalten
+        double[] xs = {1, 2, 1, 3, 2, 1.0000001};
+        double[] ys = {1, 2, 1, 3, 2, 1};
+        PointHashSet exact = new PointHashSet(2, 2);
+        int[] unique = exact.addAll(new double[][] {xs, ys});
+        assert Arrays.equals(unique, new int[] {0, 1, 3, 5}) : "Wrong unique rows " + Arrays.toString(unique);
+        assert exact.contains(new Point2D(3, 3)) && !exact.contains(new Point2D(3, 4)) : "Wrong contains";
+        
+        // Epsilon-Gitter: 1 und 1.0000001 fallen in dieselbe Zelle
+        PointHashSet snapped = new PointHashSet(2, 2, 0.001);
+        assert snapped.addAll(new double[][] {xs, ys}).length == 3 : "Snapping should merge rows 0 and 5";
+        
+        // Nicht-endliche Koordinaten haben keine Gitterzelle (NaN wäre sonst Zelle 0)
+        for (double bad : new double[] {Double.NaN, Double.POSITIVE_INFINITY, 1e300}) {
+            try {
+                snapped.add(new Point2D(bad, 0));
+                assert false : "Coordinate " + bad + " should be rejected";
+            } catch (RuntimeException e) {
+                // erwartet
+            }
+        }
+        assert !snapped.contains(new Point2D(0, 0)) : "Rejected points must not be added";
+        
+        // Nur Punkte: Rectangle/Volume zählten sonst unter ihrer unteren Ecke
+        for (Geometry notAPoint : new Geometry[] {
+                new Rectangle(new Point2D(3, 3), new Point2D(4, 4)), new Point(3, 3, 3)}) {
+            try {
+                exact.add(notAPoint);
+                assert false : notAPoint + " should be rejected";
+            } catch (RuntimeException e) {
+                // erwartet
+            }
+            try {
+                exact.contains(notAPoint);
+                assert false : notAPoint + " should be rejected by contains";
+            } catch (RuntimeException e) {
+                // erwartet
+            }
+        }
+        assert exact.size() == 4 : "Rejected geometries must not be added";
+        
+        // Zu große Tabellen: Fehler statt negativer Kapazität oder Überlauf von capacity * dims
+        for (int[] tooBig : new int[][] {{2, 1 << 30}, {2, Integer.MAX_VALUE}, {3, 1 << 29}, {4, 1 << 28}}) {
+            try {
+                new PointHashSet(tooBig[0], tooBig[1]);
+                assert false : "expectedSize " + tooBig[1] + " should be rejected";
+            } catch (RuntimeException e) {
+                // erwartet, aber nicht als NegativeArraySizeException
+                assert e.getMessage().contains("maximum array size") : "Wrong error: " + e;
+            }
+        }
+        
+        // Viele Punkte: Wachstum der Tabelle
+        Random random = new Random(5);
+        PointHashSet big = new PointHashSet(3, 16);
+        Set<Point> reference = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            Point p = new Point(random.nextInt(20), random.nextInt(20), random.nextInt(20));
+            assert big.add(p) == reference.add(p) : "PointHashSet differs from HashSet";
+        }
+        assert big.size() == reference.size() : "Wrong size";
+        
+        System.out.println("  Unique 3D points: " + big.size());
+        System.out.println("  ✓ equals/hashCode and PointHashSet tests passed\n");
+    }
+
+    /**
+     * Testet QuantizedPointSet in allen Kodierungen.
+     * 
+     * GETESTET:
+     * - Jedes Intervall enthält die exakte Koordinate
+     * - encapsulate() enthält die exakten Bounds, volume() ist nicht kleiner
+     * - Speicherbedarf pro Koordinate
+     */
+    @Test
+    private static void testQuantizedPointSet() {
+        System.out.println("Testing QuantizedPointSet...");
+        
+        Random random = new Random(13);
+        Volume region = new Volume(new Point(-1000, 0, 1e6), new Point(1000, 1e-3, 1e6 + 1));
+        for (QuantizedPointSet.Encoding encoding : QuantizedPointSet.Encoding.values()) {
+            QuantizedPointSet set = new QuantizedPointSet(region, encoding, 4);
+            Geometry exact = null;
+            List<Point> points = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                double[] c = new double[3];
+                for (int axis = 0; axis < 3; axis++) {
+                    double lo = Bounds.lower(region, axis);
+                    c[axis] = lo + random.nextDouble() * (Bounds.upper(region, axis) - lo);
+                }
+                Point p = new Point(c);
+                points.add(p);
+                set.add(p);
+                exact = exact == null ? p : exact.encapsulate(p);
+            }
+            for (int i = 0; i < points.size(); i++) {
+                for (int axis = 0; axis < 3; axis++) {
+                    double c = points.get(i).getCoordinate(axis);
+                    assert set.lower(i, axis) <= c && c <= set.upper(i, axis)
+                        : encoding + ": interval does not contain the exact coordinate";
+                }
+            }
+            Geometry bounds = set.encapsulate();
+            for (int axis = 0; axis < 3; axis++) {
+                assert Bounds.lower(bounds, axis) <= Bounds.lower(exact, axis) : encoding + ": lower bound";
+                assert Bounds.upper(bounds, axis) >= Bounds.upper(exact, axis) : encoding + ": upper bound";
+            }
+            assert set.volume() >= exact.volume() : encoding + ": volume must be conservative";
+            assert set.coordinateBytes() == 1000L * 3 * encoding.bytes() : encoding + ": wrong size";
+            System.out.println("  " + encoding + ": " + set.coordinateBytes() + " bytes");
+        }
+        
+        // 2D: Rectangle als Region, Point2D als Punkte
+        QuantizedPointSet planar = new QuantizedPointSet(
+            new Rectangle(new Point2D(0, 0), new Point2D(1, 1)), QuantizedPointSet.Encoding.INT16, 1);
+        planar.add(new Point2D(0.25, 0.75));
+        assert planar.encapsulate() instanceof Rectangle : "2D bounds should be a Rectangle";
+        assert Math.abs(((Point2D) planar.get(0)).getX() - 0.25) < 1e-4 : "Decoded point too far off";
+        
+        System.out.println("  ✓ QuantizedPointSet tests passed\n");
+    }
+
+    /**
+     * Testet die reaktiven Operatoren (GeometryFlow).
+     * 
+     * GETESTET:
+     * - Filter nach Volumen, tumbling/running encapsulate
+     * - Routing nach Dimension und Art (Point2D getrennt von 2D-Point),
+     *   Batching in ColumnarChunks
+     * - Backpressure: ohne Nachfrage hört der Operator auf anzufordern,
+     *   die Quelle verwirft, der Puffer bleibt begrenzt
+     */
+    @Test
+    private static void testFlow() {
+        System.out.println("Testing GeometryFlow...");
+        
+        try {
+            // Quelle → Filter → tumbling encapsulate (je 2)
+            SubmissionPublisher<Geometry> source = new SubmissionPublisher<>();
+            GeometryFlow.Operator<Geometry> filter = GeometryFlow.filterByVolume(1.0, 10.0);
+            GeometryFlow.Operator<Geometry> tumbling = GeometryFlow.tumblingEncapsulate(2);
+            source.subscribe(filter);
+            filter.subscribe(tumbling);
+            List<Geometry> windows = Collections.synchronizedList(new ArrayList<>());
+            CompletableFuture<Void> done = tumbling.consume(windows::add);
+            source.submit(new Rectangle(new Point2D(0, 0), new Point2D(1, 1)));     // Volumen 1
+            source.submit(new Rectangle(new Point2D(5, 5), new Point2D(100, 100))); // zu groß
+            source.submit(new Rectangle(new Point2D(2, 2), new Point2D(4, 4)));     // Volumen 4
+            source.submit(new Rectangle(new Point2D(-3, 0), new Point2D(-1, 1)));   // Volumen 2
+            source.close();
+            done.get(10, TimeUnit.SECONDS);
+            assert windows.size() == 2 : "Expected one full and one partial window";
+            assert windows.get(0).equals(new Rectangle(new Point2D(0, 0), new Point2D(4, 4))) : "Wrong first window";
+            assert windows.get(1).equals(new Rectangle(new Point2D(-3, 0), new Point2D(-1, 1))) : "Wrong last window";
+        
+            // Routing: Point2D, 2D-Point und 3D getrennt aggregieren, 4D landet in unrouted
+            SubmissionPublisher<Geometry> mixed = new SubmissionPublisher<>();
+            GeometryFlow.DimensionRouter router = new GeometryFlow.DimensionRouter();
+            GeometryFlow.Operator<Geometry> planar = GeometryFlow.runningEncapsulate();
+            GeometryFlow.Operator<Geometry> flat = GeometryFlow.runningEncapsulate();
+            GeometryFlow.Operator<ColumnarChunk> spatial = GeometryFlow.batch(3);
+            router.route(2, true).subscribe(planar);
+            router.route(2, false).subscribe(flat);
+            router.route(3, false).subscribe(spatial);
+            List<Geometry> running = Collections.synchronizedList(new ArrayList<>());
+            List<ColumnarChunk> chunks = Collections.synchronizedList(new ArrayList<>());
+            CompletableFuture<Void> planarDone = planar.consume(running::add);
+            List<Geometry> flatRunning = Collections.synchronizedList(new ArrayList<>());
+            CompletableFuture<Void> flatDone = flat.consume(flatRunning::add);
+            CompletableFuture<Void> spatialDone = spatial.consume(chunks::add);
+            GeometryFlow.Operator<Geometry> others = GeometryFlow.filterByVolume(0, Double.MAX_VALUE);
+            router.unrouted().subscribe(others);
+            List<Geometry> rest = Collections.synchronizedList(new ArrayList<>());
+            CompletableFuture<Void> othersDone = others.consume(rest::add);
+            mixed.subscribe(router);
+            for (int i = 0; i < 5; i++) {
+                mixed.submit(new Point2D(i, -i));
+                mixed.submit(new Point(new double[] {i, i, i}));
+                mixed.submit(new Point(new double[] {-i, i}));
+            }
+            mixed.submit(cube(4, 1));
+            mixed.close();
+            planarDone.get(10, TimeUnit.SECONDS);
+            flatDone.get(10, TimeUnit.SECONDS);
+            spatialDone.get(10, TimeUnit.SECONDS);
+            othersDone.get(10, TimeUnit.SECONDS);
+            assert running.size() == 5 : "Expected one running bound per 2D point";
+            assert running.get(4).equals(new Rectangle(new Point2D(0, -4), new Point2D(4, 0))) : "Wrong running bound";
+            assert flatRunning.size() == 5 : "2D Points should have their own route";
+            assert flatRunning.get(4).equals(new Volume(new Point(new double[] {-4, 0}), new Point(new double[] {0, 4})))
+                : "Wrong running bound of 2D Points";
+            assert chunks.size() == 2 : "Expected 2 chunks (3 + 2)";
+            assert chunks.get(0).size() == 3 && chunks.get(1).size() == 2 : "Wrong chunk sizes";
+            assert chunks.get(1).lower(2)[1] == 4.0 : "Wrong column value";
+            assert !chunks.get(0).isPlanar() && chunks.get(0).dimensions() == 3 : "Wrong chunk layout";
+            assert rest.size() == 1 && rest.get(0).dimensions() == 4 : "4D geometry should be unrouted";
+        
+            // Gemischte Dimensionen ohne Routing → Fehler statt null
+            SubmissionPublisher<Geometry> bad = new SubmissionPublisher<>();
+            GeometryFlow.Operator<Geometry> failing = GeometryFlow.runningEncapsulate();
+            bad.subscribe(failing);
+            CompletableFuture<Void> failed = failing.consume(g -> { });
+            bad.submit(new Point2D(0, 0));
+            bad.submit(new Point(new double[] {0, 0, 0}));
+            bad.close();
+            try {
+                failed.get(10, TimeUnit.SECONDS);
+                assert false : "Mixed dimensions should fail";
+            } catch (ExecutionException e) {
+                assert e.getCause() instanceof RuntimeException : "Expected RuntimeException";
+            }
+        
+            // ColumnarChunk nimmt nur eine Art auf
+            ColumnarChunk chunk = new ColumnarChunk(2, true, 2);
+            chunk.add(new Point2D(1, 2));
+            try {
+                chunk.add(new Point(new double[] {1, 2}));
+                assert false : "Chunk of Point2D should reject a 2D Point";
+            } catch (RuntimeException e) {
+                // erwartet
+            }
+            assert chunk.size() == 1 : "Rejected geometry must not be added";
+        
+            // Backpressure: der Abnehmer fordert nichts an → der Operator hört auf
+            // anzufordern, die Quelle verwirft (offer), statt unbegrenzt zu puffern
+            ExecutorService executor = Executors.newCachedThreadPool();
+            try {
+                SubmissionPublisher<Geometry> fast = new SubmissionPublisher<>(executor, 4);
+                GeometryFlow.Operator<Geometry> slow = GeometryFlow.filterByVolume(0, Double.MAX_VALUE, executor, 4);
+                fast.subscribe(slow);
+                AtomicReference<Flow.Subscription> stalled = new AtomicReference<>();
+                AtomicInteger received = new AtomicInteger();
+                CompletableFuture<Void> slowDone = new CompletableFuture<>();
+                slow.subscribe(new Flow.Subscriber<Geometry>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        stalled.set(subscription); // vorerst keine Nachfrage
+                    }
+
+                    @Override
+                    public void onNext(Geometry item) {
+                        received.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        slowDone.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        slowDone.complete(null);
+                    }
+                });
+                int accepted = 0;
+                int dropped = 0;
+                for (int i = 0; i < 200; i++) {
+                    if (fast.offer(new Point2D(i, i), 1, TimeUnit.MILLISECONDS, null) >= 0) {
+                        accepted++;
+                    } else {
+                        dropped++;
+                    }
+                }
+                // Alles, was nicht verworfen wurde, steckt in begrenzten Puffern:
+                // Quellpuffer + ein Element im blockierten submit() des Operators + Operatorpuffer
+                int bound = fast.getMaxBufferCapacity() + 1 + slow.getMaxBufferCapacity();
+                assert received.get() == 0 : "Nothing should be delivered without demand";
+                assert dropped > 0 && accepted <= bound
+                    : "Demand should stop: " + accepted + " accepted, bound " + bound;
+
+                // Nachfrage freigeben → alle angenommenen Elemente kommen an
+                stalled.get().request(Long.MAX_VALUE);
+                fast.close();
+                slowDone.get(10, TimeUnit.SECONDS);
+                assert received.get() == accepted : "Accepted elements should be delivered after release";
+                System.out.println("  Backpressure: " + accepted + " accepted, " + dropped + " dropped");
+            } finally {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new RuntimeException(e);
+        }
+        
+        System.out.println("  ✓ GeometryFlow tests passed\n");
+    }
+
+    /**
+     * Testet SlidingExtent gegen encapsulate über das jeweilige Fenster.
+     * 
+     * GETESTET:
+     * - Zufällige Ereignisse (auch gleiche Zeitstempel, Lücken), Vergleich mit Brute-Force
+     * - Spalten-Eingabe, leeres Fenster, fallende Zeitstempel
+     */
+    @Test
+    private static void testSlidingExtent() {
+        System.out.println("Testing SlidingExtent...");
+        
+        Random random = new Random(37);
+        SlidingExtent extent = new SlidingExtent(100);
+        List<Long> times = new ArrayList<>();
+        List<Geometry> events = new ArrayList<>();
+        long now = 0;
+        for (int i = 0; i < 5000; i++) {
+            now += random.nextInt(4) == 0 ? 0 : random.nextInt(i % 1000 < 900 ? 3 : 60);
+            Geometry g = random.nextBoolean()
+                ? new Point(new double[] {random.nextGaussian(), random.nextGaussian(), random.nextGaussian()})
+                : new Volume(new Point(-random.nextDouble(), -random.nextDouble(), -random.nextDouble()),
+                             new Point(random.nextDouble(), random.nextDouble(), random.nextDouble()));
+            extent.add(now, g);
+            times.add(now);
+            events.add(g);
+            
+            if (i % 7 == 0) {
+                Geometry expected = null;
+                int inWindow = 0;
+                for (int j = 0; j < events.size(); j++) {
+                    if (times.get(j) > now - 100) {
+                        expected = expected == null ? events.get(j).encapsulate(events.get(j))
+                            : expected.encapsulate(events.get(j));
+                        inWindow++;
+                    }
+                }
+                assert expected.equals(extent.snapshot(now)) : "Snapshot differs at event " + i;
+                assert extent.size() == inWindow : "Wrong window size at event " + i;
+            }
+        }
+        assert extent.snapshot(now + 100) == null : "Window should be empty";
+        assert extent.size() == 0 : "Size should be 0";
+        
+        // Spalten-Eingabe → Rectangle
+        double[][] columns = {{0, 5, 2}, {0, 5, -1}};
+        SlidingExtent planar = new SlidingExtent(10);
+        for (int row = 0; row < 3; row++) {
+            planar.add(row * 5L, columns, row);
+        }
+        assert planar.snapshot(10).equals(new Rectangle(new Point2D(2, -1), new Point2D(5, 5)))
+            : "Wrong planar snapshot";
+        
+        boolean failed = false;
+        try {
+            planar.add(3, new Point2D(0, 0));
+        } catch (RuntimeException e) {
+            failed = true;
+        }
+        assert failed : "Decreasing timestamps should fail";
+        
+        System.out.println("  ✓ SlidingExtent tests passed\n");
+    }
+
+    /**
+     * Testet DensityHistogram gegen direktes Zählen.
+     * 
+     * GETESTET:
+     * - Sequentiell, parallel und pro Punkt liefern dieselben Zählerstände
+     * - Randpunkte (obere Grenze), Punkte außerhalb, merge(), cellBounds()
+     */
+    @Test
+    private static void testDensityHistogram() {
+        System.out.println("Testing DensityHistogram...");
+        
+        Random random = new Random(38);
+        Rectangle region = new Rectangle(new Point2D(-1, -1), new Point2D(1, 1));
+        int n = 200_000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextGaussian() * 0.5;
+            ys[i] = random.nextGaussian() * 0.5;
+        }
+        double[][] columns = {xs, ys};
+        
+        DensityHistogram sequential = new DensityHistogram(region, 64, 32);
+        sequential.add(columns);
+        DensityHistogram parallel = new DensityHistogram(region, 64, 32);
+        parallel.parallelAdd(columns, 7);
+        assert Arrays.equals(sequential.counts(), parallel.counts()) : "Parallel counts differ";
+        assert sequential.total() + sequential.outside() == n : "Every point must be counted once";
+        assert parallel.total() == sequential.total() : "Parallel total differs";
+        
+        // Stichprobe: Zelle direkt nachzählen
+        int cell = sequential.index(40, 20);
+        Geometry bounds = sequential.cellBounds(cell);
+        long expected = 0;
+        for (int i = 0; i < n; i++) {
+            if (xs[i] >= Bounds.lower(bounds, 0) && xs[i] < Bounds.upper(bounds, 0)
+                    && ys[i] >= Bounds.lower(bounds, 1) && ys[i] < Bounds.upper(bounds, 1)) {
+                expected++;
+            }
+        }
+        assert sequential.count(40, 20) == expected : "Wrong count in cell (40, 20)";
+        
+        // Inkrementell: zwei Hälften + merge == alles
+        DensityHistogram first = new DensityHistogram(region, 64, 32);
+        DensityHistogram second = new DensityHistogram(region, 64, 32);
+        first.add(columns, 0, n / 2);
+        second.add(columns, n / 2, n);
+        first.merge(second);
+        assert Arrays.equals(first.counts(), sequential.counts()) : "Merged counts differ";
+        
+        // n-D, Randpunkte und Punkte außerhalb
+        DensityHistogram cube = new DensityHistogram(cube(3, 2), 2);
+        cube.add(new Point(2, 2, 2));
+        cube.add(new Point(0, 0, 0));
+        cube.add(new Point(3, 0, 0));
+        cube.add(new Point(Double.NaN, 0, 0));
+        assert cube.count(1, 1, 1) == 1 && cube.count(0, 0, 0) == 1 : "Wrong edge binning";
+        assert cube.total() == 2 && cube.outside() == 2 : "Wrong inside/outside counts";
+        assert cube.cellBounds(cube.index(1, 1, 1)).volume() == 1.0 : "Wrong cell bounds";
+        
+        boolean failed = false;
+        try {
+            first.merge(cube);
+        } catch (RuntimeException e) {
+            failed = true;
+        }
+        assert failed : "Merging different grids should fail";
+        
+        System.out.println("  ✓ DensityHistogram tests passed\n");
+    }
+
+    /**
+     * Testet SweepAndPrune gegen paarweise Prüfung aller Boxen.
+     * 
+     * GETESTET:
+     * - Bewegte Boxen über mehrere Frames (inkrementell), 2D und 3D
+     * - added/removed entsprechen genau der Differenz zweier Frames
+     * - Hinzufügen (auch viele → Neuaufbau) und Entfernen zwischen Frames
+     */
+    @Test
+    private static void testSweepAndPrune() {
+        System.out.println("Testing SweepAndPrune...");
+        
+        Random random = new Random(39);
+        for (int dims = 2; dims <= 3; dims++) {
+            SweepAndPrune sap = new SweepAndPrune();
+            List<Integer> handles = new ArrayList<>();
+            List<double[]> centers = new ArrayList<>();
+            Set<Long> previous = new HashSet<>();
+            for (int frame = 0; frame < 30; frame++) {
+                // Frame 0 und 15: viele neue Boxen (Neuaufbau), sonst einzelne
+                int adds = frame % 15 == 0 ? 200 : random.nextInt(3);
+                for (int i = 0; i < adds; i++) {
+                    double[] c = new double[dims];
+                    for (int axis = 0; axis < dims; axis++) {
+                        c[axis] = random.nextDouble() * 100;
+                    }
+                    centers.add(c);
+                    handles.add(sap.add(box(c, dims)));
+                }
+                if (frame % 4 == 3) {
+                    int victim = random.nextInt(handles.size());
+                    sap.remove(handles.remove(victim));
+                    centers.remove(victim);
+                }
+                // Alle Boxen ein Stück bewegen
+                for (int i = 0; i < handles.size(); i++) {
+                    double[] c = centers.get(i);
+                    for (int axis = 0; axis < dims; axis++) {
+                        c[axis] += random.nextGaussian();
+                    }
+                    sap.update(handles.get(i), box(c, dims));
+                }
+                
+                SweepAndPrune.Frame result = sap.step();
+                Set<Long> expected = new HashSet<>();
+                for (int i = 0; i < handles.size(); i++) {
+                    for (int j = i + 1; j < handles.size(); j++) {
+                        if (boxesOverlap(centers.get(i), centers.get(j))) {
+                            expected.add(SweepAndPrune.pair(handles.get(i), handles.get(j)));
+                        }
+                    }
+                }
+                Set<Long> actual = new HashSet<>();
+                for (long pair : sap.pairs()) {
+                    actual.add(pair);
+                }
+                assert actual.equals(expected) : dims + "D frame " + frame + ": wrong pairs";
+                
+                Set<Long> added = new HashSet<>(expected);
+                added.removeAll(previous);
+                Set<Long> removed = new HashSet<>(previous);
+                removed.removeAll(expected);
+                assert toSet(result.added).equals(added) : dims + "D frame " + frame + ": wrong added pairs";
+                assert toSet(result.removed).equals(removed) : dims + "D frame " + frame + ": wrong removed pairs";
+                assert result.added.length == added.size() : "Added pairs must be unique";
+                assert sap.size() == handles.size() : "Wrong size";
+                previous = expected;
+            }
+            System.out.println("  " + dims + "D: " + sap.size() + " boxes, " + sap.pairCount() + " pairs");
+        }
+        
+        System.out.println("  ✓ SweepAndPrune tests passed\n");
+    }
+    
+    /**
+     * Box der Kantenlänge 6 um den Mittelpunkt c.
+     */
+    private static Geometry box(double[] c, int dims) {
+        double[] lo = new double[dims];
+        double[] hi = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            lo[axis] = c[axis] - 3;
+            hi[axis] = c[axis] + 3;
+        }
+        return Bounds.box(lo, hi, dims == 2);
+    }
+    
+    private static boolean boxesOverlap(double[] a, double[] b) {
+        for (int axis = 0; axis < a.length; axis++) {
+            if (Math.abs(a[axis] - b[axis]) > 6) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static Set<Long> toSet(long[] values) {
+        Set<Long> set = new HashSet<>();
+        for (long value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    /**
+     * Testet WindowQueryCache vor einem RegionTree.
+     * 
+     * GETESTET:
+     * - Treffer/Fehltreffer, gleichwertige Fenster teilen einen Eintrag
+     * - Aggregate count, bounds, volumeSum gleich dem Baum
+     * - Invalidierung nur für berührte Fenster, LRU-Verdrängung
+     */
+    @Test
+    private static void testWindowQueryCache() {
+        System.out.println("Testing WindowQueryCache...");
+        
+        Random random = new Random(40);
+        RegionTree tree = new RegionTree(new Rectangle(new Point2D(0, 0), new Point2D(100, 100)));
+        for (int i = 0; i < 2000; i++) {
+            tree.insert(new Point2D(random.nextDouble() * 100, random.nextDouble() * 100));
+        }
+        WindowQueryCache cache = new WindowQueryCache(tree, 3);
+        Rectangle left = new Rectangle(new Point2D(0, 0), new Point2D(50, 100));
+        Rectangle right = new Rectangle(new Point2D(60, 0), new Point2D(100, 100));
+        
+        assert cache.count(left) == tree.count(left) : "Count differs from the tree";
+        assert cache.rangeQuery(new Rectangle(new Point2D(-0.0, 0), new Point2D(50, 100))).size() == tree.count(left)
+            : "Equivalent window should hit";
+        WindowQueryCache.Stats stats = cache.stats();
+        assert stats.misses == 1 && stats.hits == 1 : "Expected 1 miss and 1 hit: " + stats;
+        
+        Geometry expectedBounds = null;
+        for (Geometry g : tree.rangeQuery(left)) {
+            expectedBounds = expectedBounds == null ? g.encapsulate(g) : expectedBounds.encapsulate(g);
+        }
+        assert cache.bounds(left).equals(expectedBounds) : "Bounds differ from encapsulate";
+        assert cache.volumeSum(left) == 0.0 : "Points have no volume";
+        
+        // Schreibzugriff links verwirft nur das linke Fenster
+        cache.count(right);
+        cache.insert(new Point2D(10, 10));
+        assert cache.count(left) == tree.count(left) : "Stale count after insert";
+        long misses = cache.stats().misses;
+        cache.count(right);
+        assert cache.stats().misses == misses : "Right window should still be cached";
+        assert cache.remove(new Point2D(10, 10)) : "Point should be removed";
+        assert cache.count(left) == tree.count(left) : "Stale count after remove";
+        
+        // LRU: viertes Fenster verdrängt das am längsten nicht benutzte
+        for (int i = 0; i < 4; i++) {
+            cache.count(new Rectangle(new Point2D(i, i), new Point2D(i + 10, i + 10)));
+        }
+        stats = cache.stats();
+        assert stats.entries == 3 : "Cache should be bounded";
+        assert stats.evictions > 0 && stats.invalidations == 2 : "Unexpected stats: " + stats;
+        System.out.println("  " + stats);
+        
+        System.out.println("  ✓ WindowQueryCache tests passed\n");
+    }
+
+    /**
+     * Testet IndexSnapshot: Schreiben, Öffnen per Memory Mapping, Anfragen.
+     * 
+     * GETESTET:
+     * - count/query/rangeQuery gleich dem RegionTree (2D und 3D)
+     * - bounds() gleich RegionTree.bounds(), leerer Baum
+     * - open() prüft nur den Header, beschädigte Knoten/Punkte erkennen
+     *   verify() und open(file, true)
+     * - Beschädigter Header wird schon von open() erkannt
+     * - Fehlgeschlagenes Schreiben löscht die temporäre Datei
+     */
+    @Test
+    private static void testIndexSnapshot() {
+        System.out.println("Testing IndexSnapshot...");
+        
+        Random random = new Random(41);
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory("snapshot");
+            for (int dims = 2; dims <= 3; dims++) {
+                RegionTree tree = new RegionTree(dims == 2
+                    ? new Rectangle(new Point2D(0, 0), new Point2D(100, 100)) : cube(3, 100), 8);
+                for (int i = 0; i < 5000; i++) {
+                    double[] c = new double[dims];
+                    for (int axis = 0; axis < dims; axis++) {
+                        c[axis] = random.nextDouble() * 100;
+                    }
+                    tree.insert(dims == 2 ? new Point2D(c[0], c[1]) : new Point(c));
+                }
+                Path file = dir.resolve("tree" + dims + ".snap");
+                IndexSnapshot.write(tree, file);
+                
+                long start = System.nanoTime();
+                IndexSnapshot snapshot = IndexSnapshot.open(file);
+                long micros = (System.nanoTime() - start) / 1000;
+                assert snapshot.size() == tree.size() : "Wrong point count";
+                snapshot.verify();
+                assert snapshot.bounds().equals(tree.bounds()) : "Wrong bounds";
+                
+                int[] hits = new int[5000];
+                for (int q = 0; q < 50; q++) {
+                    double[] qMin = new double[dims];
+                    double[] qMax = new double[dims];
+                    for (int axis = 0; axis < dims; axis++) {
+                        qMin[axis] = random.nextDouble() * 80;
+                        qMax[axis] = qMin[axis] + random.nextDouble() * 40;
+                    }
+                    Geometry window = Bounds.box(qMin, qMax, dims == 2);
+                    int expected = tree.count(window);
+                    assert snapshot.count(qMin, qMax) == expected : "Count differs from the tree";
+                    int found = snapshot.query(qMin, qMax, hits);
+                    assert found == expected : "Query differs from the tree";
+                    for (int i = 0; i < found; i++) {
+                        for (int axis = 0; axis < dims; axis++) {
+                            double c = snapshot.coordinate(hits[i], axis);
+                            assert c >= qMin[axis] && c <= qMax[axis] : "Hit lies outside the window";
+                        }
+                    }
+                    assert new HashSet<>(snapshot.rangeQuery(window)).equals(new HashSet<>(tree.rangeQuery(window)))
+                        : "rangeQuery differs from the tree";
+                }
+                System.out.println("  " + dims + "D: " + snapshot.nodeCount() + " nodes, "
+                    + Files.size(file) + " bytes, opened in " + micros + " us");
+            }
+            
+            // Leerer Baum
+            Path empty = dir.resolve("empty.snap");
+            IndexSnapshot.write(new RegionTree(new Rectangle(new Point2D(0, 0), new Point2D(1, 1))), empty);
+            IndexSnapshot none = IndexSnapshot.open(empty);
+            assert none.size() == 0 && none.bounds() == null : "Empty snapshot should be empty";
+            assert none.count(new Rectangle(new Point2D(0, 0), new Point2D(1, 1))) == 0 : "Empty count should be 0";
+            
+            // Ein Bit in den Punkten bzw. im ersten Knoten kippen → open() merkt es
+            // nicht (liest die Daten nicht), verify() und open(file, true) schon
+            Path file = dir.resolve("tree2.snap");
+            byte[] intactBytes = Files.readAllBytes(file);
+            for (int position : new int[] {intactBytes.length - 3, 64 + 3}) {
+                byte[] bytes = intactBytes.clone();
+                bytes[position] ^= 1;
+                Path target = dir.resolve("flipped.snap");
+                Files.write(target, bytes);
+                IndexSnapshot lazy = IndexSnapshot.open(target);
+                boolean failed = false;
+                try {
+                    lazy.verify();
+                } catch (RuntimeException e) {
+                    failed = true;
+                }
+                assert failed : "verify() should detect the flipped bit at " + position;
+                failed = false;
+                try {
+                    IndexSnapshot.open(target, true);
+                } catch (RuntimeException e) {
+                    failed = true;
+                }
+                assert failed : "open(file, true) should detect the flipped bit at " + position;
+            }
+            
+            // Header hat eine eigene Prüfsumme: Knotenzahl 0 bzw. +1, falscher
+            // Knoten-Offset und falsche Punkte-Prüfsumme
+            Path intact = dir.resolve("tree3.snap");
+            byte[] header = Files.readAllBytes(intact);
+            for (int[] patch : new int[][] {{16, 0}, {16, header[16] + 1}, {24, 72}, {48, header[48] ^ 1}}) {
+                byte[] corrupt = header.clone();
+                corrupt[patch[0]] = (byte) patch[1];
+                Path target = dir.resolve("header.snap");
+                Files.write(target, corrupt);
+                try {
+                    IndexSnapshot.open(target);
+                    assert false : "Corrupted header at byte " + patch[0] + " should be rejected";
+                } catch (RuntimeException e) {
+                    // erwartet
+                }
+            }
+            
+            // Fehlgeschlagenes Schreiben hinterlässt keine temporäre Datei
+            Path blocked = dir.resolve("blocked.snap");
+            Files.createDirectory(blocked);
+            Files.createFile(blocked.resolve("keep"));
+            try {
+                IndexSnapshot.write(new RegionTree(new Rectangle(new Point2D(0, 0), new Point2D(1, 1))), blocked);
+                assert false : "Replacing a non-empty directory should fail";
+            } catch (IOException e) {
+                assert !Files.exists(dir.resolve("blocked.snap.tmp")) : "Temporary file should be deleted";
+            } finally {
+                Files.delete(blocked.resolve("keep"));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (dir != null) {
+                for (File f : dir.toFile().listFiles()) {
+                    f.delete();
+                }
+                dir.toFile().delete();
+            }
+        }
+        
+        System.out.println("  ✓ IndexSnapshot tests passed\n");
+    }
+
+    /**
+     * Testet PointStreamWriter/PointStreamReader.
+     * 
+     * GETESTET:
+     * - Verlustfreie XOR-Kodierung (auch NaN, -0.0, Unendlich, gleiche Werte)
+     * - Kompression einer glatten Trajektorie
+     * - Footer-Bounds, übersprungene Blöcke, count/rangeQuery gegen Brute-Force
+     * - Beschädigte Header-, Trailer- und Footer-Felder werden von open() abgewiesen
+     */
+    @Test
+    private static void testPointStream() {
+        System.out.println("Testing PointStream...");
+        
+        Random random = new Random(42);
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory("points");
+            
+            // 2D-Trajektorie: kleine Schritte, auf 1e-3 gerundet
+            int n = 100_000;
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int i = 1; i < n; i++) {
+                xs[i] = Math.round((xs[i - 1] + random.nextGaussian()) * 1000) / 1000.0;
+                ys[i] = Math.round((ys[i - 1] + random.nextGaussian()) * 1000) / 1000.0;
+            }
+            double[][] columns = {xs, ys};
+            Path file = dir.resolve("track.gpst");
+            try (PointStreamWriter out = new PointStreamWriter(file, 2, true, 1000)) {
+                for (int row = 0; row < n; row++) {
+                    out.add(columns, row);
+                }
+            }
+            long raw = 16L * n;
+            System.out.println("  2D: " + Files.size(file) + " bytes (raw " + raw + ")");
+            assert Files.size(file) < raw : "Trajectory should compress";
+            
+            try (PointStreamReader in = PointStreamReader.open(file)) {
+                assert in.size() == n && in.blockCount() == 100 : "Wrong size or block count";
+                for (int b = 0; b < in.blockCount(); b++) {
+                    double[][] block = in.readBlock(b);
+                    for (int row = 0; row < block[0].length; row++) {
+                        assert block[0][row] == xs[b * 1000 + row] && block[1][row] == ys[b * 1000 + row]
+                            : "Decoded value differs";
+                    }
+                }
+                Geometry expectedBounds = null;
+                for (int row = 0; row < n; row++) {
+                    Point2D p = new Point2D(xs[row], ys[row]);
+                    expectedBounds = expectedBounds == null ? p.encapsulate(p) : expectedBounds.encapsulate(p);
+                }
+                assert in.bounds().equals(expectedBounds) : "Footer bounds differ";
+                
+                Rectangle window = new Rectangle(new Point2D(xs[5000] - 20, ys[5000] - 20),
+                                                 new Point2D(xs[5000] + 20, ys[5000] + 20));
+                long expected = 0;
+                for (int row = 0; row < n; row++) {
+                    if (Bounds.intersects(new Point2D(xs[row], ys[row]), new double[] {xs[5000] - 20, ys[5000] - 20},
+                                          new double[] {xs[5000] + 20, ys[5000] + 20})) {
+                        expected++;
+                    }
+                }
+                assert in.count(window) == expected : "Count differs";
+                assert in.rangeQuery(window).size() == expected : "rangeQuery differs";
+                assert in.blocksIntersecting(window).length < in.blockCount() : "Some blocks should be skipped";
+                System.out.println("  window touches " + in.blocksIntersecting(window).length
+                    + " of " + in.blockCount() + " blocks");
+            }
+            
+            // 3D mit Sonderwerten, Teilblock am Ende
+            double[][] special = {
+                {0.0, -0.0, Double.NaN, 1.5, 1.5, Double.POSITIVE_INFINITY, -1e-300},
+                {1, 2, 3, 4, 5, 6, 7},
+                {Double.MIN_VALUE, Double.MAX_VALUE, 0, 0, 0, 0, -Double.MAX_VALUE}
+            };
+            Path other = dir.resolve("special.gpst");
+            try (PointStreamWriter out = new PointStreamWriter(other, 3, false, 3)) {
+                for (int row = 0; row < 7; row++) {
+                    out.add(new Point(special[0][row], special[1][row], special[2][row]));
+                }
+            }
+            try (PointStreamReader in = PointStreamReader.open(other)) {
+                assert in.blockCount() == 3 && in.blockSize(2) == 1 : "Wrong blocks";
+                for (int b = 0; b < 3; b++) {
+                    double[][] block = in.readBlock(b);
+                    for (int axis = 0; axis < 3; axis++) {
+                        for (int row = 0; row < block[axis].length; row++) {
+                            assert Double.doubleToRawLongBits(block[axis][row])
+                                == Double.doubleToRawLongBits(special[axis][b * 3 + row]) : "Not lossless";
+                        }
+                    }
+                }
+                // Block mit NaN wird dekodiert statt ganz gezählt (sonst 5)
+                assert in.count(cube(3, Double.MAX_VALUE)) == 4 : "Wrong count with NaN block";
+            }
+            
+            // Beschädigte Felder: {Position, Wert, Breite in Bytes}
+            byte[] intact = Files.readAllBytes(other);
+            int trailer = intact.length - 16;
+            int footerOffset = (int) ByteBuffer.wrap(intact).getLong(trailer);
+            long[][] patches = {
+                {8, 0, 4},                              // dims = 0
+                {8, -1, 4},                             // dims negativ
+                {12, 1, 4},                             // planar, aber 3D
+                {trailer + 8, -1, 4},                   // blocks negativ
+                {trailer + 8, 1 << 27, 4},              // blocks * entryBytes läuft in int über
+                {footerOffset, footerOffset, 8},        // Block 0 beginnt im Footer
+                {footerOffset, -8, 8},                  // Block 0 vor dem Header
+                {footerOffset + 12, 1 << 20, 4},        // Block 0 reicht in den Footer
+                {footerOffset + 12, -1, 4},             // negative Blocklänge
+                {footerOffset + 8, -1, 4},              // negative Punktzahl
+                {footerOffset + 8, 1 << 20, 4}          // mehr Punkte als Bits im Block
+            };
+            for (long[] patch : patches) {
+                ByteBuffer corrupt = ByteBuffer.wrap(intact.clone());
+                if (patch[2] == 8) {
+                    corrupt.putLong((int) patch[0], patch[1]);
+                } else {
+                    corrupt.putInt((int) patch[0], (int) patch[1]);
+                }
+                Path target = dir.resolve("corrupt.gpst");
+                Files.write(target, corrupt.array());
+                try (PointStreamReader in = PointStreamReader.open(target)) {
+                    assert false : "Corrupted field at byte " + patch[0] + " should be rejected, "
+                        + in.blockCount() + " blocks";
+                } catch (RuntimeException e) {
+                    assert e.getMessage().startsWith("Corrupted") : "Wrong error at byte " + patch[0] + ": " + e;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (dir != null) {
+                for (File f : dir.toFile().listFiles()) {
+                    f.delete();
+                }
+                dir.toFile().delete();
+            }
+        }
+        
+        System.out.println("  ✓ PointStream tests passed\n");
+    }
+
+    /**
+     * Testet Dbscan.
+     * 
+     * GETESTET:
+     * - Kernpunkte, Cluster und Rauschen gleich dem naiven DBSCAN (O(n²))
+     * - Labels unabhängig von der Parallelität (Pool mit 1 und mit 8 Threads)
+     * - Rand zählt zur Nachbarschaft, 3D liefert Volume, NaN ist Rauschen
+     * - -0.0 und 0.0 liegen in derselben Zelle
+     * - Ungültige Parameter und gemischte Punkte werfen eine Exception
+     * - 500 000 Punkte in 2500 Blobs: ein Cluster pro Blob
+     */
+    @Test
+    private static void testDbscan() {
+        System.out.println("Testing Dbscan...");
+        
+        Random random = new Random(42);
+        
+        // Vergleich mit naivem DBSCAN (O(n²)) auf kleinen Daten
+        int n = 3000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            int blob = i % 4;
+            double spread = blob == 3 ? 40 : 2;
+            xs[i] = blob * 15 + random.nextGaussian() * spread;
+            ys[i] = (blob % 2) * 10 + random.nextGaussian() * spread;
+        }
+        double eps = 0.8;
+        int minPoints = 6;
+        Dbscan.Result result = new Dbscan(eps, minPoints).cluster(new double[][] {xs, ys}, true);
+        
+        boolean[] core = new boolean[n];
+        for (int p = 0; p < n; p++) {
+            int found = 0;
+            for (int q = 0; q < n; q++) {
+                if (Math.hypot(xs[p] - xs[q], ys[p] - ys[q]) <= eps) {
+                    found++;
+                }
+            }
+            core[p] = found >= minPoints;
+            assert result.isCore(p) == core[p] : "Core flag differs at " + p;
+        }
+        for (int p = 0; p < n; p++) {
+            boolean border = false;
+            for (int q = 0; q < n; q++) {
+                if (Math.hypot(xs[p] - xs[q], ys[p] - ys[q]) > eps || !core[q]) {
+                    continue;
+                }
+                border = true;
+                if (core[p]) {
+                    assert result.label(p) == result.label(q) : "Neighbouring core points split";
+                }
+            }
+            // Randpunkte gehören zum Cluster eines Kernpunktes in Reichweite
+            assert (result.label(p) == Dbscan.NOISE) == !border : "Noise differs at " + p;
+        }
+        int total = result.noiseCount;
+        for (int c = 0; c < result.clusterCount; c++) {
+            total += result.size(c);
+            Geometry expected = null;
+            for (int row : result.members(c)) {
+                Point2D point = new Point2D(xs[row], ys[row]);
+                expected = expected == null ? point.encapsulate(point) : expected.encapsulate(point);
+            }
+            assert result.bounds(c) instanceof Rectangle && result.bounds(c).equals(expected) : "Wrong bounds";
+        }
+        assert total == n : "Sizes do not add up";
+        assert result.clusterCount >= 3 : "Dense blobs should form clusters";
+        System.out.println("  " + result);
+        
+        // Unabhängig von der Parallelität: parallele Streams laufen im Pool des
+        // aufrufenden Tasks → 1 und 8 Threads müssen dieselben Labels liefern
+        int[] parallelism = {1, 8};
+        int[][] labels = new int[parallelism.length][];
+        for (int i = 0; i < parallelism.length; i++) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism[i]);
+            try {
+                labels[i] = pool.submit(
+                    () -> new Dbscan(eps, minPoints).cluster(new double[][] {xs, ys}, true).labels()).join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+        assert Arrays.equals(labels[0], labels[1]) : "Labels depend on the number of threads";
+        assert Arrays.equals(labels[0], result.labels()) : "Labels differ from the common pool";
+        
+        // Kette: jeder Punkt genau eps vom nächsten → ein Cluster (Rand zählt dazu)
+        List<Geometry> chain = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            chain.add(new Point2D(i * 0.5, 0));
+        }
+        Dbscan.Result line = new Dbscan(0.5, 3).cluster(chain);
+        assert line.clusterCount == 1 && line.noiseCount == 0 : "Chain should be one cluster";
+        assert !line.isCore(0) && line.isCore(1) : "Ends are border points";
+        assert line.bounds(0).equals(new Rectangle(new Point2D(0, 0), new Point2D(4.5, 0))) : "Wrong chain bounds";
+        
+        // 3D → Volume, NaN ist Rauschen
+        List<Geometry> points3d = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            points3d.add(new Point(i % 2 * 0.1, i / 2 * 0.1, -1));
+        }
+        points3d.add(new Point(Double.NaN, 0, -1));
+        points3d.add(new Point(100, 100, 100));
+        Dbscan.Result r3 = new Dbscan(0.2, 3).cluster(points3d);
+        assert r3.clusterCount == 1 && r3.noiseCount == 2 : "Wrong 3D result";
+        assert r3.label(20) == Dbscan.NOISE && r3.label(21) == Dbscan.NOISE : "NaN and outlier are noise";
+        assert r3.bounds(0).equals(new Volume(new Point(0, 0, -1), new Point(0.1, 0.9, -1))) : "Wrong 3D bounds";
+        
+        // -0.0 und 0.0 liegen in derselben Zelle
+        Dbscan.Result zeros = new Dbscan(1, 2).cluster(List.of(new Point2D(-0.0, 0), new Point2D(0, 0)));
+        assert zeros.clusterCount == 1 && zeros.noiseCount == 0 : "-0.0 and 0.0 should form one cluster";
+        
+        assert new Dbscan(1, 1).cluster(new ArrayList<Geometry>()).clusterCount == 0 : "Empty input";
+        try {
+            new Dbscan(0, 3);
+            assert false : "eps 0 should throw";
+        } catch (RuntimeException e) {
+            // erwartet
+        }
+        try {
+            new Dbscan(1, 3).cluster(List.of(new Point2D(0, 0), new Point(0, 0, 0)));
+            assert false : "Mixed points should throw";
+        } catch (RuntimeException e) {
+            // erwartet
+        }
+        
+        // Größere Menge
+        int big = 500_000;
+        double[] bx = new double[big];
+        double[] by = new double[big];
+        for (int i = 0; i < big; i++) {
+            bx[i] = (i % 50) * 20 + random.nextGaussian();
+            by[i] = (i / 50 % 50) * 20 + random.nextGaussian();
+        }
+        long start = System.nanoTime();
+        Dbscan.Result large = new Dbscan(1.0, 10).cluster(new double[][] {bx, by}, true);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("  " + big + " points: " + large + " in " + millis + " ms");
+        assert large.clusterCount == 2500 : "Expected one cluster per blob";
+        
+        System.out.println("  ✓ Dbscan tests passed");
+    }
 }
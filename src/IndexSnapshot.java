@@ -0,0 +1,573 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only snapshot of a {@link RegionTree} in a flat, memory-mapped file.
+ *
+ * ZWECK:
+ * - Beim Neustart den Index nicht Punkt für Punkt neu aufbauen
+ * - open() bildet die Datei nur in den Speicher ab und prüft den Header
+ *   → Millisekunden unabhängig von der Dateigröße, Anfragen lesen direkt
+ *   aus der Abbildung (keine Objekte pro Knoten/Punkt)
+ * - verify() bzw. open(file, true) prüft zusätzlich Knoten und Punkte;
+ *   das liest jede Seite der Datei (Aufwand proportional zur Dateigröße)
+ *
+ * DATEIFORMAT (little endian):
+ * [Header, 64 Bytes]
+ *   int  MAGIC ("GSNP")      int  VERSION
+ *   int  dims                int  flags (Bit 0: planar)
+ *   int  nodeCount           int  pointCount
+ *   long nodesOffset         long pointsOffset
+ *   long crc32 der Knoten    long crc32 der Punkte
+ *   long crc32 des Headers (Bytes 0 bis 55, also inklusive beider Prüfsummen)
+ * [Knoten, je 16 * dims + 16 Bytes]
+ *   double min[dims], max[dims]   → enge Bounds der Punkte im Teilbaum
+ *   int firstChild, childCount    → Kinder liegen hintereinander
+ *   int firstPoint, pointCount    → Punkte des Teilbaums liegen hintereinander
+ * [Punkte, je 8 * dims Bytes]
+ *   double coords[dims] in Tiefensuch-Reihenfolge
+ *
+ * Leere Teilbäume werden nicht gespeichert. Knoten 0 ist die Wurzel.
+ *
+ * GRENZE: Eine Abbildung umfasst höchstens 2 GB.
+ *
+ * BEISPIEL:
+ * IndexSnapshot.write(tree, Path.of("index.snap"));
+ * IndexSnapshot snapshot = IndexSnapshot.open(Path.of("index.snap"));
+ * int n = snapshot.count(qMin, qMax);
+ */
+public class IndexSnapshot {
+
+    private static final int MAGIC = 0x47534E50;
+
+    /**
+     * Formatversion, bei inkompatiblen Änderungen erhöhen.
+     */
+    public static final int VERSION = 3;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int NODES_CRC_OFFSET = 40;
+    private static final int POINTS_CRC_OFFSET = 48;
+    private static final int HEADER_CRC_OFFSET = 56;
+
+    private final MappedByteBuffer buffer;
+    private final int dims;
+    private final boolean planar;
+    private final int nodeCount;
+    private final int pointCount;
+    private final int nodesOffset;
+    private final int pointsOffset;
+    private final int recordBytes;
+
+    /**
+     * Liest den Header; open() hat ihn bereits geprüft.
+     */
+    private IndexSnapshot(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.dims = buffer.getInt(8);
+        this.planar = (buffer.getInt(12) & 1) != 0;
+        this.nodeCount = buffer.getInt(16);
+        this.pointCount = buffer.getInt(20);
+        this.nodesOffset = (int) buffer.getLong(24);
+        this.pointsOffset = (int) buffer.getLong(32);
+        this.recordBytes = 16 * dims + 16;
+    }
+
+    /**
+     * Schreibt einen Snapshot des Baums.
+     *
+     * ABLAUF:
+     * 1. Aktuellen Stand des Baums nehmen, Knoten und Punkte zählen → Dateigröße
+     * 2. Temporäre Datei abbilden und per Tiefensuche füllen
+     * 3. Prüfsummen eintragen, auf die Platte zwingen, Datei umbenennen
+     *    → ein abgebrochener Schreibvorgang hinterlässt keinen halben Snapshot,
+     *      bei einem Fehler wird die temporäre Datei gelöscht
+     *
+     * @param tree der Baum
+     * @param file Zieldatei (wird ersetzt)
+     * @throws IOException bei Schreibfehlern
+     * @throws RuntimeException if the snapshot would exceed 2 GB
+     */
+    public static void write(RegionTree tree, Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        int dims = tree.dimensions();
+        // Unveränderlicher Stand: Schreiber arbeiten währenddessen auf Kopien
+        RegionTree.Node root = tree.root();
+        int nodes = countNodes(root);
+        int points = root.size;
+        long nodesOffset = HEADER_BYTES;
+        long pointsOffset = nodesOffset + (long) nodes * (16 * dims + 16);
+        long size = pointsOffset + (long) points * dims * 8;
+        if (size > Integer.MAX_VALUE) {
+            throw new RuntimeException("Snapshot too large: " + size + " bytes");
+        }
+
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, dims);
+                buffer.putInt(12, tree.isPlanar() ? 1 : 0);
+                buffer.putInt(16, nodes);
+                buffer.putInt(20, points);
+                buffer.putLong(24, nodesOffset);
+                buffer.putLong(32, pointsOffset);
+
+                if (nodes > 0) {
+                    new Writer(buffer, dims, (int) pointsOffset).fill(root, 0);
+                }
+                // Header-Prüfsumme zuletzt: sie deckt die beiden anderen mit ab
+                int pointsAt = (int) pointsOffset;
+                buffer.putLong(NODES_CRC_OFFSET, checksum(buffer, HEADER_BYTES, pointsAt - HEADER_BYTES));
+                buffer.putLong(POINTS_CRC_OFFSET, checksum(buffer, pointsAt, (int) size - pointsAt));
+                buffer.putLong(HEADER_CRC_OFFSET, checksum(buffer, 0, HEADER_CRC_OFFSET));
+                buffer.force();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Öffnet einen Snapshot (Abbildung in den Speicher, nur der Header wird
+     * geprüft). Knoten und Punkte prüft {@link #verify()}.
+     *
+     * @param file Snapshot-Datei
+     * @return Snapshot
+     * @throws IOException bei Lesefehlern
+     * @throws RuntimeException if the file is not a snapshot, has another
+     *                          version, the header checksum does not match or
+     *                          the header does not fit the file
+     */
+    public static IndexSnapshot open(Path file) throws IOException {
+        return open(file, false);
+    }
+
+    /**
+     * Öffnet einen Snapshot und prüft auf Wunsch sofort alle Prüfsummen.
+     *
+     * @param file   Snapshot-Datei
+     * @param verify true: auch Knoten und Punkte prüfen (liest die ganze Datei)
+     * @return Snapshot
+     * @throws IOException bei Lesefehlern
+     * @throws RuntimeException if the file is not a snapshot, has another
+     *                          version, a checksum does not match or the
+     *                          header does not fit the file
+     */
+    public static IndexSnapshot open(Path file, boolean verify) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new RuntimeException("Not a snapshot: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new RuntimeException("Not a snapshot: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new RuntimeException("Unsupported snapshot version " + buffer.getInt(4));
+        }
+        if (buffer.getLong(HEADER_CRC_OFFSET) != checksum(buffer, 0, HEADER_CRC_OFFSET)) {
+            throw new RuntimeException("Snapshot header checksum mismatch: " + file);
+        }
+
+        // Aufbau prüfen: alle Zugriffe rechnen mit diesen Werten ohne weitere Prüfung
+        long dims = buffer.getInt(8);
+        long nodes = buffer.getInt(16);
+        long points = buffer.getInt(20);
+        long nodesOffset = buffer.getLong(24);
+        long pointsOffset = buffer.getLong(32);
+        if (dims < 1 || nodes < 0 || points < 0 || (nodes == 0) != (points == 0)
+                || nodesOffset != HEADER_BYTES
+                || pointsOffset != nodesOffset + nodes * (16 * dims + 16)
+                || pointsOffset + points * dims * 8 != buffer.capacity()) {
+            throw new RuntimeException("Snapshot header does not match the file: " + file);
+        }
+        IndexSnapshot snapshot = new IndexSnapshot(buffer);
+        if (verify) {
+            snapshot.verify();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Prüft die Prüfsummen der Knoten und Punkte.
+     *
+     * open() prüft nur den Header, damit das Öffnen nicht von der Dateigröße
+     * abhängt. Bei beschädigten Daten liefern Anfragen ohne verify() falsche
+     * Ergebnisse oder eine IndexOutOfBoundsException.
+     *
+     * @throws RuntimeException if the checksum of the nodes or points does not match
+     */
+    public void verify() {
+        if (buffer.getLong(NODES_CRC_OFFSET) != checksum(buffer, nodesOffset, pointsOffset - nodesOffset)) {
+            throw new RuntimeException("Snapshot node checksum mismatch");
+        }
+        if (buffer.getLong(POINTS_CRC_OFFSET) != checksum(buffer, pointsOffset, buffer.capacity() - pointsOffset)) {
+            throw new RuntimeException("Snapshot point checksum mismatch");
+        }
+    }
+
+    /**
+     * Zählt die Punkte im Anfragebereich [qMin, qMax] (Rand zählt dazu).
+     * Keine Allokation.
+     *
+     * @param qMin untere Ecke je Achse
+     * @param qMax obere Ecke je Achse
+     * @return Anzahl
+     */
+    public int count(double[] qMin, double[] qMax) {
+        return nodeCount == 0 ? 0 : count(0, qMin, qMax);
+    }
+
+    /**
+     * Zählt die Punkte im Anfragebereich.
+     *
+     * @param window Anfragebereich (z.B. Rectangle bzw. Volume)
+     * @return Anzahl
+     */
+    public int count(Geometry window) {
+        double[] qMin = new double[dims];
+        double[] qMax = new double[dims];
+        queryBounds(window, qMin, qMax);
+        return count(qMin, qMax);
+    }
+
+    /**
+     * Schreibt die Indizes aller Punkte im Anfragebereich nach out.
+     * Keine Allokation.
+     *
+     * @param qMin untere Ecke je Achse
+     * @param qMax obere Ecke je Achse
+     * @param out  Zielarray; nur die ersten out.length Treffer werden geschrieben
+     * @return Anzahl aller Treffer (kann größer als out.length sein)
+     */
+    public int query(double[] qMin, double[] qMax, int[] out) {
+        return nodeCount == 0 ? 0 : query(0, qMin, qMax, out, 0);
+    }
+
+    /**
+     * Findet alle Punkte im Anfragebereich (legt Point2D/Point-Objekte an).
+     *
+     * @param window Anfragebereich
+     * @return gefundene Punkte
+     */
+    public List<Geometry> rangeQuery(Geometry window) {
+        double[] qMin = new double[dims];
+        double[] qMax = new double[dims];
+        queryBounds(window, qMin, qMax);
+        int[] hits = new int[count(qMin, qMax)];
+        query(qMin, qMax, hits);
+        List<Geometry> result = new ArrayList<>(hits.length);
+        for (int index : hits) {
+            result.add(point(index));
+        }
+        return result;
+    }
+
+    /**
+     * Gibt eine Koordinate eines Punktes zurück.
+     *
+     * @param index Punktindex (0 .. size()-1)
+     * @param axis  Achse
+     * @return Koordinate
+     */
+    public double coordinate(int index, int axis) {
+        return buffer.getDouble(pointsOffset + (index * dims + axis) * 8);
+    }
+
+    /**
+     * Gibt einen Punkt als Geometrie zurück.
+     *
+     * @param index Punktindex (0 .. size()-1)
+     * @return Point2D bzw. Point
+     */
+    public Geometry point(int index) {
+        if (index < 0 || index >= pointCount) {
+            throw new RuntimeException("Index out of range: " + index);
+        }
+        if (planar) {
+            return new Point2D(coordinate(index, 0), coordinate(index, 1));
+        }
+        double[] c = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            c[axis] = coordinate(index, axis);
+        }
+        return new Point(c);
+    }
+
+    /**
+     * Gibt die Bounds aller Punkte zurück (aus dem Wurzelknoten).
+     *
+     * @return Rectangle bzw. Volume oder <code>null</code>, wenn leer
+     */
+    public Geometry bounds() {
+        if (nodeCount == 0) {
+            return null;
+        }
+        double[] lo = new double[dims];
+        double[] hi = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            lo[axis] = min(0, axis);
+            hi[axis] = max(0, axis);
+        }
+        return Bounds.box(lo, hi, planar);
+    }
+
+    /**
+     * @return Anzahl der Punkte
+     */
+    public int size() {
+        return pointCount;
+    }
+
+    /**
+     * @return Anzahl der gespeicherten Knoten
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return Anzahl der Dimensionen
+     */
+    public int dimensions() {
+        return dims;
+    }
+
+    /**
+     * @return true für Point2D, false für Point
+     */
+    public boolean isPlanar() {
+        return planar;
+    }
+
+    private int count(int node, double[] qMin, double[] qMax) {
+        if (!overlaps(node, qMin, qMax)) {
+            return 0;
+        }
+        int base = nodesOffset + node * recordBytes + 16 * dims;
+        if (contains(node, qMin, qMax)) {
+            return buffer.getInt(base + 12); // ganzer Teilbaum liegt im Anfragebereich
+        }
+        int firstChild = buffer.getInt(base);
+        int childCount = buffer.getInt(base + 4);
+        if (childCount == 0) {
+            int first = buffer.getInt(base + 8);
+            int end = first + buffer.getInt(base + 12);
+            int n = 0;
+            for (int p = first; p < end; p++) {
+                if (inside(p, qMin, qMax)) {
+                    n++;
+                }
+            }
+            return n;
+        }
+        int n = 0;
+        for (int child = firstChild; child < firstChild + childCount; child++) {
+            n += count(child, qMin, qMax);
+        }
+        return n;
+    }
+
+    private int query(int node, double[] qMin, double[] qMax, int[] out, int found) {
+        if (!overlaps(node, qMin, qMax)) {
+            return found;
+        }
+        int base = nodesOffset + node * recordBytes + 16 * dims;
+        int firstChild = buffer.getInt(base);
+        int childCount = buffer.getInt(base + 4);
+        if (childCount == 0 || contains(node, qMin, qMax)) {
+            int first = buffer.getInt(base + 8);
+            int end = first + buffer.getInt(base + 12);
+            boolean all = childCount > 0; // enthaltener Teilbaum: ohne Einzelprüfung
+            for (int p = first; p < end; p++) {
+                if (all || inside(p, qMin, qMax)) {
+                    if (found < out.length) {
+                        out[found] = p;
+                    }
+                    found++;
+                }
+            }
+            return found;
+        }
+        for (int child = firstChild; child < firstChild + childCount; child++) {
+            found = query(child, qMin, qMax, out, found);
+        }
+        return found;
+    }
+
+    private double min(int node, int axis) {
+        return buffer.getDouble(nodesOffset + node * recordBytes + axis * 8);
+    }
+
+    private double max(int node, int axis) {
+        return buffer.getDouble(nodesOffset + node * recordBytes + (dims + axis) * 8);
+    }
+
+    private boolean overlaps(int node, double[] qMin, double[] qMax) {
+        for (int axis = 0; axis < dims; axis++) {
+            if (min(node, axis) > qMax[axis] || max(node, axis) < qMin[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contains(int node, double[] qMin, double[] qMax) {
+        for (int axis = 0; axis < dims; axis++) {
+            if (min(node, axis) < qMin[axis] || max(node, axis) > qMax[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean inside(int point, double[] qMin, double[] qMax) {
+        for (int axis = 0; axis < dims; axis++) {
+            double v = coordinate(point, axis);
+            if (v < qMin[axis] || v > qMax[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void queryBounds(Geometry window, double[] qMin, double[] qMax) {
+        if (window == null || window.dimensions() != dims) {
+            throw new RuntimeException("Geometry has different dimensions");
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            qMin[axis] = Bounds.lower(window, axis);
+            qMax[axis] = Bounds.upper(window, axis);
+        }
+    }
+
+    /**
+     * CRC32 über buffer[offset, offset + length) (direkt aus der Abbildung).
+     */
+    private static long checksum(MappedByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return crc.getValue();
+    }
+
+    /**
+     * Anzahl der nicht leeren Knoten eines Teilbaums.
+     */
+    private static int countNodes(RegionTree.Node node) {
+        if (node.size == 0) {
+            return 0;
+        }
+        int n = 1;
+        if (node.children != null) {
+            for (RegionTree.Node child : node.children) {
+                if (child != null) {
+                    n += countNodes(child);
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Füllt Knoten und Punkte per Tiefensuche.
+     *
+     * REIHENFOLGE:
+     * - Die nicht leeren Kinder eines Knotens bekommen aufeinanderfolgende
+     *   Nummern (ein Block), bevor ihre Teilbäume geschrieben werden
+     * - Punkte werden in Tiefensuch-Reihenfolge nummeriert → die Punkte
+     *   jedes Teilbaums bilden einen zusammenhängenden Bereich
+     */
+    private static final class Writer {
+        private final MappedByteBuffer buffer;
+        private final int dims;
+        private final int recordBytes;
+        private final int pointsOffset;
+        private int nextNode = 1;
+        private int nextPoint;
+
+        Writer(MappedByteBuffer buffer, int dims, int pointsOffset) {
+            this.buffer = buffer;
+            this.dims = dims;
+            this.recordBytes = 16 * dims + 16;
+            this.pointsOffset = pointsOffset;
+        }
+
+        void fill(RegionTree.Node node, int index) {
+            int base = HEADER_BYTES + index * recordBytes;
+            for (int axis = 0; axis < dims; axis++) {
+                buffer.putDouble(base + axis * 8, Double.POSITIVE_INFINITY);
+                buffer.putDouble(base + (dims + axis) * 8, Double.NEGATIVE_INFINITY);
+            }
+            int firstPoint = nextPoint;
+            int firstChild = -1;
+            int childCount = 0;
+
+            if (node.children == null) {
+                for (int i = 0; i < node.count; i++) {
+                    int target = pointsOffset + nextPoint++ * dims * 8;
+                    for (int axis = 0; axis < dims; axis++) {
+                        double v = node.coords[i * dims + axis];
+                        buffer.putDouble(target + axis * 8, v);
+                        extend(base, axis, v, v);
+                    }
+                }
+            } else {
+                for (RegionTree.Node child : node.children) {
+                    if (child != null && child.size > 0) {
+                        childCount++;
+                    }
+                }
+                firstChild = nextNode;
+                nextNode += childCount;
+                int slot = firstChild;
+                for (RegionTree.Node child : node.children) {
+                    if (child != null && child.size > 0) {
+                        fill(child, slot);
+                        int childBase = HEADER_BYTES + slot * recordBytes;
+                        for (int axis = 0; axis < dims; axis++) {
+                            extend(base, axis, buffer.getDouble(childBase + axis * 8),
+                                   buffer.getDouble(childBase + (dims + axis) * 8));
+                        }
+                        slot++;
+                    }
+                }
+            }
+
+            int ints = base + 16 * dims;
+            buffer.putInt(ints, firstChild);
+            buffer.putInt(ints + 4, childCount);
+            buffer.putInt(ints + 8, firstPoint);
+            buffer.putInt(ints + 12, nextPoint - firstPoint);
+        }
+
+        private void extend(int base, int axis, double lo, double hi) {
+            int minAt = base + axis * 8;
+            int maxAt = base + (dims + axis) * 8;
+            buffer.putDouble(minAt, Math.min(buffer.getDouble(minAt), lo));
+            buffer.putDouble(maxAt, Math.max(buffer.getDouble(maxAt), hi));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Sorts index arrays by primitive double keys without boxing.
+ *
+ * ZWECK:
+ * - Arrays.sort kann int[] nur nach dem eigenen Wert sortieren
+ * - Hier werden Indizes nach Schlüsseln in einem double-Array sortiert
+ *
+ * SCHLÜSSEL-LAYOUT:
+ * keys[id * stride + offset + k] für k = 0 .. keyCount-1
+ * → Vergleich lexikographisch über keyCount aufeinanderfolgende Werte
+ *
+ * BEISPIEL (Punkte als x0,y0,x1,y1,... nach x, dann y):
+ * IndexSort.sort(ids, 0, n, xy, 2, 0, 2);
+ *
+ * ALGORITHMUS: Quicksort mit 3-Wege-Partitionierung (viele gleiche
+ * Schlüssel sind billig), Insertion Sort für kleine Bereiche.
+ * Nicht stabil.
+ */
+final class IndexSort {
+
+    /**
+     * Unterhalb dieser Größe wird per Insertion Sort sortiert.
+     */
+    private static final int INSERTION_THRESHOLD = 24;
+
+    /**
+     * Keine Instanzen - nur statische Hilfsmethoden.
+     */
+    private IndexSort() {
+    }
+
+    /**
+     * Sortiert ids[from, to) aufsteigend nach ihren Schlüsseln.
+     *
+     * @param ids      zu sortierende Indizes
+     * @param from     erster Index (inklusive)
+     * @param to       letzter Index (exklusive)
+     * @param keys     Schlüssel
+     * @param stride   Abstand der Schlüssel zweier aufeinanderfolgender ids
+     * @param offset   Position des ersten Schlüssels innerhalb eines Eintrags
+     * @param keyCount Anzahl der Schlüssel (lexikographischer Vergleich)
+     */
+    static void sort(int[] ids, int from, int to, double[] keys, int stride, int offset, int keyCount) {
+        while (to - from > INSERTION_THRESHOLD) {
+            // Median aus drei als Pivot
+            int mid = (from + to) >>> 1;
+            int a = ids[from];
+            int b = ids[mid];
+            int c = ids[to - 1];
+            int pivot;
+            if (compare(keys, stride, offset, keyCount, a, b) < 0) {
+                pivot = compare(keys, stride, offset, keyCount, b, c) < 0 ? b
+                    : compare(keys, stride, offset, keyCount, a, c) < 0 ? c : a;
+            } else {
+                pivot = compare(keys, stride, offset, keyCount, a, c) < 0 ? a
+                    : compare(keys, stride, offset, keyCount, b, c) < 0 ? c : b;
+            }
+
+            // 3-Wege-Partitionierung: [< pivot | == pivot | > pivot]
+            int lt = from;
+            int gt = to - 1;
+            int i = from;
+            while (i <= gt) {
+                int cmp = compare(keys, stride, offset, keyCount, ids[i], pivot);
+                if (cmp < 0) {
+                    swap(ids, lt++, i++);
+                } else if (cmp > 0) {
+                    swap(ids, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // Kleinere Hälfte rekursiv, größere iterativ → Stacktiefe O(log n)
+            if (lt - from < to - gt - 1) {
+                sort(ids, from, lt, keys, stride, offset, keyCount);
+                from = gt + 1;
+            } else {
+                sort(ids, gt + 1, to, keys, stride, offset, keyCount);
+                to = lt;
+            }
+        }
+
+        // Insertion Sort für den Rest
+        for (int i = from + 1; i < to; i++) {
+            int id = ids[i];
+            int j = i - 1;
+            while (j >= from && compare(keys, stride, offset, keyCount, ids[j], id) > 0) {
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            ids[j + 1] = id;
+        }
+    }
+
+    /**
+     * Erzeugt die Indizes 0..n-1, sortiert nach keys[i].
+     *
+     * @param keys Schlüssel (einer pro Index)
+     * @return sortierte Indizes
+     */
+    static int[] sortedIndices(double[] keys) {
+        int[] ids = new int[keys.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        sort(ids, 0, ids.length, keys, 1, 0, 1);
+        return ids;
+    }
+
+    /**
+     * Lexikographischer Vergleich zweier Einträge (Double.compare je Schlüssel).
+     */
+    private static int compare(double[] keys, int stride, int offset, int keyCount, int a, int b) {
+        int baseA = a * stride + offset;
+        int baseB = b * stride + offset;
+        for (int k = 0; k < keyCount; k++) {
+            int c = Double.compare(keys[baseA + k], keys[baseB + k]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private static void swap(int[] ids, int i, int j) {
+        int tmp = ids[i];
+        ids[i] = ids[j];
+        ids[j] = tmp;
+    }
+}
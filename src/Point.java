@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * An n-dimensional point in an n-dimensional space.
  * 
@@ -175,6 +177,38 @@ public class Point extends Geometry {
         }
     }
 
+    /**
+     * Vergleicht diesen Punkt mit einem anderen Objekt.
+     * 
+     * GLEICH, wenn:
+     * - other ebenfalls ein Point ist (ein Point2D ist KEIN Point)
+     * - gleiche Anzahl Dimensionen
+     * - alle Koordinaten bitweise gleich (wie Arrays.equals für double[])
+     * 
+     * @param o das zu vergleichende Objekt
+     * @return true bei gleichen Koordinaten
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(coordinates, ((Point) o).coordinates);
+    }
+
+    /**
+     * Hashcode passend zu equals.
+     * 
+     * @return Hashcode über alle Koordinaten
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coordinates);
+    }
+
     /**
      * Textuelle Repräsentation des Punktes.
      * 
@@ -125,4 +125,62 @@ public class Point2D extends Geometry {
             return new Rectangle(new Point2D(minX, minY), new Point2D(maxX, maxY));
             
         } else if (other instanceof Rectangle) {
-            // FALL 2: Rectangle erweitern um
+            // FALL 2: Rectangle erweitern um diesen Punkt
+            // DELEGATION an Rectangle
+            return other.encapsulate(this);
+            
+        } else {
+            // Unbekannter Typ
+            throw new RuntimeException("Unknown Geometry type");
+        }
+    }
+
+    /**
+     * Vergleicht diesen Punkt mit einem anderen Objekt.
+     * 
+     * GLEICH, wenn:
+     * - other ebenfalls ein Point2D ist (ein 2D-Point ist KEIN Point2D)
+     * - x und y bitweise gleich sind (Double.compare == 0)
+     * 
+     * SONDERFÄLLE (wie bei Double.equals):
+     * - NaN ist gleich NaN
+     * - 0.0 ist NICHT gleich -0.0
+     * 
+     * @param o das zu vergleichende Objekt
+     * @return true bei gleichen Koordinaten
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Point2D other = (Point2D) o;
+        return Double.compare(x, other.x) == 0 && Double.compare(y, other.y) == 0;
+    }
+
+    /**
+     * Hashcode passend zu equals.
+     * 
+     * @return Hashcode aus x und y
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(x) + Double.hashCode(y);
+    }
+
+    /**
+     * Textuelle Repräsentation des Punktes.
+     * 
+     * FORMAT: Point2D(x, y)
+     * BEISPIEL: Point2D(3.00, 5.00)
+     * 
+     * @return String-Repräsentation
+     */
+    @Override
+    public String toString() {
+        return String.format("Point2D(%.2f, %.2f)", x, y);
+    }
+}
@@ -0,0 +1,312 @@
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of point coordinates for fast deduplication.
+ *
+ * ZWECK:
+ * - Punkte deduplizieren, ohne Point-/Point2D-Objekte oder Boxing
+ * - Koordinaten werden direkt aus Spalten gelesen: columns[axis][row]
+ *
+ * SCHLÜSSEL je Koordinate:
+ * - exakt:    Double.doubleToLongBits(c) → gleich wie Point.equals
+ *             (NaN == NaN, 0.0 != -0.0)
+ * - Epsilon:  Math.floor(c / epsilon) → alle Punkte in derselben Gitterzelle
+ *             der Kantenlänge epsilon gelten als gleich; NaN, ±Infinity und
+ *             Zellen außerhalb des long-Bereichs werden abgewiesen (der Cast
+ *             machte NaN zu Zelle 0 und ließe große Werte zusammenfallen)
+ *
+ * SPEICHER-LAYOUT:
+ * keys[slot * dims + axis], used[slot]
+ * Lineares Sondieren, Tabelle wird bei 50% Füllung verdoppelt.
+ *
+ * NICHT thread-sicher (ein Set pro Thread verwenden).
+ *
+ * BEISPIEL:
+ * PointHashSet set = new PointHashSet(2, 1_000_000);
+ * int[] unique = set.addAll(new double[][] {xs, ys});
+ */
+public class PointHashSet {
+
+    /**
+     * Größte Array-Länge, die die JVM zuverlässig anlegt.
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Anzahl der Dimensionen.
+     */
+    private final int dims;
+
+    /**
+     * Kantenlänge der Gitterzellen, 0 für exakten Vergleich.
+     */
+    private final double epsilon;
+
+    /**
+     * Schlüssel aller Slots, Index slot * dims + axis.
+     */
+    private long[] keys;
+
+    /**
+     * Belegte Slots.
+     */
+    private boolean[] used;
+
+    /**
+     * Anzahl der Elemente.
+     */
+    private int size;
+
+    /**
+     * Zwischenspeicher für die Schlüssel des aktuellen Punktes (keine Allokation).
+     */
+    private final long[] scratch;
+
+    /**
+     * Creates a set that compares coordinates exactly.
+     *
+     * @param dims         Anzahl der Dimensionen (mindestens 2)
+     * @param expectedSize erwartete Anzahl unterschiedlicher Punkte
+     * @throws RuntimeException if dims is lesser than 2 or the table for
+     *                          expectedSize exceeds the maximum array size
+     */
+    public PointHashSet(int dims, int expectedSize) {
+        this(dims, expectedSize, 0.0);
+    }
+
+    /**
+     * Creates a set that snaps coordinates to a grid of cell size <code>epsilon</code>.
+     *
+     * @param dims         Anzahl der Dimensionen (mindestens 2)
+     * @param expectedSize erwartete Anzahl unterschiedlicher Punkte
+     * @param epsilon      Kantenlänge der Gitterzellen, 0 für exakten Vergleich
+     * @throws RuntimeException if dims is lesser than 2, epsilon is negative or
+     *                          the table for expectedSize exceeds the maximum array size
+     */
+    public PointHashSet(int dims, int expectedSize, double epsilon) {
+        if (dims < 2) {
+            throw new RuntimeException("dimension is < 2");
+        }
+        if (!(epsilon >= 0)) {
+            throw new RuntimeException("epsilon is < 0");
+        }
+        this.dims = dims;
+        this.epsilon = epsilon;
+        // in long rechnen: 2 * expectedSize und capacity * dims laufen sonst über
+        long capacity = Long.highestOneBit(Math.max(16L, expectedSize) * 2 - 1) << 1;
+        checkCapacity(capacity);
+        this.keys = new long[(int) capacity * dims];
+        this.used = new boolean[(int) capacity];
+        this.scratch = new long[dims];
+    }
+
+    /**
+     * Fügt die Zeile <code>row</code> der Spalten ein.
+     *
+     * @param columns Koordinaten-Spalten, columns[axis][row]
+     * @param row     Zeile
+     * @return true, wenn der Punkt neu war
+     * @throws RuntimeException in epsilon mode if a coordinate is not finite
+     */
+    public boolean add(double[][] columns, int row) {
+        for (int axis = 0; axis < dims; axis++) {
+            scratch[axis] = key(columns[axis][row]);
+        }
+        return insert(scratch);
+    }
+
+    /**
+     * Fügt einen Punkt ein.
+     *
+     * @param point Point2D oder Point mit passender Dimension
+     * @return true, wenn der Punkt neu war
+     * @throws RuntimeException if point is not a Point2D or Point of matching
+     *                          dimension or, in epsilon mode, a coordinate is not finite
+     */
+    public boolean add(Geometry point) {
+        checkPoint(point);
+        for (int axis = 0; axis < dims; axis++) {
+            scratch[axis] = key(Bounds.lower(point, axis));
+        }
+        return insert(scratch);
+    }
+
+    /**
+     * Prüft, ob die Zeile <code>row</code> der Spalten enthalten ist.
+     *
+     * @param columns Koordinaten-Spalten, columns[axis][row]
+     * @param row     Zeile
+     * @return true, wenn enthalten
+     * @throws RuntimeException in epsilon mode if a coordinate is not finite
+     */
+    public boolean contains(double[][] columns, int row) {
+        for (int axis = 0; axis < dims; axis++) {
+            scratch[axis] = key(columns[axis][row]);
+        }
+        return find(scratch) >= 0;
+    }
+
+    /**
+     * Prüft, ob ein Punkt enthalten ist.
+     *
+     * @param point Point2D oder Point mit passender Dimension
+     * @return true, wenn enthalten
+     * @throws RuntimeException if point is not a Point2D or Point of matching
+     *                          dimension or, in epsilon mode, a coordinate is not finite
+     */
+    public boolean contains(Geometry point) {
+        checkPoint(point);
+        for (int axis = 0; axis < dims; axis++) {
+            scratch[axis] = key(Bounds.lower(point, axis));
+        }
+        return find(scratch) >= 0;
+    }
+
+    /**
+     * Fügt alle Zeilen ein und gibt die Zeilen zurück, die neu waren.
+     *
+     * @param columns Koordinaten-Spalten gleicher Länge, columns[axis][row]
+     * @return Zeilen mit dem jeweils ersten Vorkommen eines Punktes, aufsteigend
+     * @throws RuntimeException if the number of columns does not match or, in
+     *                          epsilon mode, a coordinate is not finite
+     */
+    public int[] addAll(double[][] columns) {
+        if (columns.length != dims) {
+            throw new RuntimeException("Expected " + dims + " columns");
+        }
+        int rows = columns[0].length;
+        int[] unique = new int[rows];
+        int n = 0;
+        for (int row = 0; row < rows; row++) {
+            if (add(columns, row)) {
+                unique[n++] = row;
+            }
+        }
+        return Arrays.copyOf(unique, n);
+    }
+
+    /**
+     * Gibt die Anzahl unterschiedlicher Punkte zurück.
+     *
+     * @return Anzahl
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schlüssel einer Koordinate (exakt oder Gitterzelle).
+     */
+    private long key(double c) {
+        if (epsilon == 0.0) {
+            return Double.doubleToLongBits(c);
+        }
+        double cell = Math.floor(c / epsilon);
+        // negiert, damit auch NaN abgewiesen wird
+        if (!(Math.abs(cell) < 0x1p63)) {
+            throw new RuntimeException("Coordinate cannot be snapped to the grid: " + c);
+        }
+        return (long) cell;
+    }
+
+    /**
+     * Fügt einen Schlüssel-Tupel ein, falls nicht vorhanden.
+     */
+    private boolean insert(long[] k) {
+        int slot = find(k);
+        if (slot >= 0) {
+            return false;
+        }
+        slot = -slot - 1;
+        System.arraycopy(k, 0, keys, slot * dims, dims);
+        used[slot] = true;
+        size++;
+        if (2 * size > used.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Sucht den Tupel: Slot &gt;= 0 wenn gefunden, sonst -(freier Slot) - 1.
+     */
+    private int find(long[] k) {
+        int mask = used.length - 1;
+        int slot = hash(k, 0) & mask;
+        while (used[slot]) {
+            if (matches(slot, k)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    /**
+     * Verdoppelt die Tabelle und sortiert alle Einträge neu ein.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        checkCapacity(2L * oldUsed.length);
+        keys = new long[oldKeys.length * 2];
+        used = new boolean[oldUsed.length * 2];
+        int mask = used.length - 1;
+        for (int old = 0; old < oldUsed.length; old++) {
+            if (oldUsed[old]) {
+                int slot = hash(oldKeys, old * dims) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                System.arraycopy(oldKeys, old * dims, keys, slot * dims, dims);
+                used[slot] = true;
+            }
+        }
+    }
+
+    /**
+     * Vergleicht den Tupel in slot mit k.
+     */
+    private boolean matches(int slot, long[] k) {
+        int base = slot * dims;
+        for (int axis = 0; axis < dims; axis++) {
+            if (keys[base + axis] != k[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash über dims Schlüssel ab offset (Mischfunktion aus MurmurHash3).
+     */
+    private int hash(long[] k, int offset) {
+        long h = 0;
+        for (int axis = 0; axis < dims; axis++) {
+            h = (h + k[offset + axis]) * 0x9E3779B97F4A7C15L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Prüft, ob eine Tabelle mit capacity Slots angelegt werden kann.
+     */
+    private void checkCapacity(long capacity) {
+        if (capacity * dims > MAX_ARRAY_SIZE) {
+            throw new RuntimeException("PointHashSet capacity " + capacity + " exceeds the maximum array size");
+        }
+    }
+
+    /**
+     * Prüft, ob die Geometrie ein Punkt mit der Dimension des Sets ist.
+     * Rectangle und Volume werden abgewiesen (sonst zählte nur ihre untere Ecke).
+     */
+    private void checkPoint(Geometry point) {
+        if (!(point instanceof Point2D || point instanceof Point) || point.dimensions() != dims) {
+            throw new RuntimeException("Geometry is not a point with " + dims + " dimensions");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+import java.util.Arrays;
+
+/**
+ * Compressed columnar file format for point streams, shared by
+ * {@link PointStreamWriter} and {@link PointStreamReader}.
+ *
+ * DATEI (alle Zahlen big-endian, wie DataInput/DataOutput):
+ *
+ * Header:   int MAGIC | int VERSION | int dims | int flags (Bit 0: planar)
+ * Blöcke:   je Achse: int byteLength | XOR-kodierte Spalte
+ * Footer:   je Block: long offset | int count | int byteLength
+ *                     | double min[dims] | double max[dims]
+ * Trailer:  long footerOffset | int blockCount | int MAGIC
+ *
+ * → Der Footer (Bounds je Block) wird ohne Dekodieren gelesen; Anfragen
+ *   überspringen Blöcke außerhalb des Fensters und zählen Blöcke, die
+ *   ganz im Fenster liegen, ohne sie zu entpacken.
+ *
+ * XOR-KODIERUNG (wie Gorilla, je Spalte):
+ * - Erster Wert: 64 Bit roh
+ * - Danach x = bits(v) XOR bits(vorheriger Wert):
+ *   '0'                              → gleicher Wert
+ *   '10' + Bits im alten Fenster     → führende/folgende Nullen passen
+ *   '11' + 5 Bit führende Nullen + 6 Bit (Länge - 1) + Länge Bits
+ * - Benachbarte Punkte eines Stroms unterscheiden sich meist nur in den
+ *   hinteren Mantissenbits → wenige Bits pro Koordinate
+ * - Verlustfrei (auch NaN, -0.0, Unendlich)
+ */
+public final class PointStreamFormat {
+
+    public static final int MAGIC = 0x47505354; // "GPST"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int TRAILER_BYTES = 16;
+
+    /**
+     * Keine Instanzen - nur Konstanten und Hilfsmethoden.
+     */
+    private PointStreamFormat() {
+    }
+
+    /**
+     * Länge eines Footer-Eintrags.
+     *
+     * @param dims Anzahl der Dimensionen
+     * @return Bytes
+     */
+    public static long footerEntryBytes(int dims) {
+        return 16 + 16L * dims;
+    }
+
+    /**
+     * Kodiert values[0, count) per XOR.
+     *
+     * @param values Spalte
+     * @param count  Anzahl der Werte
+     * @return kodierte Bytes
+     */
+    static byte[] encode(double[] values, int count) {
+        BitWriter out = new BitWriter(count * 2 + 16);
+        if (count == 0) {
+            return out.toArray();
+        }
+        long previous = Double.doubleToRawLongBits(values[0]);
+        out.write(previous, 64);
+        int windowLeading = -1;
+        int windowTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                out.write(0, 1);
+                continue;
+            }
+            int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (windowLeading >= 0 && leading >= windowLeading && trailing >= windowTrailing) {
+                // Fenster wiederverwenden
+                out.write(0b10, 2);
+                out.write(xor >>> windowTrailing, 64 - windowLeading - windowTrailing);
+            } else {
+                int length = 64 - leading - trailing;
+                out.write(0b11, 2);
+                out.write(leading, 5);
+                out.write(length - 1, 6);
+                out.write(xor >>> trailing, length);
+                windowLeading = leading;
+                windowTrailing = trailing;
+            }
+        }
+        return out.toArray();
+    }
+
+    /**
+     * Dekodiert count Werte nach out[0, count).
+     *
+     * @param data   kodierte Bytes
+     * @param offset Beginn der Spalte in data
+     * @param count  Anzahl der Werte
+     * @param out    Ziel
+     */
+    static void decode(byte[] data, int offset, int count, double[] out) {
+        if (count == 0) {
+            return;
+        }
+        BitReader in = new BitReader(data, offset);
+        long previous = in.read(64);
+        out[0] = Double.longBitsToDouble(previous);
+        int windowLeading = 0;
+        int windowTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            if (in.read(1) != 0) {
+                if (in.read(1) != 0) {
+                    windowLeading = (int) in.read(5);
+                    int length = (int) in.read(6) + 1;
+                    windowTrailing = 64 - windowLeading - length;
+                }
+                long xor = in.read(64 - windowLeading - windowTrailing) << windowTrailing;
+                previous ^= xor;
+            }
+            out[i] = Double.longBitsToDouble(previous);
+        }
+    }
+
+    /**
+     * Schreibt Bits, höchstwertiges Bit zuerst.
+     */
+    private static final class BitWriter {
+        private byte[] buffer;
+        private long position;
+
+        BitWriter(int capacity) {
+            buffer = new byte[Math.max(16, capacity)];
+        }
+
+        void write(long value, int bits) {
+            while (bits > 0) {
+                int index = (int) (position >>> 3);
+                if (index == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int free = 8 - (int) (position & 7);
+                int take = Math.min(free, bits);
+                int chunk = (int) (value >>> (bits - take)) & ((1 << take) - 1);
+                buffer[index] |= (byte) (chunk << (free - take));
+                position += take;
+                bits -= take;
+            }
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(buffer, (int) ((position + 7) >>> 3));
+        }
+    }
+
+    /**
+     * Liest Bits, höchstwertiges Bit zuerst.
+     */
+    private static final class BitReader {
+        private final byte[] data;
+        private long position;
+
+        BitReader(byte[] data, int offset) {
+            this.data = data;
+            this.position = (long) offset << 3;
+        }
+
+        long read(int bits) {
+            long value = 0;
+            while (bits > 0) {
+                int available = 8 - (int) (position & 7);
+                int take = Math.min(available, bits);
+                int chunk = ((data[(int) (position >>> 3)] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+                value = (value << take) | chunk;
+                position += take;
+                bits -= take;
+            }
+            return value;
+        }
+    }
+}
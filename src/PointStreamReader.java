@@ -0,0 +1,388 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reads files in the format described in {@link PointStreamFormat}.
+ *
+ * ABLAUF:
+ * - open() liest nur Header, Trailer und Footer (Bounds je Block)
+ * - bounds() und blockBounds() kommen ohne Dekodieren aus
+ * - count()/rangeQuery() prüfen je Block die Bounds aus dem Footer:
+ *   FALL 1: Block außerhalb des Fensters → überspringen
+ *   FALL 2: Block ganz im Fenster → count zählt ohne Dekodieren
+ *   FALL 3: sonst Block lesen, dekodieren und Punkt für Punkt prüfen
+ * - Blöcke werden parallel gelesen und dekodiert (positionelles Lesen
+ *   aus dem FileChannel ist thread-sicher)
+ *
+ * Blöcke mit NaN-Koordinaten haben NaN-Bounds und werden immer dekodiert.
+ *
+ * BEISPIEL:
+ * try (PointStreamReader in = PointStreamReader.open(path)) {
+ *     long n = in.count(window);
+ *     double[][] columns = in.readBlock(0);
+ * }
+ */
+public class PointStreamReader implements Closeable {
+
+    private final FileChannel channel;
+    private final int dims;
+    private final boolean planar;
+
+    /**
+     * Footer: Lage, Anzahl und Bounds je Block; Bounds als min/max[block * dims + axis].
+     */
+    private final long[] offsets;
+    private final int[] bytes;
+    private final int[] counts;
+    private final double[] mins;
+    private final double[] maxs;
+
+    private PointStreamReader(FileChannel channel, int dims, boolean planar, int blocks) {
+        this.channel = channel;
+        this.dims = dims;
+        this.planar = planar;
+        this.offsets = new long[blocks];
+        this.bytes = new int[blocks];
+        this.counts = new int[blocks];
+        this.mins = new double[blocks * dims];
+        this.maxs = new double[blocks * dims];
+    }
+
+    /**
+     * Öffnet eine Datei und liest den Footer.
+     *
+     * @param file die Datei
+     * @return Reader
+     * @throws IOException bei Lesefehlern
+     * @throws RuntimeException if the file is not a point stream, has another
+     *                          version or header, trailer or footer are corrupted
+     */
+    public static PointStreamReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            if (length < PointStreamFormat.HEADER_BYTES + PointStreamFormat.TRAILER_BYTES) {
+                throw new RuntimeException("Not a point stream: " + file);
+            }
+            ByteBuffer header = read(channel, 0, PointStreamFormat.HEADER_BYTES);
+            ByteBuffer trailer = read(channel, length - PointStreamFormat.TRAILER_BYTES,
+                                      PointStreamFormat.TRAILER_BYTES);
+            if (header.getInt(0) != PointStreamFormat.MAGIC || trailer.getInt(12) != PointStreamFormat.MAGIC) {
+                throw new RuntimeException("Not a point stream: " + file);
+            }
+            if (header.getInt(4) != PointStreamFormat.VERSION) {
+                throw new RuntimeException("Unsupported point stream version " + header.getInt(4));
+            }
+            int dims = header.getInt(8);
+            boolean planar = (header.getInt(12) & 1) != 0;
+            if (dims < 1 || (planar && dims != 2)) {
+                throw new RuntimeException("Corrupted header: " + file);
+            }
+            // Footer-Länge in long: blocks * entryBytes läuft in int über
+            long footerOffset = trailer.getLong(0);
+            int blocks = trailer.getInt(8);
+            long footerBytes = blocks * PointStreamFormat.footerEntryBytes(dims);
+            if (blocks < 0 || footerOffset < PointStreamFormat.HEADER_BYTES
+                    || footerOffset + footerBytes != length - PointStreamFormat.TRAILER_BYTES
+                    || footerBytes > Integer.MAX_VALUE) {
+                throw new RuntimeException("Corrupted footer: " + file);
+            }
+
+            PointStreamReader reader = new PointStreamReader(channel, dims, planar, blocks);
+            ByteBuffer footer = read(channel, footerOffset, (int) footerBytes);
+            for (int b = 0; b < blocks; b++) {
+                reader.offsets[b] = footer.getLong();
+                reader.counts[b] = footer.getInt();
+                reader.bytes[b] = footer.getInt();
+                // Blöcke müssen zwischen Header und Footer liegen, sonst scheitert
+                // erst decode() mitten im parallelen Stream; jeder Wert braucht
+                // mindestens ein Bit
+                if (reader.offsets[b] < PointStreamFormat.HEADER_BYTES || reader.bytes[b] < 0
+                        || reader.offsets[b] > footerOffset - reader.bytes[b]
+                        || reader.counts[b] < 0 || (long) reader.counts[b] * dims > 8L * reader.bytes[b]) {
+                    throw new RuntimeException("Corrupted footer entry " + b + ": " + file);
+                }
+                for (int axis = 0; axis < dims; axis++) {
+                    reader.mins[b * dims + axis] = footer.getDouble();
+                }
+                for (int axis = 0; axis < dims; axis++) {
+                    reader.maxs[b * dims + axis] = footer.getDouble();
+                }
+            }
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Anzahl der Punkte
+     */
+    public long size() {
+        long total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return Anzahl der Blöcke
+     */
+    public int blockCount() {
+        return counts.length;
+    }
+
+    /**
+     * @return Anzahl der Dimensionen
+     */
+    public int dimensions() {
+        return dims;
+    }
+
+    /**
+     * @return true für Point2D, false für Point
+     */
+    public boolean isPlanar() {
+        return planar;
+    }
+
+    /**
+     * Gibt die Anzahl der Punkte eines Blocks zurück.
+     *
+     * @param block Blockindex
+     * @return Anzahl
+     */
+    public int blockSize(int block) {
+        return counts[block];
+    }
+
+    /**
+     * Gibt die Bounds eines Blocks zurück (aus dem Footer, ohne Dekodieren).
+     *
+     * @param block Blockindex
+     * @return Rectangle bzw. Volume
+     */
+    public Geometry blockBounds(int block) {
+        double[] lo = new double[dims];
+        double[] hi = new double[dims];
+        System.arraycopy(mins, block * dims, lo, 0, dims);
+        System.arraycopy(maxs, block * dims, hi, 0, dims);
+        return Bounds.box(lo, hi, planar);
+    }
+
+    /**
+     * Gibt die Bounds aller Punkte zurück (aus dem Footer, ohne Dekodieren).
+     *
+     * @return Rectangle bzw. Volume oder <code>null</code>, wenn leer
+     */
+    public Geometry bounds() {
+        if (counts.length == 0) {
+            return null;
+        }
+        double[] lo = new double[dims];
+        double[] hi = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            lo[axis] = Double.POSITIVE_INFINITY;
+            hi[axis] = Double.NEGATIVE_INFINITY;
+            for (int b = 0; b < counts.length; b++) {
+                lo[axis] = Math.min(lo[axis], mins[b * dims + axis]);
+                hi[axis] = Math.max(hi[axis], maxs[b * dims + axis]);
+            }
+        }
+        return Bounds.box(lo, hi, planar);
+    }
+
+    /**
+     * Liest und dekodiert einen Block.
+     *
+     * @param block Blockindex
+     * @return Spalten columns[axis][row] mit blockSize(block) Zeilen
+     * @throws IOException bei Lesefehlern
+     */
+    public double[][] readBlock(int block) throws IOException {
+        ByteBuffer buffer = read(channel, offsets[block], bytes[block]);
+        byte[] data = buffer.array();
+        double[][] columns = new double[dims][counts[block]];
+        int position = 0;
+        for (int axis = 0; axis < dims; axis++) {
+            int length = buffer.getInt(position);
+            PointStreamFormat.decode(data, position + 4, counts[block], columns[axis]);
+            position += 4 + length;
+        }
+        return columns;
+    }
+
+    /**
+     * Zählt alle Punkte im Fenster (Rand zählt dazu), Blöcke parallel.
+     *
+     * @param window Anfragebereich (z.B. Rectangle bzw. Volume)
+     * @return Anzahl
+     * @throws IOException bei Lesefehlern
+     */
+    public long count(Geometry window) throws IOException {
+        double[] qMin = new double[dims];
+        double[] qMax = new double[dims];
+        queryBounds(window, qMin, qMax);
+        try {
+            return IntStream.range(0, counts.length).parallel().mapToLong(b -> {
+                if (!overlaps(b, qMin, qMax)) {
+                    return 0;
+                }
+                if (contains(b, qMin, qMax)) {
+                    return counts[b];
+                }
+                double[][] columns = readUnchecked(b);
+                long n = 0;
+                for (int row = 0; row < counts[b]; row++) {
+                    if (inside(columns, row, qMin, qMax)) {
+                        n++;
+                    }
+                }
+                return n;
+            }).sum();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Findet alle Punkte im Fenster, in Dateireihenfolge. Blöcke werden
+     * parallel dekodiert.
+     *
+     * @param window Anfragebereich
+     * @return gefundene Punkte (Point2D bzw. Point)
+     * @throws IOException bei Lesefehlern
+     */
+    public List<Geometry> rangeQuery(Geometry window) throws IOException {
+        double[] qMin = new double[dims];
+        double[] qMax = new double[dims];
+        queryBounds(window, qMin, qMax);
+        try {
+            List<List<Geometry>> perBlock = IntStream.range(0, counts.length).parallel()
+                .mapToObj(b -> {
+                    List<Geometry> hits = new ArrayList<>();
+                    if (overlaps(b, qMin, qMax)) {
+                        double[][] columns = readUnchecked(b);
+                        for (int row = 0; row < counts[b]; row++) {
+                            if (inside(columns, row, qMin, qMax)) {
+                                hits.add(point(columns, row));
+                            }
+                        }
+                    }
+                    return hits;
+                })
+                .toList();
+            List<Geometry> result = new ArrayList<>();
+            perBlock.forEach(result::addAll);
+            return result;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Gibt die Indizes der Blöcke zurück, die das Fenster berühren
+     * (alle anderen werden von count()/rangeQuery() übersprungen).
+     *
+     * @param window Anfragebereich
+     * @return Blockindizes, aufsteigend
+     */
+    public int[] blocksIntersecting(Geometry window) {
+        double[] qMin = new double[dims];
+        double[] qMax = new double[dims];
+        queryBounds(window, qMin, qMax);
+        return IntStream.range(0, counts.length).filter(b -> overlaps(b, qMin, qMax)).toArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private double[][] readUnchecked(int block) {
+        try {
+            return readBlock(block);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Geometry point(double[][] columns, int row) {
+        if (planar) {
+            return new Point2D(columns[0][row], columns[1][row]);
+        }
+        double[] c = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            c[axis] = columns[axis][row];
+        }
+        return new Point(c);
+    }
+
+    /**
+     * Berührt der Block das Fenster? NaN-Bounds gelten als berührend.
+     */
+    private boolean overlaps(int block, double[] qMin, double[] qMax) {
+        for (int axis = 0; axis < dims; axis++) {
+            if (mins[block * dims + axis] > qMax[axis] || maxs[block * dims + axis] < qMin[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Liegt der Block ganz im Fenster? NaN-Bounds gelten als nicht enthalten.
+     */
+    private boolean contains(int block, double[] qMin, double[] qMax) {
+        for (int axis = 0; axis < dims; axis++) {
+            if (!(mins[block * dims + axis] >= qMin[axis] && maxs[block * dims + axis] <= qMax[axis])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean inside(double[][] columns, int row, double[] qMin, double[] qMax) {
+        for (int axis = 0; axis < dims; axis++) {
+            double v = columns[axis][row];
+            if (!(v >= qMin[axis] && v <= qMax[axis])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void queryBounds(Geometry window, double[] qMin, double[] qMax) {
+        if (window == null || window.dimensions() != dims) {
+            throw new RuntimeException("Geometry has different dimensions");
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            qMin[axis] = Bounds.lower(window, axis);
+            qMax[axis] = Bounds.upper(window, axis);
+        }
+    }
+
+    /**
+     * Liest length Bytes ab position vollständig (positionell, thread-sicher).
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,278 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Writes a stream of points into the compressed columnar format
+ * described in {@link PointStreamFormat}.
+ *
+ * ABLAUF:
+ * - Punkte werden spaltenweise gesammelt, bis ein Block voll ist
+ * - Der volle Block wird im ForkJoinPool kodiert (parallel je Block),
+ *   der Aufrufer sammelt inzwischen den nächsten
+ * - Kodierte Blöcke werden in Reihenfolge geschrieben; höchstens
+ *   2 × Prozessoren Blöcke sind gleichzeitig in Arbeit (begrenzter Speicher)
+ * - close() schreibt den letzten Block, Footer und Trailer
+ *
+ * NICHT thread-sicher.
+ *
+ * BEISPIEL:
+ * try (PointStreamWriter out = new PointStreamWriter(path, 2, true)) {
+ *     out.add(new Point2D(1, 2));
+ * }
+ */
+public class PointStreamWriter implements Closeable {
+
+    /**
+     * Standardanzahl Punkte pro Block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    /**
+     * Kodierter Block mit seinen Bounds.
+     */
+    private static final class Block {
+        final int count;
+        final byte[][] axes;
+        final double[] min;
+        final double[] max;
+
+        Block(int count, byte[][] axes, double[] min, double[] max) {
+            this.count = count;
+            this.axes = axes;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /**
+     * Lage, Anzahl und Bounds eines geschriebenen Blocks.
+     */
+    private static final class FooterEntry {
+        final long offset;
+        final int bytes;
+        final int count;
+        final double[] min;
+        final double[] max;
+
+        FooterEntry(long offset, int bytes, int count, double[] min, double[] max) {
+            this.offset = offset;
+            this.bytes = bytes;
+            this.count = count;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private final DataOutputStream out;
+    private final int dims;
+    private final boolean planar;
+    private final int blockSize;
+    private final int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Aktueller, noch nicht voller Block: columns[axis][row].
+     */
+    private double[][] columns;
+    private int rows;
+
+    private final ArrayDeque<CompletableFuture<Block>> inFlight = new ArrayDeque<>();
+
+    /**
+     * Footer-Einträge der geschriebenen Blöcke.
+     */
+    private final List<FooterEntry> footer = new ArrayList<>();
+
+    /**
+     * Anzahl der bisher geschriebenen Bytes.
+     */
+    private long position;
+    private boolean closed;
+
+    /**
+     * Creates a writer with the default block size.
+     *
+     * @param file   Zieldatei (wird ersetzt)
+     * @param dims   Anzahl der Dimensionen
+     * @param planar true für Point2D, false für Point
+     * @throws IOException bei Schreibfehlern
+     */
+    public PointStreamWriter(Path file, int dims, boolean planar) throws IOException {
+        this(file, dims, planar, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param file      Zieldatei (wird ersetzt)
+     * @param dims      Anzahl der Dimensionen
+     * @param planar    true für Point2D (nur mit dims == 2), false für Point
+     * @param blockSize Punkte pro Block (mindestens 1)
+     * @throws IOException bei Schreibfehlern
+     * @throws RuntimeException if dims or blockSize are invalid
+     */
+    public PointStreamWriter(Path file, int dims, boolean planar, int blockSize) throws IOException {
+        if (dims < 1 || (planar && dims != 2)) {
+            throw new RuntimeException("Invalid dimension " + dims);
+        }
+        if (blockSize < 1) {
+            throw new RuntimeException("blockSize is < 1");
+        }
+        this.dims = dims;
+        this.planar = planar;
+        this.blockSize = blockSize;
+        this.columns = new double[dims][blockSize];
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(PointStreamFormat.MAGIC);
+        out.writeInt(PointStreamFormat.VERSION);
+        out.writeInt(dims);
+        out.writeInt(planar ? 1 : 0);
+        position = PointStreamFormat.HEADER_BYTES;
+    }
+
+    /**
+     * Hängt einen Punkt an.
+     *
+     * @param point Point2D bzw. Point mit passender Dimension
+     * @throws IOException bei Schreibfehlern
+     * @throws RuntimeException if the point does not match the stream
+     */
+    public void add(Geometry point) throws IOException {
+        boolean matches = planar ? point instanceof Point2D
+            : point instanceof Point && point.dimensions() == dims;
+        if (!matches) {
+            throw new RuntimeException("Geometry does not match the stream");
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            columns[axis][rows] = Bounds.lower(point, axis);
+        }
+        added();
+    }
+
+    /**
+     * Hängt die Zeile <code>row</code> der Spalten an (ohne Allokation).
+     *
+     * @param source Koordinaten-Spalten, source[axis][row]
+     * @param row    Zeile
+     * @throws IOException bei Schreibfehlern
+     */
+    public void add(double[][] source, int row) throws IOException {
+        if (source.length != dims) {
+            throw new RuntimeException("Expected " + dims + " columns");
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            columns[axis][rows] = source[axis][row];
+        }
+        added();
+    }
+
+    /**
+     * Schreibt den letzten Block, den Footer und den Trailer.
+     *
+     * @throws IOException bei Schreibfehlern
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rows > 0) {
+                submit();
+            }
+            while (!inFlight.isEmpty()) {
+                writeBlock(await(inFlight.poll()));
+            }
+
+            long footerOffset = position;
+            for (FooterEntry entry : footer) {
+                out.writeLong(entry.offset);
+                out.writeInt(entry.count);
+                out.writeInt(entry.bytes);
+                for (double v : entry.min) {
+                    out.writeDouble(v);
+                }
+                for (double v : entry.max) {
+                    out.writeDouble(v);
+                }
+            }
+            out.writeLong(footerOffset);
+            out.writeInt(footer.size());
+            out.writeInt(PointStreamFormat.MAGIC);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void added() throws IOException {
+        if (++rows == blockSize) {
+            submit();
+        }
+    }
+
+    /**
+     * Übergibt den vollen Block zur Kodierung und schreibt fertige Blöcke,
+     * sobald zu viele in Arbeit sind.
+     */
+    private void submit() throws IOException {
+        double[][] block = columns;
+        int count = rows;
+        columns = new double[dims][blockSize];
+        rows = 0;
+        inFlight.add(CompletableFuture.supplyAsync(() -> encode(block, count)));
+        while (inFlight.size() > maxInFlight || (!inFlight.isEmpty() && inFlight.peek().isDone())) {
+            writeBlock(await(inFlight.poll()));
+        }
+    }
+
+    /**
+     * Kodiert alle Achsen eines Blocks und berechnet seine Bounds.
+     */
+    private Block encode(double[][] block, int count) {
+        byte[][] axes = new byte[dims][];
+        double[] min = new double[dims];
+        double[] max = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            axes[axis] = PointStreamFormat.encode(block[axis], count);
+            double lo = Double.POSITIVE_INFINITY;
+            double hi = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                lo = Math.min(lo, block[axis][i]);
+                hi = Math.max(hi, block[axis][i]);
+            }
+            min[axis] = lo;
+            max[axis] = hi;
+        }
+        return new Block(count, axes, min, max);
+    }
+
+    private void writeBlock(Block block) throws IOException {
+        long offset = position;
+        for (byte[] axis : block.axes) {
+            out.writeInt(axis.length);
+            out.write(axis);
+            position += 4 + axis.length;
+        }
+        footer.add(new FooterEntry(offset, (int) (position - offset), block.count, block.min, block.max));
+    }
+
+    private static Block await(CompletableFuture<Block> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Encoding failed", e.getCause());
+        }
+    }
+}
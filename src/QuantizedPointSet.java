@@ -0,0 +1,375 @@
+import java.util.Arrays;
+
+/**
+ * Compact storage of points with quantized coordinates relative to an
+ * enclosing region.
+ *
+ * ZWECK:
+ * - Für Visualisierung und grobe Anfragen reichen weniger als 64 Bit
+ * - Speicher und Bandbreite sinken auf 1/4 (16 Bit) bzw. 1/2 (32 Bit)
+ *
+ * KODIERUNGEN:
+ * - INT16:   Zelle q ∈ [0, 2^16) in einem Raster über die Region
+ * - INT32:   Zelle q ∈ [0, 2^32) in einem Raster über die Region
+ * - FLOAT32: float-Abstand zur unteren Ecke der Region
+ *
+ * KONSERVATIV:
+ * - Jeder gespeicherte Wert steht für ein Intervall [lower, upper],
+ *   das die exakte Koordinate garantiert enthält
+ * - Beim Kodieren wird das mit genau derselben Rechnung geprüft, die
+ *   auch beim Dekodieren verwendet wird (keine Rundungslücken)
+ * - encapsulate()/volume() arbeiten auf diesen Intervallen → die
+ *   gelieferten Bounds enthalten immer die exakten Bounds
+ *
+ * BEISPIEL:
+ * QuantizedPointSet set = new QuantizedPointSet(region, QuantizedPointSet.Encoding.INT16, 1000);
+ * set.add(new Point2D(3.14159, 2.71828));
+ * set.encapsulate() → Rectangle, das den exakten Punkt enthält
+ */
+public class QuantizedPointSet {
+
+    /**
+     * Speicherformat einer Koordinate.
+     */
+    public enum Encoding {
+        INT16(2), INT32(4), FLOAT32(4);
+
+        private final int bytes;
+
+        Encoding(int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return Bytes pro Koordinate
+         */
+        public int bytes() {
+            return bytes;
+        }
+    }
+
+    private final Encoding encoding;
+    private final int dims;
+    private final boolean planar;
+
+    /**
+     * Region, relativ zu der kodiert wird.
+     */
+    private final double[] regionMin;
+    private final double[] regionMax;
+
+    /**
+     * Rasterweite je Achse (nur INT16/INT32).
+     */
+    private final double[] step;
+
+    /**
+     * Anzahl der Rasterzellen je Achse (nur INT16/INT32).
+     */
+    private final long levels;
+
+    /**
+     * Spaltenweise Speicherung, genau eines davon ist belegt: values[axis][i].
+     */
+    private short[][] shorts;
+    private int[][] ints;
+    private float[][] floats;
+
+    /**
+     * Anzahl der Punkte.
+     */
+    private int size;
+
+    /**
+     * Kleinste/größte untere bzw. obere Intervallgrenze je Achse
+     * → encapsulate() in O(d).
+     */
+    private final double[] boundsMin;
+    private final double[] boundsMax;
+
+    /**
+     * Creates an empty set.
+     *
+     * @param region       Rectangle (für Point2D) oder Volume (für Point), muss
+     *                     alle Punkte enthalten
+     * @param encoding     Speicherformat
+     * @param expectedSize erwartete Anzahl Punkte
+     * @throws RuntimeException if the region is neither Rectangle nor Volume
+     *                          or is not finite
+     */
+    public QuantizedPointSet(Geometry region, Encoding encoding, int expectedSize) {
+        if (!(region instanceof Rectangle) && !(region instanceof Volume)) {
+            throw new RuntimeException("Region must be a Rectangle or Volume");
+        }
+        this.encoding = encoding;
+        this.dims = region.dimensions();
+        this.planar = region instanceof Rectangle;
+        this.regionMin = new double[dims];
+        this.regionMax = new double[dims];
+        this.step = new double[dims];
+        this.levels = encoding == Encoding.INT16 ? 1L << 16 : 1L << 32;
+        for (int axis = 0; axis < dims; axis++) {
+            regionMin[axis] = Bounds.lower(region, axis);
+            regionMax[axis] = Bounds.upper(region, axis);
+            if (Double.isInfinite(regionMax[axis] - regionMin[axis])) {
+                throw new RuntimeException("Region must be finite");
+            }
+            step[axis] = (regionMax[axis] - regionMin[axis]) / levels;
+        }
+
+        int capacity = Math.max(16, expectedSize);
+        switch (encoding) {
+            case INT16 -> shorts = new short[dims][capacity];
+            case INT32 -> ints = new int[dims][capacity];
+            default -> floats = new float[dims][capacity];
+        }
+        this.boundsMin = new double[dims];
+        this.boundsMax = new double[dims];
+        Arrays.fill(boundsMin, Double.POSITIVE_INFINITY);
+        Arrays.fill(boundsMax, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Fügt einen Punkt hinzu.
+     *
+     * @param point Point2D (Region ist Rectangle) bzw. Point (Region ist Volume)
+     * @return Index des Punktes
+     * @throws RuntimeException if the point does not match the region or lies outside
+     */
+    public int add(Geometry point) {
+        boolean matches = planar ? point instanceof Point2D
+            : point instanceof Point && point.dimensions() == dims;
+        if (!matches) {
+            throw new RuntimeException("Geometry does not match the region");
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            double c = Bounds.lower(point, axis);
+            if (!(c >= regionMin[axis] && c <= regionMax[axis])) {
+                throw new RuntimeException("Point lies outside of the region");
+            }
+        }
+        ensureCapacity();
+
+        int index = size++;
+        for (int axis = 0; axis < dims; axis++) {
+            encode(index, axis, Bounds.lower(point, axis));
+            boundsMin[axis] = Math.min(boundsMin[axis], lower(index, axis));
+            boundsMax[axis] = Math.max(boundsMax[axis], upper(index, axis));
+        }
+        return index;
+    }
+
+    /**
+     * Gibt die Anzahl der Punkte zurück.
+     *
+     * @return Anzahl
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gibt das Speicherformat zurück.
+     *
+     * @return Kodierung
+     */
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Speicherbedarf der Koordinaten (ohne Reserve).
+     *
+     * @return Bytes
+     */
+    public long coordinateBytes() {
+        return (long) size * dims * encoding.bytes();
+    }
+
+    /**
+     * Untere Grenze des Intervalls, das die exakte Koordinate enthält.
+     *
+     * @param index Index des Punktes
+     * @param axis  Achse
+     * @return untere Grenze
+     */
+    public double lower(int index, int axis) {
+        checkIndex(index);
+        if (encoding == Encoding.FLOAT32) {
+            return lowerOfOffset(Math.nextDown(floats[axis][index]), axis);
+        }
+        return lowerOf(cell(index, axis), axis);
+    }
+
+    /**
+     * Obere Grenze des Intervalls, das die exakte Koordinate enthält.
+     *
+     * @param index Index des Punktes
+     * @param axis  Achse
+     * @return obere Grenze
+     */
+    public double upper(int index, int axis) {
+        checkIndex(index);
+        if (encoding == Encoding.FLOAT32) {
+            return upperOfOffset(Math.nextUp(floats[axis][index]), axis);
+        }
+        return upperOf(cell(index, axis), axis);
+    }
+
+    /**
+     * Gibt eine Näherung des Punktes zurück (Mitte seines Intervalls).
+     *
+     * @param index Index des Punktes
+     * @return Point2D bzw. Point
+     */
+    public Geometry get(int index) {
+        double[] c = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            c[axis] = (lower(index, axis) + upper(index, axis)) / 2;
+        }
+        return planar ? new Point2D(c[0], c[1]) : new Point(c);
+    }
+
+    /**
+     * Gibt die konservativen Bounds eines Punktes zurück.
+     *
+     * @param index Index des Punktes
+     * @return Rectangle bzw. Volume, das den exakten Punkt enthält
+     */
+    public Geometry bounds(int index) {
+        double[] lo = new double[dims];
+        double[] hi = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            lo[axis] = lower(index, axis);
+            hi[axis] = upper(index, axis);
+        }
+        return Bounds.box(lo, hi, planar);
+    }
+
+    /**
+     * Umschließt alle Punkte (konservativ).
+     *
+     * @return Rectangle bzw. Volume, das die exakten Bounds aller Punkte
+     * enthält, oder <code>null</code>, wenn leer
+     */
+    public Geometry encapsulate() {
+        if (size == 0) {
+            return null;
+        }
+        return Bounds.box(boundsMin, boundsMax, planar);
+    }
+
+    /**
+     * Volumen der Bounds aller Punkte (konservativ, also &gt;= exakt).
+     *
+     * @return Volumen von {@link #encapsulate()}, 0 wenn leer
+     */
+    public double volume() {
+        Geometry bounds = encapsulate();
+        return bounds == null ? 0.0 : bounds.volume();
+    }
+
+    /**
+     * Kodiert eine Koordinate.
+     *
+     * ABLAUF (INT16/INT32):
+     * 1. q = floor((c - min) / step), auf [0, levels-1] begrenzt
+     * 2. Wegen Rundung kann c knapp außerhalb von Zelle q liegen
+     *    → q so lange korrigieren, bis lowerOf(q) &lt;= c &lt;= upperOf(q)
+     *
+     * ABLAUF (FLOAT32): analog mit float-Abstand f und den Nachbarwerten
+     * nextDown(f) / nextUp(f) als Intervallgrenzen.
+     */
+    private void encode(int index, int axis, double c) {
+        if (encoding == Encoding.FLOAT32) {
+            float f = (float) (c - regionMin[axis]);
+            while (lowerOfOffset(Math.nextDown(f), axis) > c) {
+                f = Math.nextDown(f);
+            }
+            while (upperOfOffset(Math.nextUp(f), axis) < c) {
+                f = Math.nextUp(f);
+            }
+            floats[axis][index] = f;
+            return;
+        }
+        long q = step[axis] > 0 ? (long) Math.floor((c - regionMin[axis]) / step[axis]) : 0;
+        q = Math.max(0, Math.min(levels - 1, q));
+        while (q > 0 && lowerOf(q, axis) > c) {
+            q--;
+        }
+        while (q < levels - 1 && upperOf(q, axis) < c) {
+            q++;
+        }
+        if (encoding == Encoding.INT16) {
+            shorts[axis][index] = (short) q;
+        } else {
+            ints[axis][index] = (int) q;
+        }
+    }
+
+    /**
+     * Zelle eines Punktes als vorzeichenlose Zahl.
+     */
+    private long cell(int index, int axis) {
+        if (encoding == Encoding.INT16) {
+            return shorts[axis][index] & 0xFFFFL;
+        }
+        return ints[axis][index] & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Untere Grenze der Zelle q, auf die Region begrenzt.
+     */
+    private double lowerOf(long q, int axis) {
+        return q == 0 ? regionMin[axis] : Math.max(regionMin[axis], regionMin[axis] + q * step[axis]);
+    }
+
+    /**
+     * Obere Grenze der Zelle q, auf die Region begrenzt.
+     */
+    private double upperOf(long q, int axis) {
+        return q == levels - 1 ? regionMax[axis]
+            : Math.min(regionMax[axis], regionMin[axis] + (q + 1) * step[axis]);
+    }
+
+    /**
+     * Untere Grenze zum float-Abstand f, auf die Region begrenzt.
+     */
+    private double lowerOfOffset(float f, int axis) {
+        return Math.max(regionMin[axis], Math.nextDown(regionMin[axis] + f));
+    }
+
+    /**
+     * Obere Grenze zum float-Abstand f, auf die Region begrenzt.
+     */
+    private double upperOfOffset(float f, int axis) {
+        return Math.min(regionMax[axis], Math.nextUp(regionMin[axis] + f));
+    }
+
+    /**
+     * Vergrößert die Spalten bei Bedarf (Verdopplung).
+     */
+    private void ensureCapacity() {
+        int capacity = switch (encoding) {
+            case INT16 -> shorts[0].length;
+            case INT32 -> ints[0].length;
+            default -> floats[0].length;
+        };
+        if (size < capacity) {
+            return;
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            switch (encoding) {
+                case INT16 -> shorts[axis] = Arrays.copyOf(shorts[axis], capacity * 2);
+                case INT32 -> ints[axis] = Arrays.copyOf(ints[axis], capacity * 2);
+                default -> floats[axis] = Arrays.copyOf(floats[axis], capacity * 2);
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new RuntimeException("Index out of range: " + index);
+        }
+    }
+}
@@ -127,6 +127,24 @@ public class Rectangle extends Geometry {
         return getWidth() * getHeight();
     }
 
+    /**
+     * Gibt den natürlichen Logarithmus der Fläche zurück.
+     * 
+     * BERECHNUNG: log(Breite) + log(Höhe), damit auch Flächen jenseits
+     * des double-Wertebereichs korrekt verglichen werden können
+     * 
+     * @return log(Fläche), -Infinity bei Fläche 0
+     */
+    @Override
+    public double logVolume() {
+        double width = getWidth();
+        double height = getHeight();
+        if (width == 0.0 || height == 0.0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return Math.log(width) + Math.log(height);
+    }
+
     /**
      * Umschließt dieses Rechteck mit einer anderen Geometrie.
      * 
@@ -188,6 +206,38 @@ public class Rectangle extends Geometry {
         }
     }
 
+    /**
+     * Vergleicht dieses Rechteck mit einem anderen Objekt.
+     * 
+     * GLEICH, wenn beide Eckpunkte gleich sind (siehe equals der Punkte).
+     * Da der Konstruktor normalisiert, ist die Reihenfolge der beim
+     * Erzeugen übergebenen Ecken egal.
+     * 
+     * @param o das zu vergleichende Objekt
+     * @return true bei gleichen Ecken
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Rectangle other = (Rectangle) o;
+        return lowerLeft.equals(other.lowerLeft) && upperRight.equals(other.upperRight);
+    }
+
+    /**
+     * Hashcode passend zu equals.
+     * 
+     * @return Hashcode aus beiden Ecken
+     */
+    @Override
+    public int hashCode() {
+        return 31 * lowerLeft.hashCode() + upperRight.hashCode();
+    }
+
     /**
      * Textuelle Repräsentation des Rechtecks.
      * 
@@ -0,0 +1,728 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Region quadtree (for Point2D) and its generalisation to n dimensions,
+ * the 2^d-tree (for Point).
+ *
+ * AUFBAU:
+ * - Jeder Knoten deckt einen Bereich ab (Rectangle bzw. Volume)
+ * - Ein innerer Knoten teilt seinen Bereich in der Mitte JEDER Achse
+ *   → 2^d Kinder (2D: 4 = Quadtree, 3D: 8 = Octree, ...)
+ * - Blätter speichern bis zu bucketSize Punkte in primitiven Arrays
+ *
+ * VORTEIL gegenüber R-Baum: Einfügen/Entfernen braucht keine teuren
+ * Split-Heuristiken, die Teilung ist durch den Bereich festgelegt.
+ *
+ * LAZY:
+ * - Unterbesetzte Teilbäume werden nach dem Entfernen nur vorgemerkt und
+ *   erst bei der nächsten Schreiboperation zu einem Blatt zusammengefasst
+ * - Die Bounds eines Teilbaums (über encapsulate) werden erst bei Bedarf
+ *   berechnet und dann im Knoten gemerkt
+ *
+ * NEBENLÄUFIGKEIT (Copy-on-Write mit Pfadkopie):
+ * - Veröffentlichte Knoten werden NIE verändert
+ * - Ein Schreiber kopiert den Pfad von der Wurzel bis zum Blatt (Blatt
+ *   samt Bucket), ändert nur die Kopien und setzt zum Schluss die neue
+ *   Wurzel (volatile) → unveränderte Teilbäume werden geteilt
+ * - Leser nehmen einmal die aktuelle Wurzel und arbeiten ohne Sperre auf
+ *   diesem Stand weiter, auch während geschrieben wird
+ * - Schreiber untereinander sind über eine Sperre serialisiert
+ * - Kosten pro Schreibzugriff: Tiefe × (2^d Kindverweise) + ein Bucket
+ *
+ * BEISPIEL:
+ * RegionTree tree = new RegionTree(new Rectangle(new Point2D(0, 0), new Point2D(100, 100)));
+ * tree.insert(new Point2D(3, 4));
+ * List<Geometry> hits = tree.rangeQuery(new Rectangle(new Point2D(0, 0), new Point2D(10, 10)));
+ */
+public class RegionTree {
+
+    /**
+     * Standardgröße eines Blatt-Buckets.
+     */
+    public static final int DEFAULT_BUCKET_SIZE = 16;
+
+    /**
+     * Maximale Tiefe: verhindert endloses Teilen bei vielen gleichen Punkten.
+     */
+    private static final int MAX_DEPTH = 32;
+
+    /**
+     * Maximale Dimension (2^d Kinder pro Knoten).
+     */
+    private static final int MAX_DIMENSIONS = 16;
+
+    /**
+     * Knoten des Baums. Nur veränderbar, solange er noch nicht über die
+     * Wurzel veröffentlicht ist (danach nur noch der Cache aggregate).
+     */
+    static final class Node {
+        final double[] min;
+        final double[] max;
+        final int depth;
+
+        /**
+         * Kinder (2^d, einzeln erst bei Bedarf angelegt) oder null für Blätter.
+         */
+        Node[] children;
+
+        /**
+         * Blatt-Inhalt: coords[i * d + axis] und die zugehörigen Geometrien.
+         */
+        double[] coords;
+        Geometry[] items;
+        int count;
+
+        /**
+         * Anzahl der Punkte im Teilbaum.
+         */
+        int size;
+
+        /**
+         * Bounds aller Punkte im Teilbaum, gültig wenn !dirty. Wird auch von
+         * Lesern gesetzt: der Teilbaum ist unveränderlich, gleichzeitige
+         * Berechnungen liefern dasselbe Ergebnis; volatile dirty macht
+         * aggregate für andere Threads sichtbar.
+         */
+        Geometry aggregate;
+        volatile boolean dirty = true;
+
+        Node(double[] min, double[] max, int depth, int bucketSize) {
+            this.min = min;
+            this.max = max;
+            this.depth = depth;
+            this.coords = new double[bucketSize * min.length];
+            this.items = new Geometry[bucketSize];
+        }
+
+        /**
+         * Unveröffentlichte Kopie zum Ändern: Kinderliste bzw. Bucket werden
+         * kopiert, die Kinder selbst geteilt.
+         */
+        Node(Node other) {
+            this.min = other.min;
+            this.max = other.max;
+            this.depth = other.depth;
+            this.size = other.size;
+            this.count = other.count;
+            if (other.children != null) {
+                this.children = other.children.clone();
+            } else {
+                this.coords = other.coords.clone();
+                this.items = other.items.clone();
+            }
+        }
+    }
+
+    private final int dims;
+    private final boolean planar;
+    private final int bucketSize;
+
+    /**
+     * Aktueller Stand; wird von Schreibern durch eine neue Wurzel ersetzt.
+     */
+    private volatile Node root;
+
+    /**
+     * Vorgemerkte Knoten, die beim nächsten Schreiben zusammengefasst werden,
+     * als Mittelpunkt ihres Bereichs und Tiefe (Knoten werden beim Schreiben
+     * ersetzt, ihr Bereich bleibt gleich).
+     */
+    private final List<double[]> pendingCollapse = new ArrayList<>();
+    private final List<Integer> pendingDepth = new ArrayList<>();
+
+    /**
+     * Serialisiert die Schreiber; Leser brauchen keine Sperre.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Creates an empty tree over the given region with the default bucket size.
+     *
+     * @param region Rectangle (Quadtree für Point2D) oder Volume (für Point)
+     * @throws RuntimeException if the region is neither Rectangle nor Volume
+     */
+    public RegionTree(Geometry region) {
+        this(region, DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Creates an empty tree over the given region.
+     *
+     * @param region     Rectangle (Quadtree für Point2D) oder Volume (für Point)
+     * @param bucketSize maximale Anzahl Punkte pro Blatt (mindestens 1)
+     * @throws RuntimeException if the region is neither Rectangle nor Volume,
+     *                          has more than 16 dimensions or bucketSize &lt; 1
+     */
+    public RegionTree(Geometry region, int bucketSize) {
+        if (!(region instanceof Rectangle) && !(region instanceof Volume)) {
+            throw new RuntimeException("Region must be a Rectangle or Volume");
+        }
+        if (region.dimensions() > MAX_DIMENSIONS) {
+            throw new RuntimeException("dimension is > " + MAX_DIMENSIONS);
+        }
+        if (bucketSize < 1) {
+            throw new RuntimeException("bucketSize is < 1");
+        }
+        this.dims = region.dimensions();
+        this.planar = region instanceof Rectangle;
+        this.bucketSize = bucketSize;
+        double[] min = new double[dims];
+        double[] max = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            min[axis] = Bounds.lower(region, axis);
+            max[axis] = Bounds.upper(region, axis);
+        }
+        this.root = new Node(min, max, 0, bucketSize);
+    }
+
+    /**
+     * Gibt den Bereich des Baums zurück.
+     *
+     * @return Rectangle bzw. Volume
+     */
+    public Geometry getRegion() {
+        return Bounds.box(root.min, root.max, planar);
+    }
+
+    /**
+     * Gibt die Anzahl der Punkte zurück.
+     *
+     * @return Anzahl
+     */
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * Fügt einen Punkt ein.
+     *
+     * @param point Point2D (Quadtree) bzw. Point (n-D)
+     * @throws RuntimeException if the point does not match the tree, lies
+     *                          outside of its region or has NaN coordinates
+     */
+    public void insert(Geometry point) {
+        double[] c = coordinates(point);
+        Node region = root;
+        for (int axis = 0; axis < dims; axis++) {
+            // negiert, damit auch NaN abgewiesen wird
+            if (!(c[axis] >= region.min[axis] && c[axis] <= region.max[axis])) {
+                throw new RuntimeException("Point lies outside of the region");
+            }
+        }
+        writeLock.lock();
+        try {
+            root = insert(collapsePending(root), c, point);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Fügt ein und gibt die Kopie des Knotens zurück (Pfadkopie).
+     */
+    private Node insert(Node node, double[] c, Geometry point) {
+        Node copy = new Node(node);
+        copy.size++;
+        if (copy.children == null) {
+            append(copy, c, point);
+            if (copy.count > bucketSize && copy.depth < MAX_DEPTH) {
+                split(copy);
+            }
+            return copy;
+        }
+        int index = childIndex(copy, c);
+        Node child = copy.children[index] != null ? copy.children[index] : child(copy, c);
+        copy.children[index] = insert(child, c, point);
+        return copy;
+    }
+
+    /**
+     * Entfernt einen Punkt mit genau diesen Koordinaten.
+     *
+     * @param point Point2D (Quadtree) bzw. Point (n-D)
+     * @return true, wenn ein Punkt entfernt wurde
+     * @throws RuntimeException if the point does not match the tree
+     */
+    public boolean remove(Geometry point) {
+        double[] c = coordinates(point);
+        writeLock.lock();
+        try {
+            Node current = collapsePending(root);
+            Node updated = remove(current, c);
+            root = updated != null ? updated : current;
+            return updated != null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Entfernt und gibt die Kopie des Knotens zurück (Pfadkopie),
+     * <code>null</code>, wenn der Punkt nicht enthalten ist. Unterbesetzte
+     * Teilbäume werden vorgemerkt.
+     */
+    private Node remove(Node node, double[] c) {
+        if (node.children == null) {
+            int slot = find(node, c);
+            if (slot < 0) {
+                return null;
+            }
+            // Im Blatt: letzten Eintrag an die freie Stelle verschieben
+            Node copy = new Node(node);
+            copy.size--;
+            copy.count--;
+            System.arraycopy(copy.coords, copy.count * dims, copy.coords, slot * dims, dims);
+            copy.items[slot] = copy.items[copy.count];
+            copy.items[copy.count] = null;
+            return copy;
+        }
+        int index = childIndex(node, c);
+        Node child = node.children[index];
+        Node updated = child == null ? null : remove(child, c);
+        if (updated == null) {
+            return null;
+        }
+        Node copy = new Node(node);
+        copy.children[index] = updated;
+        copy.size--;
+        if (copy.size <= bucketSize / 2) {
+            double[] center = new double[dims];
+            for (int axis = 0; axis < dims; axis++) {
+                center[axis] = (copy.min[axis] + copy.max[axis]) / 2;
+            }
+            pendingCollapse.add(center);
+            pendingDepth.add(copy.depth);
+        }
+        return copy;
+    }
+
+    /**
+     * Fasst alle vorgemerkten Teilbäume sofort zusammen.
+     */
+    public void compact() {
+        writeLock.lock();
+        try {
+            root = collapsePending(root);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Findet alle Punkte innerhalb (oder auf dem Rand) des Anfragebereichs.
+     *
+     * @param box Anfragebereich (z.B. Rectangle bzw. Volume)
+     * @return gefundene Punkte
+     * @throws RuntimeException if the dimensions do not match
+     */
+    public List<Geometry> rangeQuery(Geometry box) {
+        double[] qMin = new double[dims];
+        double[] qMax = new double[dims];
+        queryBounds(box, qMin, qMax);
+        List<Geometry> result = new ArrayList<>();
+        collect(root, qMin, qMax, result);
+        return result;
+    }
+
+    /**
+     * Zählt alle Punkte innerhalb (oder auf dem Rand) des Anfragebereichs.
+     *
+     * @param box Anfragebereich
+     * @return Anzahl
+     * @throws RuntimeException if the dimensions do not match
+     */
+    public int count(Geometry box) {
+        double[] qMin = new double[dims];
+        double[] qMax = new double[dims];
+        queryBounds(box, qMin, qMax);
+        return count(root, qMin, qMax);
+    }
+
+    /**
+     * Findet den Punkt mit dem kleinsten euklidischen Abstand.
+     *
+     * @param point Anfragepunkt
+     * @return nächster Punkt oder <code>null</code>, wenn der Baum leer ist
+     * @throws RuntimeException if the point does not match the tree
+     */
+    public Geometry nearest(Geometry point) {
+        double[] c = coordinates(point);
+        Nearest best = new Nearest();
+        nearest(root, c, best);
+        return best.item;
+    }
+
+    /**
+     * Gibt die Bounds aller Punkte zurück (nicht den Bereich des Baums).
+     *
+     * @return Rectangle bzw. Volume oder <code>null</code>, wenn leer
+     */
+    public Geometry bounds() {
+        return aggregate(root);
+    }
+
+    /**
+     * Aktuelle Wurzel (für {@link IndexSnapshot}): ein unveränderlicher Stand,
+     * der ohne Sperre gelesen werden darf.
+     */
+    Node root() {
+        return root;
+    }
+
+    int dimensions() {
+        return dims;
+    }
+
+    boolean isPlanar() {
+        return planar;
+    }
+
+    /**
+     * Bounds eines Teilbaums, bei Bedarf rekursiv über encapsulate berechnet
+     * und im Knoten gemerkt (aggregate vor dirty schreiben).
+     */
+    private Geometry aggregate(Node node) {
+        if (!node.dirty) {
+            return node.aggregate;
+        }
+        Geometry result = null;
+        if (node.children == null) {
+            if (node.count > 0) {
+                double[] lo = Arrays.copyOf(node.coords, dims);
+                double[] hi = Arrays.copyOf(node.coords, dims);
+                for (int i = 1; i < node.count; i++) {
+                    for (int axis = 0; axis < dims; axis++) {
+                        double v = node.coords[i * dims + axis];
+                        lo[axis] = Math.min(lo[axis], v);
+                        hi[axis] = Math.max(hi[axis], v);
+                    }
+                }
+                result = Bounds.box(lo, hi, planar);
+            }
+        } else {
+            for (Node child : node.children) {
+                if (child != null && child.size > 0) {
+                    Geometry childBounds = aggregate(child);
+                    result = result == null ? childBounds : result.encapsulate(childBounds);
+                }
+            }
+        }
+        node.aggregate = result;
+        node.dirty = false;
+        return result;
+    }
+
+    /**
+     * Teilt ein übervolles, noch unveröffentlichtes Blatt in 2^d Kinder.
+     */
+    private void split(Node node) {
+        double[] coords = node.coords;
+        Geometry[] items = node.items;
+        int count = node.count;
+        node.children = new Node[1 << dims];
+        node.coords = null;
+        node.items = null;
+        node.count = 0;
+
+        double[] c = new double[dims];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(coords, i * dims, c, 0, dims);
+            Node child = child(node, c);
+            child.size++;
+            append(child, c, items[i]);
+        }
+        for (Node child : node.children) {
+            if (child != null && child.count > bucketSize && child.depth < MAX_DEPTH) {
+                split(child);
+            }
+        }
+    }
+
+    /**
+     * Fasst alle vorgemerkten, noch unterbesetzten Teilbäume zu Blättern
+     * zusammen und gibt die (ggf. neue) Wurzel zurück. Flache Knoten zuerst:
+     * ein zusammengefasster Vorfahre erledigt alle Knoten darunter.
+     */
+    private Node collapsePending(Node node) {
+        for (int depth = 0; depth <= MAX_DEPTH && !pendingCollapse.isEmpty(); depth++) {
+            for (int i = 0; i < pendingCollapse.size(); i++) {
+                if (pendingDepth.get(i) == depth) {
+                    node = collapse(node, pendingCollapse.get(i), depth);
+                }
+            }
+        }
+        pendingCollapse.clear();
+        pendingDepth.clear();
+        return node;
+    }
+
+    /**
+     * Ersetzt den Knoten der Tiefe depth, der center enthält, durch ein
+     * Blatt, falls er noch unterbesetzt ist (Pfadkopie).
+     *
+     * @return node selbst, wenn sich nichts ändert, sonst seine Kopie
+     */
+    private Node collapse(Node node, double[] center, int depth) {
+        if (node.children == null) {
+            return node;
+        }
+        if (node.depth == depth) {
+            if (node.size > bucketSize / 2) {
+                return node;
+            }
+            Node leaf = new Node(node.min, node.max, node.depth, bucketSize);
+            gather(node, leaf);
+            leaf.size = leaf.count;
+            return leaf;
+        }
+        int index = childIndex(node, center);
+        Node child = node.children[index];
+        Node updated = child == null ? null : collapse(child, center, depth);
+        if (updated == null || updated == child) {
+            return node;
+        }
+        Node copy = new Node(node);
+        copy.children[index] = updated;
+        return copy;
+    }
+
+    /**
+     * Sammelt alle Punkte eines Teilbaums in das Blatt target.
+     */
+    private void gather(Node node, Node target) {
+        if (node.children == null) {
+            double[] c = new double[dims];
+            for (int i = 0; i < node.count; i++) {
+                System.arraycopy(node.coords, i * dims, c, 0, dims);
+                append(target, c, node.items[i]);
+            }
+            return;
+        }
+        for (Node child : node.children) {
+            if (child != null) {
+                gather(child, target);
+            }
+        }
+    }
+
+    /**
+     * Hängt einen Punkt an ein Blatt an (Bucket wächst bei Bedarf).
+     */
+    private void append(Node leaf, double[] c, Geometry item) {
+        if (leaf.count == leaf.items.length) {
+            leaf.items = Arrays.copyOf(leaf.items, leaf.count * 2);
+            leaf.coords = Arrays.copyOf(leaf.coords, leaf.count * 2 * dims);
+        }
+        System.arraycopy(c, 0, leaf.coords, leaf.count * dims, dims);
+        leaf.items[leaf.count++] = item;
+    }
+
+    /**
+     * Index des Kindes, in dessen Bereich c liegt:
+     * Bit a gesetzt ⇔ c[a] liegt in der oberen Hälfte von Achse a.
+     */
+    private int childIndex(Node node, double[] c) {
+        int index = 0;
+        for (int axis = 0; axis < dims; axis++) {
+            if (c[axis] >= (node.min[axis] + node.max[axis]) / 2) {
+                index |= 1 << axis;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gibt das Kind für c zurück und legt es bei Bedarf an (nur für
+     * unveröffentlichte Knoten).
+     */
+    private Node child(Node node, double[] c) {
+        int index = childIndex(node, c);
+        Node child = node.children[index];
+        if (child == null) {
+            double[] min = new double[dims];
+            double[] max = new double[dims];
+            for (int axis = 0; axis < dims; axis++) {
+                double mid = (node.min[axis] + node.max[axis]) / 2;
+                boolean upper = (index & (1 << axis)) != 0;
+                min[axis] = upper ? mid : node.min[axis];
+                max[axis] = upper ? node.max[axis] : mid;
+            }
+            child = new Node(min, max, node.depth + 1, bucketSize);
+            node.children[index] = child;
+        }
+        return child;
+    }
+
+    /**
+     * Position eines Punktes mit genau diesen Koordinaten im Blatt, sonst -1.
+     */
+    private int find(Node leaf, double[] c) {
+        for (int i = 0; i < leaf.count; i++) {
+            boolean equal = true;
+            for (int axis = 0; axis < dims && equal; axis++) {
+                equal = leaf.coords[i * dims + axis] == c[axis];
+            }
+            if (equal) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void collect(Node node, double[] qMin, double[] qMax, List<Geometry> result) {
+        if (node.size == 0 || !overlaps(node, qMin, qMax)) {
+            return;
+        }
+        if (node.children == null) {
+            for (int i = 0; i < node.count; i++) {
+                if (inside(node.coords, i, qMin, qMax)) {
+                    result.add(node.items[i]);
+                }
+            }
+            return;
+        }
+        for (Node child : node.children) {
+            if (child != null) {
+                collect(child, qMin, qMax, result);
+            }
+        }
+    }
+
+    private int count(Node node, double[] qMin, double[] qMax) {
+        if (node.size == 0 || !overlaps(node, qMin, qMax)) {
+            return 0;
+        }
+        if (contains(qMin, qMax, node)) {
+            return node.size; // ganzer Teilbaum liegt im Anfragebereich
+        }
+        int n = 0;
+        if (node.children == null) {
+            for (int i = 0; i < node.count; i++) {
+                if (inside(node.coords, i, qMin, qMax)) {
+                    n++;
+                }
+            }
+            return n;
+        }
+        for (Node child : node.children) {
+            if (child != null) {
+                n += count(child, qMin, qMax);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Bester Kandidat der Nächste-Nachbarn-Suche.
+     */
+    private static final class Nearest {
+        Geometry item;
+        double distance = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Tiefensuche, Kinder nach Abstand ihres Bereichs sortiert,
+     * Teilbäume weiter weg als der beste Kandidat werden übersprungen.
+     */
+    private void nearest(Node node, double[] c, Nearest best) {
+        if (node.size == 0 || distance(node, c) >= best.distance) {
+            return;
+        }
+        if (node.children == null) {
+            for (int i = 0; i < node.count; i++) {
+                double d = 0;
+                for (int axis = 0; axis < dims; axis++) {
+                    double diff = node.coords[i * dims + axis] - c[axis];
+                    d += diff * diff;
+                }
+                if (d < best.distance) {
+                    best.distance = d;
+                    best.item = node.items[i];
+                }
+            }
+            return;
+        }
+        // Zuerst das Kind, in dem c liegt, dann die übrigen
+        Node first = node.children[childIndex(node, c)];
+        if (first != null) {
+            nearest(first, c, best);
+        }
+        for (Node child : node.children) {
+            if (child != null && child != first) {
+                nearest(child, c, best);
+            }
+        }
+    }
+
+    /**
+     * Quadrierter Abstand von c zum Bereich des Knotens.
+     */
+    private double distance(Node node, double[] c) {
+        double d = 0;
+        for (int axis = 0; axis < dims; axis++) {
+            double diff = Math.max(0, Math.max(node.min[axis] - c[axis], c[axis] - node.max[axis]));
+            d += diff * diff;
+        }
+        return d;
+    }
+
+    private boolean overlaps(Node node, double[] qMin, double[] qMax) {
+        for (int axis = 0; axis < dims; axis++) {
+            if (node.min[axis] > qMax[axis] || node.max[axis] < qMin[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contains(double[] qMin, double[] qMax, Node node) {
+        for (int axis = 0; axis < dims; axis++) {
+            if (node.min[axis] < qMin[axis] || node.max[axis] > qMax[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean inside(double[] coords, int i, double[] qMin, double[] qMax) {
+        for (int axis = 0; axis < dims; axis++) {
+            double v = coords[i * dims + axis];
+            if (v < qMin[axis] || v > qMax[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Liest die Bounds eines Anfragebereichs.
+     */
+    private void queryBounds(Geometry box, double[] qMin, double[] qMax) {
+        if (box == null || box.dimensions() != dims) {
+            throw new RuntimeException("Geometry has different dimensions");
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            qMin[axis] = Bounds.lower(box, axis);
+            qMax[axis] = Bounds.upper(box, axis);
+        }
+    }
+
+    /**
+     * Liest die Koordinaten eines Punktes und prüft seinen Typ.
+     */
+    private double[] coordinates(Geometry point) {
+        boolean matches = planar ? point instanceof Point2D
+            : point instanceof Point && point.dimensions() == dims;
+        if (!matches) {
+            throw new RuntimeException("Geometry does not match the tree");
+        }
+        double[] c = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            c[axis] = Bounds.lower(point, axis);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,319 @@
+/**
+ * Maintains the bounding box of all Geometries seen within a sliding time window.
+ *
+ * PROBLEM:
+ * - "Ausdehnung aller Positionen der letzten N Sekunden"
+ * - encapsulate über das ganze Fenster bei jedem Tick → O(n) pro Abfrage
+ *
+ * LÖSUNG: Monotone Deques je Achse
+ * - Ereignisse liegen in zeitlicher Reihenfolge in einem Ringpuffer
+ * - Min-Deque einer Achse: Ereignisse mit aufsteigender unterer Grenze
+ *   → ein neues Ereignis verdrängt von hinten alle mit größerem/gleichem Wert,
+ *     denn diese laufen früher ab und können nie mehr Minimum werden
+ * - Max-Deque analog mit absteigender oberer Grenze
+ * - Vorne liegt jeweils das Minimum bzw. Maximum des Fensters
+ * - Jedes Ereignis wird je Deque höchstens einmal eingefügt und entfernt
+ *   → add/evict amortisiert O(d), snapshot() in O(d)
+ *
+ * FENSTER:
+ * Zum Zeitpunkt now enthält das Fenster alle Ereignisse mit
+ * timestamp &gt; now - windowLength. Zeitstempel müssen aufsteigend sein
+ * (gleiche Zeitstempel sind erlaubt), die Einheit ist frei wählbar.
+ *
+ * SPEICHER-LAYOUT (flach, Ringpuffer):
+ * lower[slot * d + axis], upper[slot * d + axis], slot = seq &amp; mask
+ * Deques: minQueue[axis * capacity + (pos &amp; mask)] = seq des Ereignisses
+ *
+ * NICHT thread-sicher.
+ *
+ * BEISPIEL:
+ * SlidingExtent extent = new SlidingExtent(10_000); // 10 s in ms
+ * extent.add(1_000, new Point2D(0, 0));
+ * extent.add(5_000, new Point2D(5, 5));
+ * extent.snapshot(12_000) → Rectangle[Point2D(5.00, 5.00), Point2D(5.00, 5.00)]
+ */
+public class SlidingExtent {
+
+    /**
+     * Anfangsgröße des Ringpuffers (wird bei Bedarf verdoppelt).
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Länge des Fensters in Einheiten der Zeitstempel.
+     */
+    private final long windowLength;
+
+    /**
+     * Anzahl der Dimensionen, 0 solange noch nichts eingefügt wurde.
+     */
+    private int dims;
+
+    /**
+     * true → snapshot() liefert ein Rectangle, sonst ein Volume.
+     */
+    private boolean planar;
+
+    /**
+     * Größe des Ringpuffers (Zweierpotenz) und capacity - 1.
+     */
+    private int capacity;
+    private int mask;
+
+    /**
+     * Ereignisse: Zeitstempel und Bounds, Index slot bzw. slot * dims + axis.
+     */
+    private long[] timestamps;
+    private double[] lower;
+    private double[] upper;
+
+    /**
+     * Laufende Nummern: ältestes Ereignis im Fenster und nächstes Ereignis.
+     */
+    private long first;
+    private long next;
+
+    /**
+     * Monotone Deques je Achse mit Kopf-/Endzählern.
+     */
+    private long[] minQueue;
+    private long[] maxQueue;
+    private long[] minHead;
+    private long[] minTail;
+    private long[] maxHead;
+    private long[] maxTail;
+
+    /**
+     * Zeitstempel des letzten Ereignisses.
+     */
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param windowLength Länge des Fensters (größer 0)
+     * @throws RuntimeException if windowLength is not positive
+     */
+    public SlidingExtent(long windowLength) {
+        if (windowLength <= 0) {
+            throw new RuntimeException("windowLength is <= 0");
+        }
+        this.windowLength = windowLength;
+    }
+
+    /**
+     * Fügt ein Ereignis hinzu und entfernt abgelaufene Ereignisse.
+     *
+     * @param timestamp Zeitstempel (nicht kleiner als der vorherige)
+     * @param g         Geometrie (meist Point2D oder Point)
+     * @throws RuntimeException if the timestamp goes backwards or <code>g</code>
+     *                          does not match the geometries added before
+     */
+    public void add(long timestamp, Geometry g) {
+        if (g == null) {
+            throw new RuntimeException("Geometry is null");
+        }
+        if (dims == 0) {
+            init(g.dimensions(), Bounds.isPlanar(g));
+        } else if (g.dimensions() != dims || Bounds.isPlanar(g) != planar) {
+            throw new RuntimeException("Geometry does not match the extent");
+        }
+        int base = append(timestamp);
+        for (int axis = 0; axis < dims; axis++) {
+            lower[base + axis] = Bounds.lower(g, axis);
+            upper[base + axis] = Bounds.upper(g, axis);
+        }
+        pushAll();
+    }
+
+    /**
+     * Fügt einen Punkt aus Koordinaten-Spalten hinzu (ohne Allokation).
+     * Beim ersten Aufruf bestimmen 2 Spalten Point2D, sonst Point.
+     *
+     * @param timestamp Zeitstempel (nicht kleiner als der vorherige)
+     * @param columns   Koordinaten-Spalten, columns[axis][row]
+     * @param row       Zeile
+     * @throws RuntimeException if the timestamp goes backwards or the number
+     *                          of columns does not match
+     */
+    public void add(long timestamp, double[][] columns, int row) {
+        if (dims == 0) {
+            init(columns.length, columns.length == 2);
+        } else if (columns.length != dims) {
+            throw new RuntimeException("Expected " + dims + " columns");
+        }
+        int base = append(timestamp);
+        for (int axis = 0; axis < dims; axis++) {
+            lower[base + axis] = columns[axis][row];
+            upper[base + axis] = columns[axis][row];
+        }
+        pushAll();
+    }
+
+    /**
+     * Entfernt alle Ereignisse mit timestamp &lt;= now - windowLength.
+     *
+     * @param now aktuelle Zeit
+     */
+    public void evict(long now) {
+        long limit = now - windowLength;
+        while (first < next && timestamps[(int) first & mask] <= limit) {
+            first++;
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            int offset = axis * capacity;
+            while (minHead[axis] < minTail[axis] && minQueue[offset + ((int) minHead[axis] & mask)] < first) {
+                minHead[axis]++;
+            }
+            while (maxHead[axis] < maxTail[axis] && maxQueue[offset + ((int) maxHead[axis] & mask)] < first) {
+                maxHead[axis]++;
+            }
+        }
+    }
+
+    /**
+     * Gibt die Ausdehnung aller Ereignisse im Fenster zum Zeitpunkt now zurück.
+     *
+     * @param now aktuelle Zeit
+     * @return Rectangle bzw. Volume oder <code>null</code>, wenn das Fenster leer ist
+     */
+    public Geometry snapshot(long now) {
+        evict(now);
+        if (first == next) {
+            return null;
+        }
+        double[] min = new double[dims];
+        double[] max = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            int offset = axis * capacity;
+            long minSeq = minQueue[offset + ((int) minHead[axis] & mask)];
+            long maxSeq = maxQueue[offset + ((int) maxHead[axis] & mask)];
+            min[axis] = lower[((int) minSeq & mask) * dims + axis];
+            max[axis] = upper[((int) maxSeq & mask) * dims + axis];
+        }
+        return Bounds.box(min, max, planar);
+    }
+
+    /**
+     * Gibt die Anzahl der Ereignisse im Fenster zurück (Stand des letzten
+     * add()/evict()/snapshot()).
+     *
+     * @return Anzahl
+     */
+    public int size() {
+        return (int) (next - first);
+    }
+
+    /**
+     * Gibt die Länge des Fensters zurück.
+     *
+     * @return Länge in Einheiten der Zeitstempel
+     */
+    public long getWindowLength() {
+        return windowLength;
+    }
+
+    /**
+     * Prüft den Zeitstempel, entfernt Abgelaufenes und reserviert den Slot
+     * für das neue Ereignis.
+     *
+     * @return Index von lower/upper für Achse 0
+     */
+    private int append(long timestamp) {
+        if (timestamp < lastTimestamp) {
+            throw new RuntimeException("Timestamps must not decrease");
+        }
+        lastTimestamp = timestamp;
+        evict(timestamp);
+        if (next - first == capacity) {
+            grow();
+        }
+        int slot = (int) next & mask;
+        timestamps[slot] = timestamp;
+        return slot * dims;
+    }
+
+    /**
+     * Trägt das Ereignis next in alle Deques ein.
+     *
+     * SCHRITT je Achse:
+     * 1. Hinten alle Einträge mit Wert &gt;= neuem Minimum (bzw. &lt;= neuem
+     *    Maximum) entfernen - sie sind älter und nie mehr Extremwert
+     * 2. Neues Ereignis hinten anhängen
+     */
+    private void pushAll() {
+        long seq = next++;
+        int base = ((int) seq & mask) * dims;
+        for (int axis = 0; axis < dims; axis++) {
+            int offset = axis * capacity;
+            double lo = lower[base + axis];
+            while (minTail[axis] > minHead[axis]
+                    && !(lower[((int) minQueue[offset + ((int) (minTail[axis] - 1) & mask)] & mask) * dims + axis] < lo)) {
+                minTail[axis]--;
+            }
+            minQueue[offset + ((int) minTail[axis]++ & mask)] = seq;
+
+            double hi = upper[base + axis];
+            while (maxTail[axis] > maxHead[axis]
+                    && !(upper[((int) maxQueue[offset + ((int) (maxTail[axis] - 1) & mask)] & mask) * dims + axis] > hi)) {
+                maxTail[axis]--;
+            }
+            maxQueue[offset + ((int) maxTail[axis]++ & mask)] = seq;
+        }
+    }
+
+    /**
+     * Legt die Arrays beim ersten add() an.
+     */
+    private void init(int dims, boolean planar) {
+        this.dims = dims;
+        this.planar = planar;
+        allocate(INITIAL_CAPACITY);
+        this.minHead = new long[dims];
+        this.minTail = new long[dims];
+        this.maxHead = new long[dims];
+        this.maxTail = new long[dims];
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.lower = new double[capacity * dims];
+        this.upper = new double[capacity * dims];
+        this.minQueue = new long[capacity * dims];
+        this.maxQueue = new long[capacity * dims];
+    }
+
+    /**
+     * Verdoppelt den Ringpuffer. Alle Einträge behalten ihre laufenden
+     * Nummern und werden nur an die neue Position (seq &amp; mask) kopiert.
+     * Amortisiert O(d) pro add().
+     */
+    private void grow() {
+        int oldCapacity = capacity;
+        int oldMask = mask;
+        long[] oldTimestamps = timestamps;
+        double[] oldLower = lower;
+        double[] oldUpper = upper;
+        long[] oldMin = minQueue;
+        long[] oldMax = maxQueue;
+
+        allocate(oldCapacity * 2);
+        for (long seq = first; seq < next; seq++) {
+            int from = (int) seq & oldMask;
+            int to = (int) seq & mask;
+            timestamps[to] = oldTimestamps[from];
+            System.arraycopy(oldLower, from * dims, lower, to * dims, dims);
+            System.arraycopy(oldUpper, from * dims, upper, to * dims, dims);
+        }
+        for (int axis = 0; axis < dims; axis++) {
+            for (long pos = minHead[axis]; pos < minTail[axis]; pos++) {
+                minQueue[axis * capacity + ((int) pos & mask)] = oldMin[axis * oldCapacity + ((int) pos & oldMask)];
+            }
+            for (long pos = maxHead[axis]; pos < maxTail[axis]; pos++) {
+                maxQueue[axis * capacity + ((int) pos & mask)] = oldMax[axis * oldCapacity + ((int) pos & oldMask)];
+            }
+        }
+    }
+}
@@ -0,0 +1,367 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a dataset of Geometries into K spatially balanced partitions.
+ *
+ * ZWECK:
+ * - Verteilung eines Datensatzes auf K Knoten (Shards)
+ * - Jede Partition ist ein achsenparalleler Bereich (Rectangle bzw. Volume)
+ * - Jede Geometrie hat genau EINEN Besitzer (owner)
+ *
+ * ALGORITHMUS (KD-Split):
+ * 1. Globale Ausdehnung über encapsulate berechnen
+ * 2. Referenzpunkt jeder Geometrie = Mittelpunkt ihrer Bounds
+ * 3. Rekursiv teilen: Achse mit der größten Streuung wählen,
+ *    an der Quantile k1/k teilen (k1 = k/2) → beide Seiten
+ *    bekommen anteilig gleich viele Elemente; gleiche Mittelpunkte bleiben
+ *    zusammen auf der näheren Seite (so, wie owner() sie zuordnet)
+ * 4. Blätter des Baums = Partitionen
+ *
+ * GRENZÜBERSCHREITENDE GEOMETRIEN:
+ * - owner(): Partition, die den Mittelpunkt enthält
+ * - overlapping(): ALLE Partitionen, die die Geometrie schneiden
+ *
+ * BEISPIEL:
+ * SpatialPartitioner sp = new SpatialPartitioner(points, 4);
+ * int node = sp.owner(new Point2D(3, 5));
+ */
+public class SpatialPartitioner {
+
+    /**
+     * Globale Ausdehnung aller Geometrien des Datensatzes.
+     */
+    private final Geometry extent;
+
+    /**
+     * Bereiche der Partitionen, Index = Partitionsnummer.
+     */
+    private final List<Geometry> partitions = new ArrayList<>();
+
+    /**
+     * Entscheidungsbaum als Arrays (innerer Knoten i):
+     * - splitAxis[i], splitValue[i]: Koordinate &lt; splitValue → links
+     * - left[i], right[i]: Kind-Knoten oder -(Partition + 1) für Blätter
+     */
+    private int[] splitAxis;
+    private double[] splitValue;
+    private int[] left;
+    private int[] right;
+    private int nodeCount;
+
+    /**
+     * Wurzel des Baums (Kodierung wie left/right).
+     */
+    private final int root;
+
+    /**
+     * Creates a partitioning of the given geometries into <code>k</code> parts.
+     *
+     * @param data die zu verteilenden Geometrien (alle mit gleicher Dimension)
+     * @param k    Anzahl der Partitionen (mindestens 1)
+     * @throws RuntimeException if data is empty, k is lesser than 1 or the
+     *                          geometries have different dimensions
+     */
+    public SpatialPartitioner(List<? extends Geometry> data, int k) {
+        if (k < 1) {
+            throw new RuntimeException("k is < 1");
+        }
+        if (data.isEmpty()) {
+            throw new RuntimeException("Cannot partition an empty dataset");
+        }
+
+        // SCHRITT 1: Globale Ausdehnung über encapsulate
+        Geometry bounds = data.get(0);
+        for (int i = 1; i < data.size(); i++) {
+            bounds = bounds.encapsulate(data.get(i));
+            if (bounds == null) {
+                throw new RuntimeException("Geometries have different dimensions");
+            }
+        }
+        int dims = bounds.dimensions();
+        double[] min = new double[dims];
+        double[] max = new double[dims];
+        for (int axis = 0; axis < dims; axis++) {
+            min[axis] = Bounds.lower(bounds, axis);
+            max[axis] = Bounds.upper(bounds, axis);
+        }
+        boolean planar = Bounds.isPlanar(bounds);
+        this.extent = Bounds.box(min, max, planar);
+
+        // SCHRITT 2: Referenzpunkte (Mittelpunkte) spaltenweise ablegen
+        int n = data.size();
+        double[][] centers = new double[dims][n];
+        for (int i = 0; i < n; i++) {
+            Geometry g = data.get(i);
+            for (int axis = 0; axis < dims; axis++) {
+                centers[axis][i] = center(g, axis);
+            }
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+
+        // SCHRITT 3: Rekursiv teilen (k - 1 innere Knoten)
+        this.splitAxis = new int[Math.max(1, k - 1)];
+        this.splitValue = new double[splitAxis.length];
+        this.left = new int[splitAxis.length];
+        this.right = new int[splitAxis.length];
+        this.root = build(centers, order, 0, n, k, min, max, planar);
+    }
+
+    /**
+     * Baut den Teilbaum für order[from, to) mit k Partitionen.
+     *
+     * @return Knotenindex oder -(Partition + 1) für ein Blatt
+     */
+    private int build(double[][] centers, int[] order, int from, int to, int k,
+                      double[] min, double[] max, boolean planar) {
+        if (k == 1) {
+            partitions.add(Bounds.box(min, max, planar));
+            return -partitions.size();
+        }
+
+        // Achse mit der größten Streuung der Mittelpunkte wählen
+        int axis = widestAxis(centers, order, from, to, min, max);
+
+        // Quantil-Position: k1 von k Anteilen nach links
+        int k1 = k / 2;
+        int mid = from + (int) ((long) (to - from) * k1 / k);
+        double split;
+        if (mid < to) {
+            select(centers[axis], order, from, to, mid);
+            split = centers[axis][order[mid]];
+
+            // Gleiche Mittelpunkte dürfen nicht auf beiden Seiten liegen, sonst
+            // passt owner() (< split → links) nicht zur gebauten Aufteilung:
+            // alle Gleichen an das nähere Ende ihres Laufs verschieben
+            int[] run = partitionEqual(centers[axis], order, from, to, split);
+            if (mid - run[0] <= run[1] - mid) {
+                mid = run[0];
+            } else {
+                mid = run[1];
+                split = Math.nextUp(split); // Gleiche gehen nach links
+            }
+        } else {
+            // Keine Elemente mehr: Bereich geometrisch halbieren
+            split = (min[axis] + max[axis]) / 2;
+        }
+
+        int node = nodeCount++;
+        splitAxis[node] = axis;
+        splitValue[node] = split;
+
+        // nextUp(split) kann über den Bereich hinausragen
+        double[] leftMax = max.clone();
+        leftMax[axis] = Math.min(split, max[axis]);
+        double[] rightMin = min.clone();
+        rightMin[axis] = leftMax[axis];
+        left[node] = build(centers, order, from, mid, k1, min, leftMax, planar);
+        right[node] = build(centers, order, mid, to, k - k1, rightMin, max, planar);
+        return node;
+    }
+
+    /**
+     * Bestimmt die Achse, in der die Mittelpunkte am weitesten streuen.
+     * Ohne Elemente entscheidet die Ausdehnung des Bereichs.
+     */
+    private static int widestAxis(double[][] centers, int[] order, int from, int to,
+                                  double[] min, double[] max) {
+        int best = 0;
+        double bestSpread = -1;
+        for (int axis = 0; axis < centers.length; axis++) {
+            double spread;
+            if (from == to) {
+                spread = max[axis] - min[axis];
+            } else {
+                double lo = Double.POSITIVE_INFINITY;
+                double hi = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; i++) {
+                    double c = centers[axis][order[i]];
+                    lo = Math.min(lo, c);
+                    hi = Math.max(hi, c);
+                }
+                spread = hi - lo;
+            }
+            if (spread > bestSpread) {
+                bestSpread = spread;
+                best = axis;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Quickselect: ordnet order[from, to) so um, dass an Position nth das
+     * Element steht, das bei vollständiger Sortierung dort stehen würde.
+     */
+    private static void select(double[] keys, int[] order, int from, int to, int nth) {
+        int lo = from;
+        int hi = to - 1;
+        while (lo < hi) {
+            double pivot = keys[order[(lo + hi) >>> 1]];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[order[i]] < pivot) {
+                    i++;
+                }
+                while (keys[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (nth <= j) {
+                hi = j;
+            } else if (nth >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ordnet order[from, to) in die Schlüssel &lt; split, == split und &gt; split.
+     *
+     * @return {Beginn, Ende} des Laufs der Schlüssel == split
+     */
+    private static int[] partitionEqual(double[] keys, int[] order, int from, int to, double split) {
+        int lt = from;
+        int i = from;
+        int gt = to;
+        while (i < gt) {
+            double key = keys[order[i]];
+            if (key < split) {
+                swap(order, lt++, i++);
+            } else if (key > split) {
+                swap(order, i, --gt);
+            } else {
+                i++;
+            }
+        }
+        return new int[] {lt, gt};
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int tmp = order[i];
+        order[i] = order[j];
+        order[j] = tmp;
+    }
+
+    /**
+     * Mittelpunkt der Bounds einer Geometrie in einer Achse.
+     */
+    private static double center(Geometry g, int axis) {
+        return (Bounds.lower(g, axis) + Bounds.upper(g, axis)) / 2;
+    }
+
+    /**
+     * Gibt die globale Ausdehnung des Datensatzes zurück.
+     *
+     * @return Rectangle oder Volume um alle Geometrien
+     */
+    public Geometry getExtent() {
+        return extent;
+    }
+
+    /**
+     * Gibt die Anzahl der Partitionen zurück.
+     *
+     * @return K
+     */
+    public int size() {
+        return partitions.size();
+    }
+
+    /**
+     * Gibt den Bereich einer Partition zurück.
+     *
+     * @param partition Partitionsnummer (0 bis size()-1)
+     * @return Rectangle oder Volume der Partition
+     */
+    public Geometry getPartition(int partition) {
+        return partitions.get(partition);
+    }
+
+    /**
+     * Bestimmt die besitzende Partition einer Geometrie.
+     *
+     * Entscheidend ist der Mittelpunkt der Bounds. Geometrien außerhalb der
+     * Ausdehnung werden der nächstgelegenen Partition zugeordnet.
+     *
+     * @param g die Geometrie
+     * @return Partitionsnummer
+     * @throws RuntimeException if the dimensions do not match
+     */
+    public int owner(Geometry g) {
+        checkDimensions(g);
+        int node = root;
+        while (node >= 0) {
+            node = center(g, splitAxis[node]) < splitValue[node] ? left[node] : right[node];
+        }
+        return -node - 1;
+    }
+
+    /**
+     * Bestimmt alle Partitionen, die die Geometrie schneiden.
+     * Für Geometrien über Partitionsgrenzen hinweg sind das mehrere.
+     *
+     * @param g die Geometrie
+     * @return Partitionsnummern, aufsteigend
+     * @throws RuntimeException if the dimensions do not match
+     */
+    public int[] overlapping(Geometry g) {
+        checkDimensions(g);
+        List<Integer> hits = new ArrayList<>();
+        collect(root, g, hits);
+        return hits.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /**
+     * Sammelt rekursiv alle Blätter, deren Halbräume g schneiden.
+     */
+    private void collect(int node, Geometry g, List<Integer> hits) {
+        if (node < 0) {
+            hits.add(-node - 1);
+            return;
+        }
+        int axis = splitAxis[node];
+        if (Bounds.lower(g, axis) < splitValue[node]) {
+            collect(left[node], g, hits);
+        }
+        if (Bounds.upper(g, axis) >= splitValue[node]) {
+            collect(right[node], g, hits);
+        }
+    }
+
+    /**
+     * Ordnet jeder Geometrie ihre besitzende Partition zu.
+     *
+     * @param data die Geometrien
+     * @return owners[i] = owner(data.get(i))
+     */
+    public int[] assign(List<? extends Geometry> data) {
+        int[] owners = new int[data.size()];
+        for (int i = 0; i < owners.length; i++) {
+            owners[i] = owner(data.get(i));
+        }
+        return owners;
+    }
+
+    /**
+     * Prüft, ob die Geometrie zur Dimension der Partitionierung passt.
+     */
+    private void checkDimensions(Geometry g) {
+        if (g == null || g.dimensions() != extent.dimensions()) {
+            throw new RuntimeException("Geometry has different dimensions");
+        }
+    }
+}
@@ -0,0 +1,701 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Broad-phase collision detection for moving boxes (sweep and prune).
+ *
+ * ZWECK:
+ * - Viele achsenparallele Boxen bewegen sich von Frame zu Frame nur wenig
+ * - Gesucht: alle überlappenden Paare, genauer: welche Paare seit dem
+ *   letzten Frame neu überlappen bzw. nicht mehr überlappen
+ *
+ * ALGORITHMUS (inkrementell):
+ * - Je Achse ein Array aller Endpunkte (min/max jeder Box), sortiert
+ * - Pro Frame: Insertion Sort je Achse → wegen geringer Bewegung nur
+ *   wenige Vertauschungen, also nahezu O(n)
+ * - Überlappung auf einer Achse ändert sich NUR, wenn ein min- und ein
+ *   max-Endpunkt zweier Boxen die Reihenfolge tauschen
+ *   → jede solche Vertauschung liefert ein Kandidatenpaar
+ * - Kandidaten werden mit den aktuellen Bounds auf allen Achsen geprüft
+ *   und mit der Paarmenge abgeglichen → hinzugekommen/weggefallen
+ *
+ * NEUAUFBAU:
+ * - Kommen in einem Frame viele Boxen hinzu, wäre Insertion Sort O(n²)
+ *   → alle Achsen komplett neu sortieren, Paare per Sweep über Achse 0
+ *     neu bestimmen und mit der alten Paarmenge vergleichen
+ *
+ * PARALLEL:
+ * - Die Achsen sind unabhängig → Sortieren (inkrementell oder neu) und
+ *   Sammeln der Kandidaten laufen je Achse parallel
+ *
+ * RAND: Boxen, die sich nur berühren, überlappen (wie bei encapsulate/volume
+ * gelten die Grenzen als Teil der Box); bei gleichem Wert steht min vor max.
+ *
+ * PAARE: long mit der kleineren Handle in den oberen 32 Bit,
+ * siehe {@link #first(long)} und {@link #second(long)}.
+ *
+ * NICHT thread-sicher (step() ist intern parallel).
+ *
+ * BEISPIEL:
+ * SweepAndPrune sap = new SweepAndPrune();
+ * int a = sap.add(rectA);
+ * int b = sap.add(rectB);
+ * SweepAndPrune.Frame frame = sap.step();   // frame.added enthält (a, b)
+ * sap.update(b, movedRectB);
+ * frame = sap.step();                       // evtl. frame.removed = (a, b)
+ */
+public class SweepAndPrune {
+
+    /**
+     * Neuaufbau, wenn mehr als size / REBUILD_FRACTION Boxen hinzukommen.
+     */
+    private static final int REBUILD_FRACTION = 16;
+
+    /**
+     * Anfangsanzahl der Handles (wird bei Bedarf verdoppelt).
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Ergebnis eines Frames.
+     */
+    public static final class Frame {
+        /**
+         * Paare, die seit dem letzten Frame neu überlappen.
+         */
+        public final long[] added;
+        /**
+         * Paare, die seit dem letzten Frame nicht mehr überlappen
+         * (auch wegen remove()).
+         */
+        public final long[] removed;
+
+        private Frame(long[] added, long[] removed) {
+            this.added = added;
+            this.removed = removed;
+        }
+
+        @Override
+        public String toString() {
+            return "+" + added.length + " / -" + removed.length + " pairs";
+        }
+    }
+
+    /**
+     * Anzahl der Dimensionen, 0 solange noch nichts eingefügt wurde.
+     */
+    private int dims;
+
+    /**
+     * true für Rectangle, false für Volume.
+     */
+    private boolean planar;
+
+    /**
+     * Bounds aller Boxen, Index handle * dims + axis.
+     */
+    private double[] lower;
+    private double[] upper;
+
+    /**
+     * Zustand je Handle.
+     */
+    private byte[] state;
+    private static final byte FREE = 0;
+    private static final byte PENDING = 1;
+    private static final byte ACTIVE = 2;
+    private static final byte REMOVED = 3;
+
+    /**
+     * Sortierte Endpunkte je Achse: code = handle * 2 (+1 für max).
+     */
+    private int[][] endpoints;
+    private int endpointCount;
+
+    /**
+     * Werte der Endpunkte je Achse in Sortierreihenfolge. Werden vor dem
+     * Sortieren einmal eingesammelt → der Insertion Sort vergleicht danach
+     * nur noch zusammenhängende Werte statt verstreuter Bounds.
+     */
+    private double[][] values;
+
+    /**
+     * Hinzugefügte bzw. entfernte Handles seit dem letzten step().
+     */
+    private final IntList pendingAdds = new IntList();
+    private final IntList pendingRemoves = new IntList();
+
+    /**
+     * Freie Handles zur Wiederverwendung und nächste unbenutzte Handle.
+     */
+    private final IntList freeHandles = new IntList();
+    private int nextHandle;
+
+    /**
+     * Aktuell überlappende Paare (Stand des letzten step()).
+     */
+    private final PairSet pairs = new PairSet();
+
+    /**
+     * Fügt eine Box hinzu. Sie wird beim nächsten {@link #step()} berücksichtigt.
+     *
+     * @param box Rectangle oder Volume (Punkte sind als leere Boxen erlaubt)
+     * @return Handle der Box
+     * @throws RuntimeException if <code>box</code> does not match the dimensions
+     *                          or family of the boxes added before
+     */
+    public int add(Geometry box) {
+        checkGeometry(box);
+        int handle;
+        if (freeHandles.size > 0) {
+            handle = freeHandles.pop();
+        } else {
+            if (nextHandle == state.length) {
+                grow();
+            }
+            handle = nextHandle++;
+        }
+        state[handle] = PENDING;
+        pendingAdds.add(handle);
+        write(handle, box);
+        return handle;
+    }
+
+    /**
+     * Setzt die Bounds einer Box (z.B. nach einer Bewegung).
+     *
+     * @param handle Handle aus {@link #add(Geometry)}
+     * @param box    neue Bounds
+     * @throws RuntimeException if the handle is unknown or the box does not match
+     */
+    public void update(int handle, Geometry box) {
+        checkHandle(handle);
+        checkGeometry(box);
+        write(handle, box);
+    }
+
+    /**
+     * Setzt die Bounds einer Box ohne Allokation.
+     *
+     * @param handle Handle aus {@link #add(Geometry)}
+     * @param min    untere Grenzen je Achse
+     * @param max    obere Grenzen je Achse
+     * @throws RuntimeException if the handle is unknown
+     */
+    public void update(int handle, double[] min, double[] max) {
+        checkHandle(handle);
+        System.arraycopy(min, 0, lower, handle * dims, dims);
+        System.arraycopy(max, 0, upper, handle * dims, dims);
+    }
+
+    /**
+     * Entfernt eine Box. Ihre Paare erscheinen beim nächsten {@link #step()}
+     * in {@link Frame#removed}.
+     *
+     * @param handle Handle aus {@link #add(Geometry)}
+     * @throws RuntimeException if the handle is unknown
+     */
+    public void remove(int handle) {
+        checkHandle(handle);
+        if (state[handle] == PENDING) {
+            // Noch nie in einem Frame → keine Endpunkte, keine Paare
+            pendingAdds.removeValue(handle);
+            state[handle] = FREE;
+            freeHandles.add(handle);
+            return;
+        }
+        state[handle] = REMOVED;
+        pendingRemoves.add(handle);
+    }
+
+    /**
+     * Verarbeitet einen Frame: übernimmt hinzugefügte, entfernte und bewegte
+     * Boxen und bestimmt die Änderungen der überlappenden Paare.
+     *
+     * @return hinzugekommene und weggefallene Paare
+     */
+    public Frame step() {
+        if (dims == 0) {
+            return new Frame(new long[0], new long[0]);
+        }
+        LongList added = new LongList();
+        LongList removed = new LongList();
+
+        // SCHRITT 1: Entfernte Boxen aus Endpunkten und Paarmenge löschen
+        if (pendingRemoves.size > 0) {
+            dropRemoved(removed);
+        }
+
+        // SCHRITT 2: Neuaufbau oder inkrementelles Update
+        int active = endpointCount / 2;
+        if (pendingAdds.size > 0 && (long) pendingAdds.size * REBUILD_FRACTION > active) {
+            rebuild(added, removed);
+        } else {
+            incremental(added, removed);
+        }
+        return new Frame(added.toArray(), removed.toArray());
+    }
+
+    /**
+     * Gibt alle aktuell überlappenden Paare zurück (Stand des letzten step()).
+     *
+     * @return Paare, siehe {@link #first(long)} und {@link #second(long)}
+     */
+    public long[] pairs() {
+        return pairs.toArray();
+    }
+
+    /**
+     * Gibt die Anzahl der aktuell überlappenden Paare zurück.
+     *
+     * @return Anzahl
+     */
+    public int pairCount() {
+        return pairs.size;
+    }
+
+    /**
+     * Gibt die Anzahl der Boxen zurück (einschließlich noch nicht verarbeiteter).
+     *
+     * @return Anzahl
+     */
+    public int size() {
+        return endpointCount / 2 + pendingAdds.size - pendingRemoves.size;
+    }
+
+    /**
+     * Gibt die aktuellen Bounds einer Box zurück.
+     *
+     * @param handle Handle
+     * @return Rectangle bzw. Volume
+     */
+    public Geometry get(int handle) {
+        checkHandle(handle);
+        return Bounds.box(Arrays.copyOfRange(lower, handle * dims, handle * dims + dims),
+                          Arrays.copyOfRange(upper, handle * dims, handle * dims + dims), planar);
+    }
+
+    /**
+     * @param pair Paar
+     * @return kleinere Handle des Paares
+     */
+    public static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    /**
+     * @param pair Paar
+     * @return größere Handle des Paares
+     */
+    public static int second(long pair) {
+        return (int) pair;
+    }
+
+    /**
+     * Kodiert ein Paar unabhängig von der Reihenfolge.
+     *
+     * @param a Handle
+     * @param b Handle
+     * @return Paar
+     */
+    public static long pair(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    /**
+     * Entfernt die Endpunkte entfernter Boxen (ein Durchlauf je Achse)
+     * und alle ihre Paare.
+     */
+    private void dropRemoved(LongList removed) {
+        IntStream.range(0, dims).parallel().forEach(axis -> {
+            int[] e = endpoints[axis];
+            int n = 0;
+            for (int i = 0; i < endpointCount; i++) {
+                if (state[e[i] >>> 1] != REMOVED) {
+                    e[n++] = e[i];
+                }
+            }
+        });
+        endpointCount -= 2 * pendingRemoves.size;
+
+        for (long pair : pairs.toArray()) {
+            if (state[first(pair)] == REMOVED || state[second(pair)] == REMOVED) {
+                pairs.remove(pair);
+                removed.add(pair);
+            }
+        }
+        for (int i = 0; i < pendingRemoves.size; i++) {
+            int handle = pendingRemoves.get(i);
+            state[handle] = FREE;
+            freeHandles.add(handle);
+        }
+        pendingRemoves.clear();
+    }
+
+    /**
+     * Inkrementelles Update: neue Endpunkte hinten anhängen, dann je Achse
+     * parallel Insertion Sort mit Sammeln der Kandidaten, danach abgleichen.
+     *
+     * Neue Boxen stehen anfangs hinter allen anderen (also ohne Überlappung);
+     * jede Überlappung, die sie im Frame bekommen, erzeugt daher beim
+     * Einsortieren eine Vertauschung.
+     */
+    private void incremental(LongList added, LongList removed) {
+        appendPending();
+        LongList[] candidates = new LongList[dims];
+        IntStream.range(0, dims).parallel()
+            .forEach(axis -> candidates[axis] = insertionSort(axis));
+
+        for (LongList list : candidates) {
+            for (int i = 0; i < list.size; i++) {
+                long pair = list.get(i);
+                boolean overlapping = overlaps(first(pair), second(pair));
+                if (overlapping && pairs.add(pair)) {
+                    added.add(pair);
+                } else if (!overlapping && pairs.remove(pair)) {
+                    removed.add(pair);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sortiert die Endpunkte einer Achse per Insertion Sort und sammelt
+     * dabei alle Paare, deren min- und max-Endpunkt die Reihenfolge tauschen.
+     */
+    private LongList insertionSort(int axis) {
+        LongList candidates = new LongList();
+        int[] e = endpoints[axis];
+        double[] v = values[axis];
+        for (int i = 0; i < endpointCount; i++) {
+            v[i] = value(e[i], axis);
+        }
+        for (int i = 1; i < endpointCount; i++) {
+            int code = e[i];
+            double value = v[i];
+            int j = i - 1;
+            // Bei gleichem Wert steht min (Bit 0 = 0) vor max
+            while (j >= 0 && (value < v[j] || (value == v[j] && (code & 1) < (e[j] & 1)))) {
+                int other = e[j];
+                if (((code ^ other) & 1) != 0) {
+                    candidates.add(pair(code >>> 1, other >>> 1));
+                }
+                e[j + 1] = other;
+                v[j + 1] = v[j];
+                j--;
+            }
+            e[j + 1] = code;
+            v[j + 1] = value;
+        }
+        return candidates;
+    }
+
+    /**
+     * Neuaufbau: alle Achsen neu sortieren, Paare per Sweep bestimmen und
+     * mit der bisherigen Paarmenge vergleichen.
+     */
+    private void rebuild(LongList added, LongList removed) {
+        appendPending();
+        IntStream.range(0, dims).parallel().forEach(axis -> {
+            // Schlüssel je Endpunkt-Code: (Wert, 0 für min / 1 für max)
+            double[] keys = new double[2 * 2 * nextHandle];
+            for (int i = 0; i < endpointCount; i++) {
+                int code = endpoints[axis][i];
+                keys[2 * code] = value(code, axis);
+                keys[2 * code + 1] = code & 1;
+            }
+            IndexSort.sort(endpoints[axis], 0, endpointCount, keys, 2, 0, 2);
+        });
+
+        // Sweep über Achse 0 mit Liste der offenen Boxen
+        PairSet fresh = new PairSet();
+        int[] open = new int[endpointCount / 2];
+        int[] position = new int[nextHandle];
+        int openCount = 0;
+        int[] e = endpoints[0];
+        for (int i = 0; i < endpointCount; i++) {
+            int handle = e[i] >>> 1;
+            if ((e[i] & 1) == 0) {
+                for (int k = 0; k < openCount; k++) {
+                    if (overlapsFrom(handle, open[k], 1)) {
+                        fresh.add(pair(handle, open[k]));
+                    }
+                }
+                position[handle] = openCount;
+                open[openCount++] = handle;
+            } else {
+                // Entfernen durch Tausch mit dem letzten Eintrag
+                int last = open[--openCount];
+                open[position[handle]] = last;
+                position[last] = position[handle];
+            }
+        }
+
+        for (long pair : fresh.toArray()) {
+            if (!pairs.contains(pair)) {
+                added.add(pair);
+            }
+        }
+        for (long pair : pairs.toArray()) {
+            if (!fresh.contains(pair)) {
+                removed.add(pair);
+            }
+        }
+        pairs.replaceWith(fresh);
+    }
+
+    /**
+     * Hängt die Endpunkte neuer Boxen hinten an alle Achsen an.
+     */
+    private void appendPending() {
+        for (int i = 0; i < pendingAdds.size; i++) {
+            int handle = pendingAdds.get(i);
+            for (int axis = 0; axis < dims; axis++) {
+                endpoints[axis][endpointCount] = handle << 1;
+                endpoints[axis][endpointCount + 1] = (handle << 1) | 1;
+            }
+            endpointCount += 2;
+            state[handle] = ACTIVE;
+        }
+        pendingAdds.clear();
+    }
+
+    private double value(int code, int axis) {
+        int index = (code >>> 1) * dims + axis;
+        return (code & 1) == 0 ? lower[index] : upper[index];
+    }
+
+    private boolean overlaps(int a, int b) {
+        return overlapsFrom(a, b, 0);
+    }
+
+    /**
+     * Prüft die Überlappung zweier Boxen auf den Achsen ab fromAxis.
+     */
+    private boolean overlapsFrom(int a, int b, int fromAxis) {
+        int ia = a * dims;
+        int ib = b * dims;
+        for (int axis = fromAxis; axis < dims; axis++) {
+            if (lower[ia + axis] > upper[ib + axis] || lower[ib + axis] > upper[ia + axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(int handle, Geometry box) {
+        for (int axis = 0; axis < dims; axis++) {
+            lower[handle * dims + axis] = Bounds.lower(box, axis);
+            upper[handle * dims + axis] = Bounds.upper(box, axis);
+        }
+    }
+
+    private void checkGeometry(Geometry box) {
+        if (box == null) {
+            throw new RuntimeException("Geometry is null");
+        }
+        if (dims == 0) {
+            init(box.dimensions(), Bounds.isPlanar(box));
+        } else if (box.dimensions() != dims || Bounds.isPlanar(box) != planar) {
+            throw new RuntimeException("Geometry does not match the boxes added before");
+        }
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= nextHandle || state[handle] == FREE || state[handle] == REMOVED) {
+            throw new RuntimeException("Unknown handle " + handle);
+        }
+    }
+
+    /**
+     * Legt die Arrays beim ersten add() an.
+     */
+    private void init(int dims, boolean planar) {
+        this.dims = dims;
+        this.planar = planar;
+        this.lower = new double[INITIAL_CAPACITY * dims];
+        this.upper = new double[INITIAL_CAPACITY * dims];
+        this.state = new byte[INITIAL_CAPACITY];
+        this.endpoints = new int[dims][2 * INITIAL_CAPACITY];
+        this.values = new double[dims][2 * INITIAL_CAPACITY];
+    }
+
+    /**
+     * Verdoppelt die Anzahl der Handles.
+     */
+    private void grow() {
+        int capacity = state.length * 2;
+        lower = Arrays.copyOf(lower, capacity * dims);
+        upper = Arrays.copyOf(upper, capacity * dims);
+        state = Arrays.copyOf(state, capacity);
+        for (int axis = 0; axis < dims; axis++) {
+            endpoints[axis] = Arrays.copyOf(endpoints[axis], 2 * capacity);
+            values[axis] = new double[2 * capacity];
+        }
+    }
+
+    /**
+     * Wachsende Liste von int-Werten.
+     */
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int pop() {
+            return values[--size];
+        }
+
+        void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Wachsende Liste von long-Werten.
+     */
+    private static final class LongList {
+        long[] values = new long[16];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long get(int index) {
+            return values[index];
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Hash-Menge von Paaren (long) mit offener Adressierung.
+     *
+     * Lineares Sondieren, Löschen durch Rückwärtsverschieben (keine
+     * Grabsteine), Verdopplung bei 50% Füllung. Leere Slots: EMPTY.
+     */
+    private static final class PairSet {
+        private static final long EMPTY = -1L;
+        long[] slots = newSlots(16);
+        int size;
+
+        private static long[] newSlots(int capacity) {
+            long[] slots = new long[capacity];
+            Arrays.fill(slots, EMPTY);
+            return slots;
+        }
+
+        boolean contains(long pair) {
+            return slots[find(pair)] == pair;
+        }
+
+        boolean add(long pair) {
+            int slot = find(pair);
+            if (slots[slot] == pair) {
+                return false;
+            }
+            slots[slot] = pair;
+            if (2 * ++size > slots.length) {
+                rehash(slots.length * 2);
+            }
+            return true;
+        }
+
+        boolean remove(long pair) {
+            int mask = slots.length - 1;
+            int slot = find(pair);
+            if (slots[slot] != pair) {
+                return false;
+            }
+            // Nachfolgende Einträge der Kette nach vorne schieben
+            int gap = slot;
+            int next = (gap + 1) & mask;
+            while (slots[next] != EMPTY) {
+                int home = hash(slots[next]) & mask;
+                // Eintrag darf in die Lücke, wenn home nicht zyklisch in (gap, next] liegt
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    slots[gap] = slots[next];
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            slots[gap] = EMPTY;
+            size--;
+            return true;
+        }
+
+        long[] toArray() {
+            long[] result = new long[size];
+            int n = 0;
+            for (long pair : slots) {
+                if (pair != EMPTY) {
+                    result[n++] = pair;
+                }
+            }
+            return result;
+        }
+
+        void replaceWith(PairSet other) {
+            slots = other.slots;
+            size = other.size;
+        }
+
+        /**
+         * Slot mit pair oder der erste leere Slot seiner Kette.
+         */
+        private int find(long pair) {
+            int mask = slots.length - 1;
+            int slot = hash(pair) & mask;
+            while (slots[slot] != EMPTY && slots[slot] != pair) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void rehash(int capacity) {
+            long[] old = slots;
+            slots = newSlots(capacity);
+            for (long pair : old) {
+                if (pair != EMPTY) {
+                    slots[find(pair)] = pair;
+                }
+            }
+        }
+
+        /**
+         * Mischfunktion aus MurmurHash3.
+         */
+        private static int hash(long pair) {
+            long h = pair * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return (int) h;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test method for {@link TestRunner}.
+ *
+ * REGELN:
+ * - Methode ohne Parameter, statisch oder nicht, auch private
+ * - Nicht-statische Methoden laufen auf einer neuen Instanz (Konstruktor
+ *   ohne Parameter)
+ * - Ein Test schlägt fehl, wenn er eine Exception oder einen Error wirft
+ *
+ * BEISPIEL:
+ * &#64;Test
+ * private static void testPoint2D() { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Test {
+}
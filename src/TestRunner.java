@@ -0,0 +1,144 @@
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Runs all {@link Test} methods of the given test classes.
+ *
+ * ZWECK:
+ * - Ersetzt die main-Methode der Testklassen: Tests werden per Reflection
+ *   gefunden, jeder Test läuft für sich, ein Fehler bricht nicht die
+ *   übrigen Tests ab
+ * - Assertions sind IMMER aktiv, auch ohne -ea: Der Runner schaltet sie im
+ *   ClassLoader ein, BEVOR die Testklassen (und die Bibliothek) geladen werden
+ *
+ * ABLAUF:
+ * 1. Assertions für alle danach geladenen Klassen einschalten
+ * 2. Je Klasse: @Test-Methoden sammeln, nach Namen sortieren
+ *    → Reihenfolge ist fest, Tests dürfen aber nicht voneinander abhängen
+ * 3. Jeden Test ausführen, Fehler mit Ursache ausgeben
+ * 4. Zusammenfassung; Exit-Code 1, wenn ein Test fehlgeschlagen ist
+ *
+ * VERWENDUNG:
+ * java TestRunner                                  (GeometryPerformanceTest und GeometryTest)
+ * java TestRunner GeometryTest                     (eine Klasse)
+ * java TestRunner GeometryTest#testDbscan          (ein Test)
+ */
+public final class TestRunner {
+
+    /**
+     * Testklassen, wenn keine angegeben sind. Als Namen, damit sie erst
+     * nach dem Einschalten der Assertions geladen werden. Performance-Tests
+     * zuerst, solange der JIT noch nicht von den übrigen Tests geprägt ist.
+     */
+    private static final String[] DEFAULT_CLASSES = {"GeometryPerformanceTest", "GeometryTest"};
+
+    /**
+     * Keine Instanzen - nur statische Hilfsmethoden.
+     */
+    private TestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int failed = run(args.length > 0 ? args : DEFAULT_CLASSES);
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Führt die Tests aus.
+     *
+     * @param selectors Klassennamen, optional mit "#methode" für einen einzelnen Test
+     * @return Anzahl fehlgeschlagener Tests
+     * @throws ClassNotFoundException wenn eine Klasse nicht existiert
+     * @throws RuntimeException if a selected method does not exist
+     */
+    public static int run(String... selectors) throws ClassNotFoundException {
+        ClassLoader loader = TestRunner.class.getClassLoader();
+        loader.setDefaultAssertionStatus(true);
+
+        int passed = 0;
+        List<String> failures = new ArrayList<>();
+        for (String selector : selectors) {
+            int hash = selector.indexOf('#');
+            String className = hash < 0 ? selector : selector.substring(0, hash);
+            Class<?> testClass = Class.forName(className, true, loader);
+            List<Method> tests = tests(testClass, hash < 0 ? null : selector.substring(hash + 1));
+
+            System.out.println("=== " + className + " (" + tests.size() + " tests) ===\n");
+            for (Method test : tests) {
+                String name = className + "#" + test.getName();
+                Throwable failure = invoke(testClass, test);
+                if (failure == null) {
+                    passed++;
+                } else {
+                    failures.add(name);
+                    System.out.println("✗ " + name + " FAILED: " + failure);
+                    for (StackTraceElement frame : failure.getStackTrace()) {
+                        if (frame.getClassName().equals(className)) {
+                            System.out.println("    at " + frame);
+                            break;
+                        }
+                    }
+                }
+            }
+            System.out.println();
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("✓ All tests passed! (" + passed + ")");
+        } else {
+            System.out.println("✗ " + failures.size() + " of " + (passed + failures.size()) + " tests failed:");
+            failures.forEach(name -> System.out.println("  " + name));
+        }
+        return failures.size();
+    }
+
+    /**
+     * Sammelt die @Test-Methoden einer Klasse, nach Namen sortiert.
+     */
+    private static List<Method> tests(Class<?> testClass, String only) {
+        List<Method> tests = new ArrayList<>();
+        for (Method method : testClass.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Test.class) && (only == null || method.getName().equals(only))) {
+                if (method.getParameterCount() != 0) {
+                    throw new RuntimeException("Test method must not have parameters: " + method);
+                }
+                tests.add(method);
+            }
+        }
+        if (only != null && tests.isEmpty()) {
+            throw new RuntimeException("No test " + only + " in " + testClass.getName());
+        }
+        tests.sort(Comparator.comparing(Method::getName));
+        return tests;
+    }
+
+    /**
+     * Führt einen Test aus.
+     *
+     * @return <code>null</code> bei Erfolg, sonst die Ursache des Fehlers
+     */
+    private static Throwable invoke(Class<?> testClass, Method test) {
+        try {
+            test.setAccessible(true);
+            Object instance = null;
+            if (!Modifier.isStatic(test.getModifiers())) {
+                Constructor<?> constructor = testClass.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                instance = constructor.newInstance();
+            }
+            test.invoke(instance);
+            return null;
+        } catch (InvocationTargetException e) {
+            return e.getCause();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return e;
+        }
+    }
+}
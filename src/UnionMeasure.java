@@ -0,0 +1,333 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the covered area/volume of the union of many Rectangles or Volumes
+ * (Klee's measure problem).
+ *
+ * PROBLEM:
+ * - Summe der volume()-Werte zählt Überlappungen mehrfach
+ * - encapsulate überschätzt: Lücken zwischen den Körpern zählen mit
+ *
+ * ALGORITHMUS 2D (Sweep Line + Segmentbaum), O(n log n):
+ * 1. y-Koordinaten aller Rechtecke sortieren → Elementarintervalle
+ * 2. Sweep Line läuft in x-Richtung über alle linken/rechten Kanten
+ * 3. Segmentbaum über y zählt, wie oft jedes Intervall überdeckt ist,
+ *    und kennt die aktuell überdeckte Länge
+ * 4. Fläche += überdeckte Länge × (x - vorheriges x)
+ *
+ * ALGORITHMUS nD: Sweep über die erste Achse, zwischen zwei Ereignissen
+ * wird das (n-1)-dimensionale Maß der aktiven Körper rekursiv berechnet,
+ * bis nur noch 2 Achsen übrig sind.
+ *
+ * PARALLEL: Die erste Achse wird in Scheiben (Slabs) mit etwa gleich vielen
+ * Kanten geteilt, jede Scheibe wird unabhängig (auf sie zugeschnitten)
+ * berechnet, die Ergebnisse werden addiert.
+ *
+ * Punkte dürfen enthalten sein, sie tragen nichts zum Maß bei.
+ */
+public final class UnionMeasure {
+
+    /**
+     * Anzahl der Dimensionen.
+     */
+    private final int dims;
+
+    /**
+     * Untere/obere Grenzen, Index id * dims + axis.
+     */
+    private final double[] lo;
+    private final double[] hi;
+
+    /**
+     * Anzahl der Körper.
+     */
+    private final int count;
+
+    /**
+     * Liest die Bounds aller Geometrien in flache Arrays.
+     */
+    private UnionMeasure(Collection<? extends Geometry> geometries) {
+        this.count = geometries.size();
+        this.dims = count == 0 ? 2 : geometries.iterator().next().dimensions();
+        this.lo = new double[count * dims];
+        this.hi = new double[count * dims];
+        int id = 0;
+        for (Geometry g : geometries) {
+            if (g.dimensions() != dims) {
+                throw new RuntimeException("Geometries have different dimensions");
+            }
+            for (int axis = 0; axis < dims; axis++) {
+                // + 0.0 macht aus -0.0 eine 0.0: Arrays.sort/binarySearch trennen
+                // beide, der Vergleich mit == nicht
+                lo[id * dims + axis] = Bounds.lower(g, axis) + 0.0;
+                hi[id * dims + axis] = Bounds.upper(g, axis) + 0.0;
+            }
+            id++;
+        }
+    }
+
+    /**
+     * Berechnet das Maß der Vereinigung aller Geometrien.
+     *
+     * @param geometries Rectangles/Volumes (und Punkte) gleicher Dimension
+     * @return überdeckte Fläche bzw. überdecktes Volumen
+     * @throws RuntimeException if the geometries have different dimensions
+     */
+    public static double measure(Collection<? extends Geometry> geometries) {
+        UnionMeasure m = new UnionMeasure(geometries);
+        return m.sweep(0, m.allIds(), m.count, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+            new int[m.dims][]);
+    }
+
+    /**
+     * Berechnet das Maß der Vereinigung parallel, mit einer Scheibe pro
+     * vier verfügbaren Prozessoren.
+     *
+     * @param geometries Rectangles/Volumes (und Punkte) gleicher Dimension
+     * @return überdeckte Fläche bzw. überdecktes Volumen
+     * @throws RuntimeException if the geometries have different dimensions
+     */
+    public static double parallelMeasure(Collection<? extends Geometry> geometries) {
+        return parallelMeasure(geometries, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Berechnet das Maß der Vereinigung parallel in <code>slabs</code> Scheiben.
+     *
+     * @param geometries Rectangles/Volumes (und Punkte) gleicher Dimension
+     * @param slabs      Anzahl der Scheiben entlang der ersten Achse
+     * @return überdeckte Fläche bzw. überdecktes Volumen
+     * @throws RuntimeException if the geometries have different dimensions or slabs &lt; 1
+     */
+    public static double parallelMeasure(Collection<? extends Geometry> geometries, int slabs) {
+        if (slabs < 1) {
+            throw new RuntimeException("slabs is < 1");
+        }
+        UnionMeasure m = new UnionMeasure(geometries);
+        if (m.count == 0) {
+            return 0.0;
+        }
+
+        // Scheibengrenzen an Quantilen aller Kanten der ersten Achse
+        double[] edges = new double[2 * m.count];
+        for (int id = 0; id < m.count; id++) {
+            edges[2 * id] = m.lo[id * m.dims];
+            edges[2 * id + 1] = m.hi[id * m.dims];
+        }
+        Arrays.parallelSort(edges);
+        double[] bounds = new double[slabs + 1];
+        bounds[0] = Double.NEGATIVE_INFINITY;
+        bounds[slabs] = Double.POSITIVE_INFINITY;
+        for (int s = 1; s < slabs; s++) {
+            bounds[s] = edges[(int) ((long) edges.length * s / slabs)];
+        }
+
+        return IntStream.range(0, slabs).parallel().mapToDouble(s -> {
+            double from = bounds[s];
+            double to = bounds[s + 1];
+            if (!(from < to)) {
+                return 0.0;
+            }
+            // Nur Körper, die in die Scheibe hineinragen
+            int[] ids = new int[m.count];
+            int n = 0;
+            for (int id = 0; id < m.count; id++) {
+                if (m.lo[id * m.dims] < to && m.hi[id * m.dims] > from) {
+                    ids[n++] = id;
+                }
+            }
+            return m.sweep(0, ids, n, from, to, new int[m.dims][]);
+        }).sum();
+    }
+
+    /**
+     * Maß der Körper ids[0, n) in den Achsen axis .. dims-1,
+     * wobei die Achse <code>axis</code> auf [clipLo, clipHi] zugeschnitten wird.
+     *
+     * @param positions Positions-Arrays je Achse (Länge count), werden beim
+     *                  ersten Bedarf angelegt und von allen Aufrufen derselben
+     *                  Achse wiederverwendet (eines pro Berechnung bzw. Scheibe)
+     */
+    private double sweep(int axis, int[] ids, int n, double clipLo, double clipHi, int[][] positions) {
+        if (n == 0) {
+            return 0.0;
+        }
+        if (dims - axis == 2) {
+            return sweep2D(axis, ids, n, clipLo, clipHi);
+        }
+
+        // Ereignisse: Anfänge und Enden, jeweils sortiert
+        int[] starts = Arrays.copyOf(ids, n);
+        int[] ends = Arrays.copyOf(ids, n);
+        IndexSort.sort(starts, 0, n, lo, dims, axis, 1);
+        IndexSort.sort(ends, 0, n, hi, dims, axis, 1);
+
+        // Aktive Menge mit O(1)-Entfernen (Position je Körper); gelesen wird
+        // nur die Position aktiver Körper → Array muss nicht geleert werden
+        int[] active = new int[n];
+        if (positions[axis] == null) {
+            positions[axis] = new int[count];
+        }
+        int[] position = positions[axis];
+        int activeCount = 0;
+
+        double measure = 0.0;
+        double prev = Double.NaN;
+        int i = 0;
+        int j = 0;
+        while (j < n) {
+            double x = i < n ? Math.min(lo[starts[i] * dims + axis], hi[ends[j] * dims + axis])
+                : hi[ends[j] * dims + axis];
+            double cx = Math.max(clipLo, Math.min(clipHi, x));
+
+            // Schicht zwischen prev und cx: (n-1)-dimensionales Maß × Dicke
+            if (activeCount > 0 && cx > prev) {
+                measure += sweep(axis + 1, Arrays.copyOf(active, activeCount), activeCount,
+                    Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, positions) * (cx - prev);
+            }
+            prev = cx;
+
+            // Alle Ereignisse an dieser Stelle anwenden
+            while (i < n && lo[starts[i] * dims + axis] == x) {
+                position[starts[i]] = activeCount;
+                active[activeCount++] = starts[i++];
+            }
+            while (j < n && hi[ends[j] * dims + axis] == x) {
+                int id = ends[j++];
+                int last = active[--activeCount];
+                active[position[id]] = last;
+                position[last] = position[id];
+            }
+        }
+        return measure;
+    }
+
+    /**
+     * Sweep Line in Achse ax mit Segmentbaum über Achse ax + 1.
+     */
+    private double sweep2D(int ax, int[] ids, int n, double clipLo, double clipHi) {
+        int ay = ax + 1;
+
+        // y-Koordinaten sortieren und Duplikate entfernen
+        double[] ys = new double[2 * n];
+        for (int k = 0; k < n; k++) {
+            ys[2 * k] = lo[ids[k] * dims + ay];
+            ys[2 * k + 1] = hi[ids[k] * dims + ay];
+        }
+        Arrays.sort(ys);
+        int m = 0;
+        for (int k = 0; k < ys.length; k++) {
+            if (k == 0 || ys[k] != ys[m - 1]) {
+                ys[m++] = ys[k];
+            }
+        }
+        if (m < 2) {
+            return 0.0;
+        }
+        SegmentTree tree = new SegmentTree(ys, m);
+
+        int[] starts = Arrays.copyOf(ids, n);
+        int[] ends = Arrays.copyOf(ids, n);
+        IndexSort.sort(starts, 0, n, lo, dims, ax, 1);
+        IndexSort.sort(ends, 0, n, hi, dims, ax, 1);
+
+        double area = 0.0;
+        double prev = Double.NaN;
+        int i = 0;
+        int j = 0;
+        while (j < n) {
+            double x = i < n ? Math.min(lo[starts[i] * dims + ax], hi[ends[j] * dims + ax])
+                : hi[ends[j] * dims + ax];
+            double cx = Math.max(clipLo, Math.min(clipHi, x));
+            if (cx > prev) {
+                area += tree.covered() * (cx - prev);
+            }
+            prev = cx;
+
+            while (i < n && lo[starts[i] * dims + ax] == x) {
+                int id = starts[i++];
+                tree.update(lo[id * dims + ay], hi[id * dims + ay], 1);
+            }
+            while (j < n && hi[ends[j] * dims + ax] == x) {
+                int id = ends[j++];
+                tree.update(lo[id * dims + ay], hi[id * dims + ay], -1);
+            }
+        }
+        return area;
+    }
+
+    /**
+     * Erzeugt die Indizes 0 .. count-1.
+     */
+    private int[] allIds() {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    /**
+     * Segmentbaum über die Elementarintervalle [ys[k], ys[k+1]].
+     *
+     * cover[node]  = wie oft der GANZE Knotenbereich überdeckt ist
+     * length[node] = überdeckte Länge im Knotenbereich
+     */
+    private static final class SegmentTree {
+        private final double[] ys;
+        private final int segments;
+        private final int[] cover;
+        private final double[] length;
+
+        private SegmentTree(double[] ys, int m) {
+            this.ys = ys;
+            this.segments = m - 1;
+            this.cover = new int[4 * segments];
+            this.length = new double[4 * segments];
+        }
+
+        /**
+         * Gesamte überdeckte Länge.
+         */
+        private double covered() {
+            return length[1];
+        }
+
+        /**
+         * Ändert die Überdeckung von [from, to] um delta.
+         */
+        private void update(double from, double to, int delta) {
+            int l = Arrays.binarySearch(ys, 0, segments + 1, from);
+            int r = Arrays.binarySearch(ys, 0, segments + 1, to);
+            if (l < r) {
+                update(1, 0, segments, l, r, delta);
+            }
+        }
+
+        /**
+         * Rekursives Update für Knoten node mit Bereich [nl, nr) der Segmente.
+         */
+        private void update(int node, int nl, int nr, int l, int r, int delta) {
+            if (r <= nl || nr <= l) {
+                return;
+            }
+            if (l <= nl && nr <= r) {
+                cover[node] += delta;
+            } else {
+                int mid = (nl + nr) >>> 1;
+                update(2 * node, nl, mid, l, r, delta);
+                update(2 * node + 1, mid, nr, l, r, delta);
+            }
+            // Länge neu berechnen
+            if (cover[node] > 0) {
+                length[node] = ys[nr] - ys[nl];
+            } else if (nr - nl == 1) {
+                length[node] = 0.0;
+            } else {
+                length[node] = length[2 * node] + length[2 * node + 1];
+            }
+        }
+    }
+}
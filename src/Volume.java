@@ -146,6 +146,34 @@ public class Volume extends Geometry {
         return vol;
     }
 
+    /**
+     * Gibt den natürlichen Logarithmus des Volumens zurück.
+     * 
+     * PROBLEM bei volume():
+     * - 200 Kanten der Länge 100 → 100^200 = Infinity (Überlauf)
+     * - 200 Kanten der Länge 0.01 → 0.01^200 = 0.0 (Unterlauf)
+     * → compareTo() liefert dann falsche Gleichstände
+     * 
+     * LÖSUNG: log(a × b × c) = log(a) + log(b) + log(c)
+     * - Summe bleibt im darstellbaren Bereich
+     * - Ein Durchlauf, keine Allokation
+     * 
+     * @return log(Volumen), -Infinity wenn eine Kante die Länge 0 hat
+     */
+    @Override
+    public double logVolume() {
+        double logVol = 0.0;
+        for (int i = 0; i < dimensions(); i++) {
+            double edge = getEdgeLength(i);
+            if (edge == 0.0) {
+                // Leeres Volumen, auch wenn andere Kanten unendlich sind
+                return Double.NEGATIVE_INFINITY;
+            }
+            logVol += Math.log(edge);
+        }
+        return logVol;
+    }
+
     /**
      * Umschließt dieses Volume mit einer anderen Geometrie.
      * 
@@ -226,6 +254,38 @@ public class Volume extends Geometry {
         }
     }
 
+    /**
+     * Vergleicht dieses Volume mit einem anderen Objekt.
+     * 
+     * GLEICH, wenn beide Eckpunkte gleich sind (siehe equals der Punkte).
+     * Da der Konstruktor normalisiert, ist die Reihenfolge der beim
+     * Erzeugen übergebenen Ecken egal.
+     * 
+     * @param o das zu vergleichende Objekt
+     * @return true bei gleichen Ecken
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Volume other = (Volume) o;
+        return lowerCorner.equals(other.lowerCorner) && upperCorner.equals(other.upperCorner);
+    }
+
+    /**
+     * Hashcode passend zu equals.
+     * 
+     * @return Hashcode aus beiden Ecken
+     */
+    @Override
+    public int hashCode() {
+        return 31 * lowerCorner.hashCode() + upperCorner.hashCode();
+    }
+
     /**
      * Textuelle Repräsentation des Volumes.
      * 
@@ -0,0 +1,302 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the results of window queries against a {@link RegionTree}.
+ *
+ * ZWECK:
+ * - Dashboards stellen immer wieder dieselben Fensteranfragen
+ * - Die Daten ändern sich nur langsam → Ergebnisse wiederverwenden
+ *
+ * SCHLÜSSEL:
+ * - Normalisierte Bounds des Fensters (min/max je Achse, -0.0 → 0.0)
+ *   → Rectangle, Volume und gleichwertige Fenster treffen denselben Eintrag
+ *
+ * EINTRAG: Trefferliste und die Aggregate count, bounds (encapsulate) und
+ * volumeSum (Summe der volume()), einmal beim Fehltreffer berechnet.
+ *
+ * VERDRÄNGUNG: LRU über LinkedHashMap in Zugriffsreihenfolge, höchstens
+ * maxEntries Einträge.
+ *
+ * INVALIDIERUNG:
+ * - Schreibzugriffe laufen über den Cache (insert/remove)
+ * - Alle Einträge, deren Fenster die geschriebene Geometrie berührt,
+ *   werden verworfen (Rand zählt wie bei rangeQuery dazu)
+ * - Versionszähler: Ein Ergebnis, dessen Berechnung sich mit einem
+ *   Schreibzugriff überschneidet, wird nicht mehr eingetragen
+ *
+ * NEBENLÄUFIGKEIT: thread-sicher; Anfragen an den Baum laufen außerhalb
+ * der Sperre des Caches.
+ *
+ * BEISPIEL:
+ * WindowQueryCache cache = new WindowQueryCache(tree, 1024);
+ * cache.count(window);    // Fehltreffer → Baum
+ * cache.count(window);    // Treffer
+ * cache.insert(point);    // verwirft alle Fenster, die point enthalten
+ */
+public class WindowQueryCache {
+
+    /**
+     * Momentaufnahme der Statistik.
+     */
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long invalidations;
+        public final int entries;
+
+        private Stats(long hits, long misses, long evictions, long invalidations, int entries) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+        }
+
+        /**
+         * @return Anteil der Treffer an allen Anfragen (0, wenn noch keine)
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.1f%%), %d evictions, %d invalidations, %d entries",
+                hits, misses, 100 * hitRate(), evictions, invalidations, entries);
+        }
+    }
+
+    /**
+     * Normalisierte Bounds eines Fensters als Schlüssel.
+     */
+    private static final class Key {
+        final double[] min;
+        final double[] max;
+        final int hash;
+
+        Key(Geometry window) {
+            int dims = window.dimensions();
+            min = new double[dims];
+            max = new double[dims];
+            for (int axis = 0; axis < dims; axis++) {
+                // + 0.0 macht aus -0.0 eine 0.0 (sonst zwei Einträge für dasselbe Fenster)
+                min[axis] = Bounds.lower(window, axis) + 0.0;
+                max[axis] = Bounds.upper(window, axis) + 0.0;
+            }
+            hash = 31 * Arrays.hashCode(min) + Arrays.hashCode(max);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Arrays.equals(min, other.min) && Arrays.equals(max, other.max);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Ergebnis einer Fensteranfrage mit Aggregaten.
+     */
+    private static final class Entry {
+        final List<Geometry> items;
+        final Geometry bounds;
+        final double volumeSum;
+
+        Entry(List<Geometry> items) {
+            this.items = Collections.unmodifiableList(items);
+            Geometry b = null;
+            double sum = 0;
+            for (Geometry g : items) {
+                b = b == null ? g.encapsulate(g) : b.encapsulate(g);
+                sum += g.volume();
+            }
+            this.bounds = b;
+            this.volumeSum = sum;
+        }
+    }
+
+    private final RegionTree tree;
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /**
+     * Wird bei jedem Schreibzugriff erhöht (unter der Sperre des Caches).
+     */
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Creates a cache in front of a tree.
+     *
+     * @param tree       Baum, an den Fehltreffer und Schreibzugriffe gehen
+     * @param maxEntries maximale Anzahl gecachter Fenster (mindestens 1)
+     * @throws RuntimeException if maxEntries is lesser than 1
+     */
+    public WindowQueryCache(RegionTree tree, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new RuntimeException("maxEntries is < 1");
+        }
+        this.tree = tree;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > WindowQueryCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Findet alle Punkte im Fenster (siehe {@link RegionTree#rangeQuery(Geometry)}).
+     *
+     * @param window Anfragebereich
+     * @return gefundene Punkte (nicht veränderbar)
+     */
+    public List<Geometry> rangeQuery(Geometry window) {
+        return lookup(window).items;
+    }
+
+    /**
+     * Zählt die Punkte im Fenster.
+     *
+     * @param window Anfragebereich
+     * @return Anzahl
+     */
+    public int count(Geometry window) {
+        return lookup(window).items.size();
+    }
+
+    /**
+     * Bounds aller Punkte im Fenster (encapsulate über die Treffer).
+     *
+     * @param window Anfragebereich
+     * @return Rectangle bzw. Volume oder <code>null</code>, wenn keine Treffer
+     */
+    public Geometry bounds(Geometry window) {
+        return lookup(window).bounds;
+    }
+
+    /**
+     * Summe der volume() aller Treffer im Fenster.
+     *
+     * @param window Anfragebereich
+     * @return Summe
+     */
+    public double volumeSum(Geometry window) {
+        return lookup(window).volumeSum;
+    }
+
+    /**
+     * Fügt einen Punkt in den Baum ein und verwirft betroffene Einträge.
+     *
+     * @param point Point2D bzw. Point
+     */
+    public void insert(Geometry point) {
+        tree.insert(point);
+        invalidate(point);
+    }
+
+    /**
+     * Entfernt einen Punkt aus dem Baum und verwirft betroffene Einträge.
+     *
+     * @param point Point2D bzw. Point
+     * @return true, wenn ein Punkt entfernt wurde
+     */
+    public boolean remove(Geometry point) {
+        boolean removed = tree.remove(point);
+        if (removed) {
+            invalidate(point);
+        }
+        return removed;
+    }
+
+    /**
+     * Verwirft alle Einträge, deren Fenster die Geometrie berührt. Für
+     * Schreibzugriffe, die direkt am Baum vorbei erfolgt sind.
+     *
+     * @param changed geänderter Punkt oder Bereich
+     */
+    public synchronized void invalidate(Geometry changed) {
+        version++;
+        Iterator<Key> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            Key key = it.next();
+            if (Bounds.intersects(changed, key.min, key.max)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Verwirft alle Einträge.
+     */
+    public synchronized void clear() {
+        version++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    /**
+     * Gibt eine Momentaufnahme der Statistik zurück.
+     *
+     * @return Statistik
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size());
+    }
+
+    /**
+     * Liefert den Eintrag zum Fenster, bei Fehltreffer aus dem Baum.
+     *
+     * ABLAUF:
+     * 1. Unter der Sperre nachsehen (zählt Treffer, aktualisiert LRU)
+     * 2. Fehltreffer: Version merken, Baum OHNE Sperre abfragen
+     * 3. Nur eintragen, wenn seitdem nichts geschrieben wurde - sonst
+     *    könnte ein veraltetes Ergebnis eine Invalidierung überleben
+     */
+    private Entry lookup(Geometry window) {
+        Key key = new Key(window);
+        long seen;
+        synchronized (this) {
+            Entry cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            seen = version;
+        }
+        Entry entry = new Entry(tree.rangeQuery(window));
+        synchronized (this) {
+            if (version == seen) {
+                entries.put(key, entry);
+            }
+        }
+        return entry;
+    }
+}